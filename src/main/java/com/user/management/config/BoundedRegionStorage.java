@@ -0,0 +1,109 @@
+package com.user.management.config;
+
+import com.user.management.util.HeapEstimator;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage for one second-level cache region: a concurrent map with a time to live and a size
+ * bound. When the bound is reached, expired entries are dropped first and then an eighth of the
+ * region, in hash order. Hibernate's access strategies only ever see a miss for a dropped entry.
+ */
+public class BoundedRegionStorage implements DomainDataStorageAccess {
+
+    private static final int USAGE_SAMPLE = 64;
+
+    private record Entry(Object value, long expiresAtNanos) {
+    }
+
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public BoundedRegionStorage(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (expired(entry, System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return getFromCache(key, null) != null;
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimates the heap held by the region from a sample of its entries, keys included.
+     */
+    public long estimatedBytes() {
+        int sampled = 0;
+        long sampledBytes = 0;
+        for (Map.Entry<Object, Entry> entry : entries.entrySet()) {
+            if (sampled == USAGE_SAMPLE) {
+                break;
+            }
+            sampledBytes += 32 + HeapEstimator.estimate(entry.getKey(), "org.hibernate.cache")
+                    + HeapEstimator.estimate(entry.getValue().value(), "org.hibernate.cache");
+            sampled++;
+        }
+        return sampled == 0 ? 0 : sampledBytes * entries.size() / sampled;
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> expired(entry, now));
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 8);
+        Iterator<Object> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return ttlNanos > 0 && now - entry.expiresAtNanos() > 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.user.management.config;
+
+import com.user.management.models.PooledIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Passes {@code spring.app.idAllocationSize} to {@link PooledIdGenerator}.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${spring.app.idAllocationSize:" + PooledIdGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        return properties -> properties.put(PooledIdGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+    }
+}
@@ -0,0 +1,25 @@
+package com.user.management.config;
+
+import com.user.management.repositories.IdSequenceRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aligns the id sequences with the ids already in each table once every bean is created, which is
+ * before scheduled jobs, runners (including the one seeding roles and users) and the web server
+ * can insert anything.
+ */
+@Component
+public class IdSequenceMigration implements SmartInitializingSingleton {
+
+    private final IdSequenceRepository idSequenceRepository;
+
+    public IdSequenceMigration(IdSequenceRepository idSequenceRepository) {
+        this.idSequenceRepository = idSequenceRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        idSequenceRepository.alignWithExistingIds();
+    }
+}
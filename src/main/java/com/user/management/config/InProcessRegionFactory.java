@@ -0,0 +1,72 @@
+package com.user.management.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Second-level cache regions held on the heap of this instance, each a {@link BoundedRegionStorage}.
+ * Entity, natural-id and query result regions share one size bound and time to live; the update
+ * timestamps region is never bounded, since losing a timestamp would let a stale query result
+ * look current. Regions are not shared between instances, so a write made elsewhere is seen here
+ * only once the entry expires.
+ */
+public class InProcessRegionFactory extends RegionFactoryTemplate {
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final Map<String, BoundedRegionStorage> regions = new ConcurrentHashMap<>();
+
+    public InProcessRegionFactory(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), maxEntries, ttlMs);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, maxEntries, ttlMs);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, Integer.MAX_VALUE, 0);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, @SuppressWarnings("rawtypes") Map configValues) {
+        // nothing to start: storage is created per region
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedRegionStorage::release);
+        regions.clear();
+    }
+
+    /**
+     * @return the storage of every region by name
+     */
+    public Map<String, BoundedRegionStorage> getRegions() {
+        return new TreeMap<>(regions);
+    }
+
+    private BoundedRegionStorage register(String regionName, int regionMaxEntries, long regionTtlMs) {
+        BoundedRegionStorage storage = new BoundedRegionStorage(regionMaxEntries, regionTtlMs);
+        regions.put(regionName, storage);
+        return storage;
+    }
+}
@@ -0,0 +1,93 @@
+package com.user.management.config;
+
+import com.user.management.enums.MetricFamily;
+import com.user.management.services.IMetricsService;
+import com.user.management.util.LatencyHistogram;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times controller methods, repository calls and password hashing into {@link LatencyHistogram}s.
+ * The histogram for each join point is resolved once and cached, so the per-call overhead is two
+ * {@code System.nanoTime()} reads, a map lookup and the histogram update.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private final IMetricsService metricsService;
+    private final ConcurrentHashMap<TimerKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public MetricsAspect(IMetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    @Around("execution(public * com.user.management.controller.AuthController.*(..))"
+            + " || execution(public * com.user.management.controller.KeepController.*(..))"
+            + " || execution(public * com.user.management.controller.AdminController.*(..))"
+            + " || execution(public * com.user.management.controller.AuditLogController.*(..))")
+    public Object timeHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, MetricFamily.HTTP_HANDLER);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)"
+            + " || execution(public * com.user.management.repositories.UserRepositoryImpl.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, MetricFamily.REPOSITORY);
+    }
+
+    @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.*(..))")
+    public Object timePasswordEncoder(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, MetricFamily.PASSWORD_ENCODER);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, MetricFamily family) throws Throwable {
+        LatencyHistogram histogram = histogramFor(joinPoint, family);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            histogram.recordNanos(System.nanoTime() - start, failed);
+        }
+    }
+
+    private LatencyHistogram histogramFor(ProceedingJoinPoint joinPoint, MetricFamily family) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return histograms.computeIfAbsent(new TimerKey(family, targetClass, method),
+                key -> metricsService.histogram(family, labels(family, targetClass, method)));
+    }
+
+    private static String labels(MetricFamily family, Class<?> targetClass, Method method) {
+        switch (family) {
+            case HTTP_HANDLER:
+                return "handler=\"" + targetClass.getSimpleName() + "." + method.getName() + "\"";
+            case REPOSITORY:
+                return "repository=\"" + repositoryName(targetClass) + "\",method=\"" + method.getName() + "\"";
+            default:
+                return "operation=\"" + method.getName() + "\"";
+        }
+    }
+
+    private static String repositoryName(Class<?> targetClass) {
+        for (Class<?> candidate : targetClass.getInterfaces()) {
+            if (candidate.getPackageName().equals("com.user.management.repositories")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+
+    private record TimerKey(MetricFamily family, Class<?> targetClass, Method method) {
+    }
+}
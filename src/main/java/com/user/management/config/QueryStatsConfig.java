@@ -0,0 +1,44 @@
+package com.user.management.config;
+
+import com.user.management.services.IQueryStatsService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires Hibernate's statement inspection and statistics into {@link IQueryStatsService}: every
+ * prepared statement is counted against the current request, and statements slower than
+ * {@code spring.app.slowQueryMs} are handed over for the slow-query ring.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    @Value("${spring.app.slowQueryMs:200}")
+    private long slowQueryMs;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer(IQueryStatsService queryStatsService) {
+        StatementInspector inspector = sql -> {
+            queryStatsService.onStatement(sql);
+            return sql;
+        };
+        StatisticsFactory statisticsFactory = sessionFactory -> new StatisticsImpl(sessionFactory) {
+            @Override
+            public void slowQuery(String sql, long executionTime) {
+                super.slowQuery(sql, executionTime);
+                queryStatsService.onSlowQuery(sql, executionTime);
+            }
+        };
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+            properties.put(AvailableSettings.STATS_BUILDER, statisticsFactory);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SLOW_QUERY, slowQueryMs);
+        };
+    }
+}
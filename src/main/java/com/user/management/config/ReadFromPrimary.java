@@ -0,0 +1,17 @@
+package com.user.management.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends every read made while the annotated method runs to the primary, for callers that must see
+ * their own writes (or anyone else's) without waiting for the replica to catch up.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,18 @@
+package com.user.management.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets read-only transactions started while the annotated method runs use the replica. Only for
+ * reads that tolerate {@code replicaMaxLagMs} of staleness and never feed a write; every other
+ * transaction, read-only or not, uses the primary.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ReadFromReplica {
+}
@@ -0,0 +1,29 @@
+package com.user.management.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link ReadFromReplica}. Ordered ahead of the transaction advice so the connection the
+ * transaction acquires can already be routed to the replica.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadFromReplicaAspect {
+
+    @Around("@annotation(com.user.management.config.ReadFromReplica)"
+            + " || @within(com.user.management.config.ReadFromReplica)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReadWriteRoutingDataSource.enterReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.exitReplica();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.user.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits reads from writes when {@code spring.app.replicaUrl} is set. The primary pool is built
+ * from {@code spring.datasource.*} and sized by {@code spring.datasource.hikari.*} as before; the
+ * replica gets its own pool of {@code replicaPoolSize} connections. Without a replica URL this
+ * configuration is skipped and Spring Boot's single pool is used.
+ */
+@Configuration
+@ConditionalOnExpression("!'${spring.app.replicaUrl:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.app.replicaUrl}") String url,
+                                              @Value("${spring.app.replicaUsername:}") String username,
+                                              @Value("${spring.app.replicaPassword:}") String password,
+                                              @Value("${spring.app.replicaPoolSize:10}") int poolSize) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(url);
+        replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+        replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setMaximumPoolSize(poolSize);
+        replica.setReadOnly(true);
+        // the export streams from the replica, and MySQL only honours its fetch size with a server cursor
+        replica.addDataSourceProperty("useCursorFetch", "true");
+        return replica;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${spring.app.replicaLagQuery:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${spring.app.replicaMaxLagMs:2000}") long maxLagMs,
+                                               @Value("${spring.app.replicaLagCheckMs:1000}") long checkIntervalMs) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLagMs, checkIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
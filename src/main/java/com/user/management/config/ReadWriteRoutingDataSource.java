@@ -0,0 +1,90 @@
+package com.user.management.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Routes connections for read-only transactions started inside {@link ReadFromReplica} (or
+ * {@link #onReplica(Supplier)}) to the replica pool and everything else to the primary. Plain
+ * read-only transactions, such as those Spring Data opens for {@code findById}, stay on the primary,
+ * since their results are often saved back. The replica is skipped while {@link ReplicaLagMonitor}
+ * reports it unavailable and while the current thread is inside {@link #onPrimary(Supplier)}.
+ * <p>
+ * The lookup happens when a connection is acquired, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager only marks the transaction read-only after it has begun.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<int[]> PRIMARY_FORCED = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<int[]> REPLICA_ALLOWED = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Runs {@code work} with every new connection taken from the primary. Calls nest.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        enterPrimary();
+        try {
+            return work.get();
+        } finally {
+            exitPrimary();
+        }
+    }
+
+    /**
+     * Runs {@code work} with read-only transactions allowed on the replica. Calls nest.
+     */
+    public static <T> T onReplica(Supplier<T> work) {
+        enterReplica();
+        try {
+            return work.get();
+        } finally {
+            exitReplica();
+        }
+    }
+
+    static void enterPrimary() {
+        PRIMARY_FORCED.get()[0]++;
+    }
+
+    static void exitPrimary() {
+        PRIMARY_FORCED.get()[0]--;
+    }
+
+    static void enterReplica() {
+        REPLICA_ALLOWED.get()[0]++;
+    }
+
+    static void exitReplica() {
+        REPLICA_ALLOWED.get()[0]--;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && REPLICA_ALLOWED.get()[0] > 0
+                && PRIMARY_FORCED.get()[0] == 0
+                && lagMonitor.isReplicaAvailable()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,109 @@
+package com.user.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica for its replication lag and reports it unavailable while the lag exceeds
+ * {@code maxLagMs}, replication is stopped, the check fails, or no check has succeeded for three
+ * intervals.
+ * <p>
+ * The lag query defaults to MySQL's {@code SHOW REPLICA STATUS}, read from its
+ * {@code Seconds_Behind_Source} column. Any other query may return the lag in seconds as its
+ * first column. A query that returns no row means the server is not a configured replica, for
+ * example after {@code RESET REPLICA ALL} or when the URL points at the wrong host, so the lag is
+ * unknown and the replica is not used.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lagMs = -1;
+    private volatile long lastCheckNanos;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMs, long checkIntervalMs) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaAvailable() {
+        return available && System.nanoTime() - lastCheckNanos <= TimeUnit.MILLISECONDS.toNanos(3 * checkIntervalMs);
+    }
+
+    /**
+     * @return the lag measured by the last check in milliseconds, or -1 if it is unknown
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    void check() {
+        boolean wasAvailable = available;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMs)));
+            lagMs = readLagMs(statement);
+            available = lagMs >= 0 && lagMs <= maxLagMs;
+            lastCheckNanos = System.nanoTime();
+        } catch (SQLException | RuntimeException e) {
+            lagMs = -1;
+            available = false;
+            log.warn("Replica lag check failed: {}", e.getMessage());
+        }
+        if (wasAvailable != available) {
+            log.warn("Replica {} for reads (lag {} ms)", available ? "enabled" : "disabled", lagMs);
+        }
+    }
+
+    private long readLagMs(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long seconds = rs.getLong(lagColumn(rs.getMetaData()));
+            return rs.wasNull() ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (MYSQL_LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,243 @@
+package com.user.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned scripts under {@code db/migration} ({@code V<version>__<description>.sql},
+ * the Flyway layout) in version order and records each in {@code schema_history} with a checksum.
+ * <p>
+ * V1 is the production schema {@code ddl-auto=update} created before migrations were introduced.
+ * A database that already has a {@code users} table but no history is taken to be at that schema
+ * and baselined at version 1, so only the later scripts run; one that already has a table a later
+ * script creates is not at the baseline and stops startup instead of failing halfway through the
+ * scripts. A script that was edited after being applied stops startup. On MySQL the run holds a named lock, so
+ * instances starting together apply each script once.
+ */
+@Slf4j
+public class SchemaMigrator {
+
+    static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    static final String HISTORY_TABLE = "schema_history";
+    private static final String BASELINE_TABLE = "users";
+    private static final int BASELINE_VERSION = 1;
+    private static final String LOCK_NAME = "user_management.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern CREATE_TABLE = Pattern.compile("create table (\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String CREATE_HISTORY = "create table if not exists " + HISTORY_TABLE + " ("
+            + "version integer not null, description varchar(200) not null, checksum bigint, "
+            + "installed_on timestamp not null, execution_ms bigint not null, primary key (version))";
+    private static final String SELECT_HISTORY = "select version, checksum from " + HISTORY_TABLE;
+    private static final String INSERT_HISTORY = "insert into " + HISTORY_TABLE
+            + " (version, description, checksum, installed_on, execution_ms) values (?, ?, ?, ?, ?)";
+
+    record Migration(int version, String description, Resource script, long checksum) {
+    }
+
+    private final DataSource dataSource;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void migrate() {
+        List<Migration> migrations = loadMigrations(new PathMatchingResourcePatternResolver());
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            boolean locked = lock(connection);
+            try {
+                applyPending(connection, migrations);
+            } finally {
+                if (locked) {
+                    unlock(connection);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    static List<Migration> loadMigrations(ResourcePatternResolver resolver) {
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource script : resolver.getResources(LOCATION)) {
+                Matcher name = FILE_NAME.matcher(String.valueOf(script.getFilename()));
+                if (!name.matches()) {
+                    throw new IllegalStateException("Migration " + script.getFilename() + " is not named V<version>__<description>.sql");
+                }
+                migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                        script, checksum(script)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read migrations from " + LOCATION, e);
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    void applyPending(Connection connection, List<Migration> migrations) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_HISTORY);
+        }
+        Map<Integer, Long> applied = appliedVersions(connection);
+        if (applied.isEmpty() && tableExists(connection, BASELINE_TABLE)) {
+            List<String> later = tablesCreatedAfterBaseline(connection, migrations);
+            if (!later.isEmpty()) {
+                throw new IllegalStateException("Existing schema without migration history already has " + later
+                        + ", created by a migration after V" + BASELINE_VERSION + "; only a database at the baseline schema can be baselined");
+            }
+            log.info("Existing schema without migration history, baselining at version {}", BASELINE_VERSION);
+            record(connection, BASELINE_VERSION, "<< baseline >>", null, 0);
+            applied.put(BASELINE_VERSION, null);
+        }
+
+        int pending = 0;
+        for (Migration migration : migrations) {
+            if (applied.containsKey(migration.version())) {
+                Long checksum = applied.get(migration.version());
+                if (checksum != null && checksum != migration.checksum()) {
+                    throw new IllegalStateException("Migration V" + migration.version() + " ("
+                            + migration.description() + ") was changed after it was applied");
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            record(connection, migration.version(), migration.description(), migration.checksum(), millis);
+            log.info("Applied migration V{} ({}) in {} ms", migration.version(), migration.description(), millis);
+            pending++;
+        }
+        if (pending == 0) {
+            log.info("Schema is up to date with {} migration(s)", migrations.size());
+        }
+    }
+
+    private Map<Integer, Long> appliedVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(SELECT_HISTORY)) {
+            while (rows.next()) {
+                int version = rows.getInt(1);
+                long checksum = rows.getLong(2);
+                applied.put(version, rows.wasNull() ? null : checksum);
+            }
+        }
+        return applied;
+    }
+
+    private void record(Connection connection, int version, String description, Long checksum, long millis) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_HISTORY)) {
+            insert.setInt(1, version);
+            insert.setString(2, description);
+            if (checksum == null) {
+                insert.setNull(3, Types.BIGINT);
+            } else {
+                insert.setLong(3, checksum);
+            }
+            insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            insert.setLong(5, millis);
+            insert.executeUpdate();
+        }
+    }
+
+    private static List<String> tablesCreatedAfterBaseline(Connection connection, List<Migration> migrations) throws SQLException {
+        List<String> existing = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (migration.version() <= BASELINE_VERSION) {
+                continue;
+            }
+            Matcher created = CREATE_TABLE.matcher(content(migration.script()));
+            while (created.find()) {
+                if (tableExists(connection, created.group(1))) {
+                    existing.add(created.group(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), name, null)) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean lock(Connection connection) throws SQLException {
+        if (!connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql")) {
+            return false;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("select get_lock(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next() || result.getInt(1) != 1) {
+                    throw new IllegalStateException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select release_lock(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.execute();
+        }
+    }
+
+    private static String content(Resource script) {
+        try {
+            return StreamUtils.copyToString(script.getInputStream(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read migration " + script.getFilename(), e);
+        }
+    }
+
+    private static long checksum(Resource script) {
+        String content = content(script);
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
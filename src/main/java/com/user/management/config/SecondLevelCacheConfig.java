@@ -0,0 +1,36 @@
+package com.user.management.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Hibernate's second-level and query caches on an {@link InProcessRegionFactory}. Only
+ * entities marked {@code @Cacheable} are cached: {@code Role} read-only, {@code User} read-write
+ * with its username natural id, plus the role and email lookup queries.
+ * <p>
+ * Writes through Hibernate, including bulk JPQL updates, invalidate the affected entries and query
+ * results. Writes that bypass it must evict the regions they touch themselves.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public InProcessRegionFactory inProcessRegionFactory(
+            @Value("${spring.app.secondLevelCacheMaxEntries:10000}") int maxEntries,
+            @Value("${spring.app.secondLevelCacheTtlMs:60000}") long ttlMs) {
+        return new InProcessRegionFactory(maxEntries, ttlMs);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(InProcessRegionFactory regionFactory) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE");
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.user.management.config;
+
+import com.user.management.util.RequestTrace;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import static com.user.management.util.RequestTrace.SERVER_TIMING_HEADER;
+
+/**
+ * Adds the Server-Timing header to traced responses just before the body is serialized, which is
+ * the last point at which headers can still be set. Serialization itself is recorded as a
+ * {@code render} span that only shows up in the trace log.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return RequestTrace.current() != null;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            response.getHeaders().set(SERVER_TIMING_HEADER, trace.serverTiming());
+            RequestTrace.open("render", selectedConverterType.getSimpleName());
+        }
+        return body;
+    }
+}
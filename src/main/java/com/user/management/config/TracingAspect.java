@@ -0,0 +1,84 @@
+package com.user.management.config;
+
+import com.user.management.util.RequestTrace;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens {@link RequestTrace} spans around controllers, the service interfaces, user loading,
+ * password hashing and repository calls. When the current request is not sampled each advice is
+ * a single {@link ThreadLocal} read before proceeding.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final ConcurrentHashMap<SpanKey, String> details = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.user.management.controller..*.*(..))")
+    public Object traceHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "handler");
+    }
+
+    @Around("execution(* com.user.management.services.IAuthService+.*(..))"
+            + " || execution(* com.user.management.services.IKeepService+.*(..))"
+            + " || execution(* com.user.management.services.IUserService+.*(..))"
+            + " || execution(* com.user.management.services.IAuditLogs+.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("execution(* com.user.management.security.services.UserDetailsServiceImpl.loadUserByUsername(..))")
+    public Object traceUserDetails(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "userDetails");
+    }
+
+    @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.*(..))")
+    public Object tracePasswordEncoder(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "bcrypt");
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)"
+            + " || execution(public * com.user.management.repositories.UserRepositoryImpl.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "db");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String category) throws Throwable {
+        if (RequestTrace.current() == null) {
+            return joinPoint.proceed();
+        }
+        int span = RequestTrace.open(category, detailOf(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTrace.close(span);
+        }
+    }
+
+    private String detailOf(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return details.computeIfAbsent(new SpanKey(targetClass, method),
+                key -> typeName(targetClass) + "." + method.getName());
+    }
+
+    private static String typeName(Class<?> targetClass) {
+        for (Class<?> candidate : targetClass.getInterfaces()) {
+            if (candidate.getPackageName().equals("com.user.management.repositories")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+
+    private record SpanKey(Class<?> targetClass, Method method) {
+    }
+}
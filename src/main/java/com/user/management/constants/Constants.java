@@ -56,6 +56,18 @@ public class Constants {
     public static final String TWO_FA_SECRET_EMPTY_MESSAGE = "Secret not found.";
     public static final String TWO_FA_SECRET_EMPTY_USER_MESSAGE = "Whoops! Looks like you lost your secret key. Let’s try that again! 🚀";
 
+    public static final String IMPORT_JOB_NOT_FOUND_MESSAGE = "Import job not found.";
+    public static final String IMPORT_JOB_NOT_FOUND_USER_MESSAGE = "Hmm, that import job seems to have wandered off. Double-check the job ID! 📦🔍";
+
+    public static final String MAIL_CAMPAIGN_NOT_FOUND_MESSAGE = "Mail campaign not found.";
+    public static final String MAIL_CAMPAIGN_NOT_FOUND_USER_MESSAGE = "That mail campaign got lost in the post. Double-check the campaign ID! 📬🔍";
+
+    public static final String TWO_FA_CHALLENGE_INVALID_MESSAGE = "Two-factor challenge is invalid or has expired.";
+    public static final String TWO_FA_CHALLENGE_INVALID_USER_MESSAGE = "That sign-in took a little too long. Please log in again! ⏳🔐";
+
+    public static final String TWO_FA_CODE_INVALID_MESSAGE = "Invalid 2FA code.";
+    public static final String TWO_FA_CODE_INVALID_USER_MESSAGE = "Hmm, that code didn’t match. Check your authenticator app and try again! 🔢";
+
     //500
     public static final String NULL_POINTER_EXCEPTION_MESSAGE = "A null pointer exception occurred: ";
     public static final String NULL_POINTER_EXCEPTION_USER_MESSAGE = "Yikes! Something’s missing! 😱 The bugs must be having a party. 🐛🍕";
@@ -88,6 +100,25 @@ public class Constants {
     public static final String GITHUB = "github";
     public static final String GOOGLE = "google";
 
+    //Paging
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String CURSOR_SEPARATOR = "|";
+    public static final int DEFAULT_SEARCH_RESULTS = 20;
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    //Audit actions
+    public static final String CREATE_KEEP = "CREATE_KEEP";
+    public static final String UPDATE_KEEP = "UPDATE_KEEP";
+    public static final String DELETE_KEEP = "DELETE_KEEP";
+
+    //Mail priorities, lower is delivered first
+    public static final int MAIL_PRIORITY_TRANSACTIONAL = 0;
+    public static final int MAIL_PRIORITY_CAMPAIGN = 1;
+
+    //Password reset
+    public static final long PASSWORD_RESET_TOKEN_TTL_HOURS = 24;
+
 
 
 }
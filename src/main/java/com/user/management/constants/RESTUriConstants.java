@@ -11,6 +11,8 @@ public class RESTUriConstants {
     public static final String SIGN_IN = "/signin";
     public static final String SIGN_UP = "/signup";
     public static final String HEALTH_CHECK = "/health";
+    public static final String LIVENESS = "/live";
+    public static final String READINESS = "/ready";
     public static final String USER = "/user";
     public static final String USERS = "/users";
     public static final String USERNAME = "/username";
@@ -38,4 +40,18 @@ public class RESTUriConstants {
 
     public static final String STATUS = "/status";
 
+    public static final String ROLLUPS = "/rollups";
+    public static final String PAGE = "/page";
+    public static final String BULK = "/bulk";
+    public static final String SEARCH = "/search";
+    public static final String IMPORT = "/import";
+    public static final String EXPORT = "/export";
+    public static final String STATS = "/stats";
+    public static final String METRICS = "/metrics";
+    public static final String QUERIES = "/queries";
+    public static final String MAIL_OUTBOX = "/mail/outbox";
+    public static final String MAIL_CAMPAIGNS = "/mail/campaigns";
+    public static final String CAMPAIGN_ID = "/{campaignId}";
+    public static final String JOB_ID = "/{jobId}";
+
 }
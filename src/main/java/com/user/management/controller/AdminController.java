@@ -1,16 +1,52 @@
 package com.user.management.controller;
 
+import com.user.management.enums.AccountStatusField;
+import com.user.management.enums.ExportFormat;
+import com.user.management.enums.ImportFormat;
 import com.user.management.models.Role;
 import com.user.management.models.User;
+import com.user.management.request.BulkAccountStatusRequest;
+import com.user.management.request.MailCampaignRequest;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.AdminStatsResponse;
 import com.user.management.response.ApiResponse;
+import com.user.management.response.BulkUpdateResponse;
+import com.user.management.response.EmailOutboxMetrics;
+import com.user.management.response.HealthResponse;
+import com.user.management.response.ImportJobStatus;
+import com.user.management.response.KeysetPage;
+import com.user.management.response.MailCampaignStatus;
+import com.user.management.response.QueryStatsResponse;
+import com.user.management.response.UserSearchResult;
+import com.user.management.response.UserSummaryResponse;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IEmailOutboxService;
+import com.user.management.services.IHealthService;
+import com.user.management.services.IMailCampaignService;
+import com.user.management.services.IMetricsService;
+import com.user.management.services.IQueryStatsService;
+import com.user.management.services.IUserExportService;
+import com.user.management.services.IUserImportService;
+import com.user.management.services.IUserSearchService;
 import com.user.management.services.IUserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
+import static com.user.management.constants.Constants.DEFAULT_PAGE_SIZE;
+import static com.user.management.constants.Constants.DEFAULT_SEARCH_RESULTS;
 import static com.user.management.constants.RESTUriConstants.*;
 import static com.user.management.util.UserManagementUtils.handleResponse;
 
@@ -21,8 +57,42 @@ public class AdminController {
 
     private final IUserService IUserService;
 
-    public AdminController(IUserService IUserService) {
+    private final IUserSearchService userSearchService;
+
+    private final IUserImportService userImportService;
+
+    private final IUserExportService userExportService;
+
+    private final IAdminStatsService adminStatsService;
+
+    private final IEmailOutboxService emailOutboxService;
+
+    private final IMailCampaignService mailCampaignService;
+
+    private final IMetricsService metricsService;
+
+    private final IQueryStatsService queryStatsService;
+
+    private final IHealthService healthService;
+
+    @Value("${spring.app.exportTimeoutMs:1800000}")
+    private long exportTimeoutMs;
+
+    public AdminController(IUserService IUserService, IUserSearchService userSearchService,
+                           IUserImportService userImportService, IUserExportService userExportService,
+                           IAdminStatsService adminStatsService, IEmailOutboxService emailOutboxService,
+                           IMailCampaignService mailCampaignService, IMetricsService metricsService,
+                           IQueryStatsService queryStatsService, IHealthService healthService) {
         this.IUserService = IUserService;
+        this.userSearchService = userSearchService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.adminStatsService = adminStatsService;
+        this.emailOutboxService = emailOutboxService;
+        this.mailCampaignService = mailCampaignService;
+        this.metricsService = metricsService;
+        this.queryStatsService = queryStatsService;
+        this.healthService = healthService;
     }
 
     /**
@@ -37,6 +107,175 @@ public class AdminController {
                 HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the dashboard counters for users and keeps.
+     *
+     * @return ResponseEntity with the current counters.
+     */
+    @GetMapping(STATS)
+    public ResponseEntity<ApiResponse<AdminStatsResponse>> getStats() {
+        return handleResponse(adminStatsService::getStats,
+                "Fetched stats successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Exposes latency histograms and call counts in the Prometheus text format.
+     *
+     * @return ResponseEntity with the metrics as plain text.
+     */
+    @GetMapping(value = METRICS, produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok(metricsService.scrape());
+    }
+
+    /**
+     * Retrieves Hibernate statistics, per-endpoint statement counts, N+1 suspects and recent slow queries.
+     *
+     * @return ResponseEntity with the query statistics.
+     */
+    @GetMapping(QUERIES)
+    public ResponseEntity<ApiResponse<QueryStatsResponse>> getQueryStats() {
+        return handleResponse(queryStatsService::getStats,
+                "Fetched query stats successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the readiness verdict with every probe's result, errors included, and the
+     * saturation signals that the public readiness endpoint leaves out.
+     *
+     * @return ResponseEntity with the detailed health report.
+     */
+    @GetMapping(HEALTH_CHECK)
+    public ResponseEntity<ApiResponse<HealthResponse>> getHealthDetails() {
+        return handleResponse(healthService::readiness,
+                "Fetched health details successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves queue depth and delivery counters for the email outbox.
+     *
+     * @return ResponseEntity with the outbox metrics.
+     */
+    @GetMapping(MAIL_OUTBOX)
+    public ResponseEntity<ApiResponse<EmailOutboxMetrics>> getMailOutboxMetrics() {
+        return handleResponse(emailOutboxService::getMetrics,
+                "Fetched outbox metrics successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Starts a bulk mail campaign to users selected by id or by filter.
+     *
+     * @param request Template, optional subject, and the user ids or filter to send to.
+     * @return ResponseEntity with the new campaign's status.
+     */
+    @PostMapping(MAIL_CAMPAIGNS)
+    public ResponseEntity<ApiResponse<MailCampaignStatus>> startMailCampaign(@RequestBody MailCampaignRequest request) {
+        return handleResponse(() -> mailCampaignService.startCampaign(request),
+                "Mail campaign started",
+                HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Retrieves the progress and throughput of a bulk mail campaign.
+     *
+     * @param campaignId ID of the campaign.
+     * @return ResponseEntity with the campaign status.
+     */
+    @GetMapping(MAIL_CAMPAIGNS + CAMPAIGN_ID)
+    public ResponseEntity<ApiResponse<MailCampaignStatus>> getMailCampaign(@PathVariable Long campaignId) {
+        return handleResponse(() -> mailCampaignService.getCampaignStatus(campaignId),
+                "Fetched mail campaign successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves one page of users as slim summaries, filtered and sorted on the server.
+     *
+     * @param filter Role, status flag, sign-up method and creation date filters plus sort order.
+     * @param cursor Cursor from the previous page; omit for the first page.
+     * @param size   Number of users per page.
+     * @return ResponseEntity with the page of users and the cursor for the next page.
+     */
+    @GetMapping(USERS + PAGE)
+    public ResponseEntity<ApiResponse<KeysetPage<UserSummaryResponse>>> getUserPage(
+            @ModelAttribute UserFilterRequest filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        return handleResponse(() -> IUserService.getUserPage(filter, cursor, size),
+                "Fetched Users successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Streams every matching user as a CSV or NDJSON download, optionally gzipped. Only this request
+     * gets the long {@code exportTimeoutMs}; other async requests keep the default timeout.
+     *
+     * @param filter  Role, status flag, sign-up method and creation date filters.
+     * @param format  Format of the export.
+     * @param gzip    Whether to gzip the download.
+     * @param request The current request, whose async timeout is extended.
+     * @return ResponseEntity streaming the export as an attachment.
+     */
+    @GetMapping(USERS + EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@ModelAttribute UserFilterRequest filter,
+                                                             @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        String fileName = "users-" + LocalDate.now() + "." + format.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(out -> userExportService.exportUsers(filter, format, gzip, out));
+    }
+
+    /**
+     * Looks users up by partial username or email for typeahead, served from the in-memory search index.
+     *
+     * @param q     Partial username or email.
+     * @param limit Maximum number of results.
+     * @return ResponseEntity with the matching users.
+     */
+    @GetMapping(USERS + SEARCH)
+    public ResponseEntity<ApiResponse<List<UserSearchResult>>> searchUsers(@RequestParam String q,
+                                                                           @RequestParam(defaultValue = "" + DEFAULT_SEARCH_RESULTS) int limit) {
+        return handleResponse(() -> userSearchService.search(q, limit),
+                "Fetched Users successfully",
+                HttpStatus.OK);
+    }
+
+    /**
+     * Queues a bulk import of users from a CSV (username,email,password[,role] header) or NDJSON body.
+     *
+     * @param body   The raw upload stream.
+     * @param format Format of the upload.
+     * @return ResponseEntity with the queued import job.
+     */
+    @PostMapping(USERS + IMPORT)
+    public ResponseEntity<ApiResponse<ImportJobStatus>> importUsers(InputStream body,
+                                                                    @RequestParam(defaultValue = "CSV") ImportFormat format) {
+        return handleResponse(() -> userImportService.submitImport(body, format),
+                "Import job accepted",
+                HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Retrieves the progress and row errors of an import job.
+     *
+     * @param jobId ID of the import job.
+     * @return ResponseEntity with the job status.
+     */
+    @GetMapping(USERS + IMPORT + JOB_ID)
+    public ResponseEntity<ApiResponse<ImportJobStatus>> getImportStatus(@PathVariable String jobId) {
+        return handleResponse(() -> userImportService.getImportStatus(jobId),
+                "Fetched import job successfully",
+                HttpStatus.OK);
+    }
+
     /**
      * Updates a user's role based on user ID and role name.
      *
@@ -157,4 +396,52 @@ public class AdminController {
             return null;
         }, "Password updated successfully", HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    /**
+     * Locks or unlocks many accounts, selected by id list or filter, in chunked set-based updates.
+     *
+     * @param request Target user ids or filter, and whether the accounts should be locked.
+     * @return ResponseEntity with the number of affected users.
+     */
+    @PutMapping(BULK + UPDATE + LOCK + STATUS)
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> bulkUpdateAccountLockStatus(@RequestBody BulkAccountStatusRequest request) {
+        return handleResponse(() -> IUserService.bulkUpdateAccountStatus(AccountStatusField.LOCKED, request),
+                "Account lock status updated successfully", HttpStatus.OK);
+    }
+
+    /**
+     * Expires or renews many accounts, selected by id list or filter, in chunked set-based updates.
+     *
+     * @param request Target user ids or filter, and whether the accounts should be expired.
+     * @return ResponseEntity with the number of affected users.
+     */
+    @PutMapping(BULK + UPDATE + EXPIRY + STATUS)
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> bulkUpdateAccountExpiryStatus(@RequestBody BulkAccountStatusRequest request) {
+        return handleResponse(() -> IUserService.bulkUpdateAccountStatus(AccountStatusField.ACCOUNT_EXPIRED, request),
+                "Account expiry status updated successfully", HttpStatus.OK);
+    }
+
+    /**
+     * Enables or disables many accounts, selected by id list or filter, in chunked set-based updates.
+     *
+     * @param request Target user ids or filter, and whether the accounts should be enabled.
+     * @return ResponseEntity with the number of affected users.
+     */
+    @PutMapping(BULK + UPDATE + ENABLED + STATUS)
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> bulkUpdateAccountEnabledStatus(@RequestBody BulkAccountStatusRequest request) {
+        return handleResponse(() -> IUserService.bulkUpdateAccountStatus(AccountStatusField.ENABLED, request),
+                "Account enabled status updated successfully", HttpStatus.OK);
+    }
+
+    /**
+     * Expires or renews credentials of many accounts, selected by id list or filter, in chunked set-based updates.
+     *
+     * @param request Target user ids or filter, and whether the credentials should be expired.
+     * @return ResponseEntity with the number of affected users.
+     */
+    @PutMapping(BULK + UPDATE + CREDENTIALS + EXPIRY + STATUS)
+    public ResponseEntity<ApiResponse<BulkUpdateResponse>> bulkUpdateCredentialsExpiryStatus(@RequestBody BulkAccountStatusRequest request) {
+        return handleResponse(() -> IUserService.bulkUpdateAccountStatus(AccountStatusField.CREDENTIALS_EXPIRED, request),
+                "Credentials expiry status updated successfully", HttpStatus.OK);
+    }
+}
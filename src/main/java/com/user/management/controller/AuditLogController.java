@@ -1,15 +1,20 @@
 package com.user.management.controller;
 
+import com.user.management.enums.RollupResolution;
 import com.user.management.models.AuditLog;
 import com.user.management.response.ApiResponse;
+import com.user.management.response.AuditActivityPoint;
 import com.user.management.services.impl.AuditLogService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static com.user.management.constants.RESTUriConstants.*;
@@ -40,5 +45,27 @@ public class AuditLogController {
                 HttpStatus.CREATED);
     }
 
+    /**
+     * Retrieves keep activity counts bucketed by minute, hour or day from the pre-aggregated rollups.
+     *
+     * @param resolution Bucket size of the series.
+     * @param from       Inclusive start of the window (ISO date-time).
+     * @param to         Exclusive end of the window (ISO date-time).
+     * @param action     Optional action filter, e.g. CREATE_KEEP.
+     * @param username   Optional username filter.
+     * @return ResponseEntity with the activity series.
+     */
+    @GetMapping(ROLLUPS)
+    public ResponseEntity<ApiResponse<List<AuditActivityPoint>>> getActivitySeries(
+            @RequestParam(defaultValue = "HOUR") RollupResolution resolution,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String username) {
+        return handleResponse(() ->
+                        auditLogService.getActivitySeries(resolution, from, to, action, username),
+                "Fetched activity successfully",
+                HttpStatus.OK);
+    }
 
 }
@@ -8,8 +8,8 @@ import com.user.management.response.ApiResponse;
 import com.user.management.response.LoginResponse;
 import com.user.management.response.SignupResponse;
 import com.user.management.response.UserInfoResponse;
-import com.user.management.security.jwt.JwtUtils;
 import com.user.management.services.IAuthService;
+import com.user.management.services.IPasswordResetRequestService;
 import com.user.management.services.IUserService;
 import com.user.management.services.impl.TotpService;
 import com.user.management.services.impl.UserService;
@@ -34,17 +34,17 @@ public class AuthController {
 
     private final IAuthService authService;
     private final IUserService userService;
+    private final IPasswordResetRequestService passwordResetRequestService;
     private final AuthUtil authUtil;
     private final TotpService totpService;
-    private final JwtUtils jwtUtils;
 
     @Autowired
-    public AuthController(IAuthService authService, UserService userService, AuthUtil authUtil, TotpService totpService, JwtUtils jwtUtils) {
+    public AuthController(IAuthService authService, UserService userService, IPasswordResetRequestService passwordResetRequestService, AuthUtil authUtil, TotpService totpService) {
         this.authService = authService;
         this.userService = userService;
+        this.passwordResetRequestService = passwordResetRequestService;
         this.authUtil = authUtil;
         this.totpService = totpService;
-        this.jwtUtils = jwtUtils;
     }
 
 
@@ -81,7 +81,7 @@ public class AuthController {
     @PostMapping(PUBLIC + FORGOT_PASSWORD)
     public ResponseEntity<ApiResponse<String>> forgotPassword(@RequestParam String userEmail) {
         return handleResponse(() -> {
-                    userService.generatePasswordResetToken(userEmail);
+                    passwordResetRequestService.requestReset(userEmail);
                     return null;
                 },
                 "Reset Email Sent Successfully",
@@ -142,15 +142,11 @@ public class AuthController {
 
 
     @PostMapping(PUBLIC+VERIFY_TFA_LOGIN)
-    public ResponseEntity<String> verify2FALogin(@RequestParam int code,
-                                                 @RequestParam String jwtToken) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwtToken);
-        User user = userService.findByUsername(username);
-        boolean isValid = userService.validate2FACode(user.getId(), code);
-        if (!isValid) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid 2FA Code");
-        }
-        return ResponseEntity.ok("2FA Verified");
+    public ResponseEntity<ApiResponse<LoginResponse>> verify2FALogin(@RequestParam int code,
+                                                                    @RequestParam String challengeId) {
+        return handleResponse(() ->
+                        authService.verifyTwoFactorLogin(challengeId, code),
+                "2FA Verified",
+                HttpStatus.OK);
     }
 }
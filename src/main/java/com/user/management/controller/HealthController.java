@@ -1,17 +1,62 @@
 package com.user.management.controller;
 
+import com.user.management.enums.HealthStatus;
+import com.user.management.response.HealthResponse;
+import com.user.management.services.IHealthService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collections;
+
 import static com.user.management.constants.Constants.USER_HEALTH_CHECK;
 import static com.user.management.constants.RESTUriConstants.HEALTH_CHECK;
+import static com.user.management.constants.RESTUriConstants.LIVENESS;
 import static com.user.management.constants.RESTUriConstants.PUBLIC;
+import static com.user.management.constants.RESTUriConstants.READINESS;
 
 @RestController(PUBLIC)
 public class HealthController {
+
+    private final IHealthService healthService;
+
+    public HealthController(IHealthService healthService) {
+        this.healthService = healthService;
+    }
+
     @GetMapping(HEALTH_CHECK)
     public ResponseEntity<String> healthController() {
         return ResponseEntity.ok(USER_HEALTH_CHECK);
     }
+
+    /**
+     * Reports whether the probe scheduler is still running; dependency outages do not affect it.
+     *
+     * @return 200 while the node is alive, 503 otherwise.
+     */
+    @GetMapping(HEALTH_CHECK + LIVENESS)
+    public ResponseEntity<HealthResponse> liveness() {
+        return toResponse(healthService.liveness());
+    }
+
+    /**
+     * Reports the readiness verdict for the load balancer. The endpoint is public, so only the
+     * status and the time of the last probe round are returned; probe errors and saturation
+     * signals are served to admins by {@code AdminController.getHealthDetails}.
+     *
+     * @return 200 when every readiness probe is up, even if another probe is down, 503 otherwise.
+     */
+    @GetMapping(HEALTH_CHECK + READINESS)
+    public ResponseEntity<HealthResponse> readiness() {
+        HealthResponse health = healthService.readiness();
+        return toResponse(new HealthResponse(health.getStatus(), health.getCheckedAt(),
+                Collections.emptyMap(), Collections.emptyMap()));
+    }
+
+    private static ResponseEntity<HealthResponse> toResponse(HealthResponse health) {
+        HttpStatus status = health.getStatus() == HealthStatus.UP || health.getStatus() == HealthStatus.DEGRADED
+                ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(health);
+    }
 }
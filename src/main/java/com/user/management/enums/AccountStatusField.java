@@ -0,0 +1,8 @@
+package com.user.management.enums;
+
+public enum AccountStatusField {
+    LOCKED,
+    ACCOUNT_EXPIRED,
+    ENABLED,
+    CREDENTIALS_EXPIRED
+}
@@ -0,0 +1,32 @@
+package com.user.management.enums;
+
+import java.util.List;
+
+public enum EmailTemplate {
+    PASSWORD_RESET("resetPasswordEmailTemplate.html", "Password Reset Request", List.of("resetUrl")),
+    EMAIL_VERIFICATION("verifyEmailTemplate.html", "Verify Your Email Address", List.of("username", "verificationUrl")),
+    ACCOUNT_LOCKED("accountLockedEmailTemplate.html", "Your Account Has Been Locked", List.of("username")),
+    CREDENTIALS_EXPIRED("credentialsExpiredEmailTemplate.html", "Your Password Has Expired", List.of("username"));
+
+    private final String fileName;
+    private final String subject;
+    private final List<String> requiredKeys;
+
+    EmailTemplate(String fileName, String subject, List<String> requiredKeys) {
+        this.fileName = fileName;
+        this.subject = subject;
+        this.requiredKeys = requiredKeys;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    public List<String> requiredKeys() {
+        return requiredKeys;
+    }
+}
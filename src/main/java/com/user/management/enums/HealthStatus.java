@@ -0,0 +1,8 @@
+package com.user.management.enums;
+
+public enum HealthStatus {
+    UP,
+    DEGRADED,
+    DOWN,
+    UNKNOWN
+}
@@ -0,0 +1,6 @@
+package com.user.management.enums;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,8 @@
+package com.user.management.enums;
+
+public enum ImportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,28 @@
+package com.user.management.enums;
+
+/**
+ * Latency metrics exposed on the admin metrics endpoint. Each family is rendered as a Prometheus
+ * summary named {@code <prefix>_duration_seconds} plus an {@code <prefix>_errors_total} counter.
+ */
+public enum MetricFamily {
+    HTTP_HANDLER("http_handler", "Time spent in controller methods."),
+    JWT_FILTER("jwt_filter", "Time spent validating the JWT and loading the user in AuthTokenFilter."),
+    PASSWORD_ENCODER("password_encoder", "Time spent hashing and checking passwords."),
+    REPOSITORY("repository", "Time spent in repository calls.");
+
+    private final String prefix;
+    private final String help;
+
+    MetricFamily(String prefix, String help) {
+        this.prefix = prefix;
+        this.help = help;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public String help() {
+        return help;
+    }
+}
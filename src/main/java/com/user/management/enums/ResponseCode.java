@@ -23,6 +23,10 @@ public enum ResponseCode {
     AUTHENTICATION_FAILED("AI-4009", AUTHENTICATION_FAILED_MESSAGE, AUTHENTICATION_FAILED_USER_MESSAGE),
     USER_NOT_FOUND("AI-4010", USER_NOT_FOUND_MESSAGE, USER_NOT_FOUND_USER_MESSAGE),
     TWO_FA_SECRET_EMPTY("AI-4011", TWO_FA_SECRET_EMPTY_MESSAGE, TWO_FA_SECRET_EMPTY_USER_MESSAGE),
+    IMPORT_JOB_NOT_FOUND("AI-4012", IMPORT_JOB_NOT_FOUND_MESSAGE, IMPORT_JOB_NOT_FOUND_USER_MESSAGE),
+    MAIL_CAMPAIGN_NOT_FOUND("AI-4013", MAIL_CAMPAIGN_NOT_FOUND_MESSAGE, MAIL_CAMPAIGN_NOT_FOUND_USER_MESSAGE),
+    TWO_FA_CHALLENGE_INVALID("AI-4014", TWO_FA_CHALLENGE_INVALID_MESSAGE, TWO_FA_CHALLENGE_INVALID_USER_MESSAGE),
+    TWO_FA_CODE_INVALID("AI-4015", TWO_FA_CODE_INVALID_MESSAGE, TWO_FA_CODE_INVALID_USER_MESSAGE),
 
     //500
     NULL_POINTER_EXCEPTION("AI-5001", NULL_POINTER_EXCEPTION_MESSAGE, NULL_POINTER_EXCEPTION_USER_MESSAGE),
@@ -0,0 +1,24 @@
+package com.user.management.enums;
+
+public enum UserSortField {
+    ID("u.id"),
+    USERNAME("u.username"),
+    /**
+     * Served by the {@code (created_at, id)} index; the column is not null, so the keyset never has
+     * to compare against null.
+     */
+    CREATED_AT("u.createdAt");
+
+    private final String expression;
+
+    UserSortField(String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * @return the JPQL expression to sort and compare on, over a user aliased {@code u}
+     */
+    public String expression() {
+        return expression;
+    }
+}
@@ -0,0 +1,14 @@
+package com.user.management.events;
+
+import java.util.List;
+
+/**
+ * Published once per batch of users whose account status was changed by an admin operation, so
+ * listeners can drop state they hold for those users. When {@code revokeTokens} is set, the update
+ * has already stamped the users' token cut-off.
+ *
+ * @param userIds      The ids of the affected users.
+ * @param revokeTokens Whether previously issued tokens of these users stopped working.
+ */
+public record UserAccountsChangedEvent(List<Long> userIds, boolean revokeTokens) {
+}
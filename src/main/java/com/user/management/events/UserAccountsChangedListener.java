@@ -0,0 +1,51 @@
+package com.user.management.events;
+
+import com.user.management.models.User;
+import com.user.management.repositories.UserRepository;
+import com.user.management.security.TwoFactorChallengeStore;
+import com.user.management.services.ITotpService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops what this instance holds for users whose account was changed, once per batch: their
+ * second-level cache entries, the cached lookup queries, their cached TOTP secrets and their open
+ * two-factor challenges. The search index only holds usernames and emails, which these changes do
+ * not touch. Other instances are not notified; they rely on the token cut-off and on reading the
+ * principal past the cache.
+ */
+@Slf4j
+@Component
+public class UserAccountsChangedListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ITotpService totpService;
+    private final TwoFactorChallengeStore twoFactorChallengeStore;
+
+    public UserAccountsChangedListener(EntityManagerFactory entityManagerFactory, UserRepository userRepository,
+                                       ITotpService totpService, TwoFactorChallengeStore twoFactorChallengeStore) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.userRepository = userRepository;
+        this.totpService = totpService;
+        this.twoFactorChallengeStore = twoFactorChallengeStore;
+    }
+
+    /**
+     * Runs after the change commits, or at once when it was published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(UserAccountsChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache();
+        for (Long userId : event.userIds()) {
+            cache.evict(User.class, userId);
+            totpService.evictSecret(userId);
+        }
+        userRepository.evictLookupQueries();
+        twoFactorChallengeStore.dropChallenges(event.userIds());
+        log.debug("Dropped cached state of {} user(s)", event.userIds().size());
+    }
+}
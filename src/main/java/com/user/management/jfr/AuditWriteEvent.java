@@ -0,0 +1,28 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.AuditWrite")
+@Label("Audit Write")
+@Category({"User Management", "Keeps"})
+@Description("Insert of an audit log row.")
+@StackTrace(false)
+public class AuditWriteEvent extends Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("Keep Id")
+    public long keepId;
+
+    @Label("Username")
+    public String username;
+
+    @Label("Content Length")
+    public int contentLength;
+}
@@ -0,0 +1,35 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.EmailSend")
+@Label("Email Send")
+@Category({"User Management", "Email"})
+@Description("Delivery attempt of one outbox message over SMTP.")
+@StackTrace(false)
+public class EmailSendEvent extends Event {
+
+    @Label("Outbox Id")
+    public long outboxId;
+
+    @Label("Campaign Id")
+    public long campaignId;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Body Size")
+    @Description("UTF-8 encoded size of the message body")
+    @DataAmount
+    public int bodySize;
+
+    @Label("Outcome")
+    @Description("SENT or FAILED")
+    public String outcome;
+}
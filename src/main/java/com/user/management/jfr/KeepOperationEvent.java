@@ -0,0 +1,37 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.KeepOperation")
+@Label("Keep Operation")
+@Category({"User Management", "Keeps"})
+@Description("Create, update or delete of a keep, including its audit write.")
+@StackTrace(false)
+public class KeepOperationEvent extends Event {
+
+    @Label("Operation")
+    @Description("CREATE, UPDATE or DELETE")
+    public String operation;
+
+    @Label("Keep Id")
+    public long keepId;
+
+    @Label("Username")
+    public String username;
+
+    @Label("Content Length")
+    public int contentLength;
+
+    @Label("Outcome")
+    @Description("SUCCESS or FAILED")
+    public String outcome;
+
+    @Label("Failure")
+    @Description("Exception class that failed the operation, if any")
+    public String failure;
+}
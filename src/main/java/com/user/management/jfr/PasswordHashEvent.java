@@ -0,0 +1,20 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.PasswordHash")
+@Label("Password Hash")
+@Category({"User Management", "Authentication"})
+@Description("Password hash computation or check.")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode, matches or upgradeEncoding")
+    public String operation;
+}
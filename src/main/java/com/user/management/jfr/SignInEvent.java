@@ -0,0 +1,31 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.user.management.SignIn")
+@Label("Sign In")
+@Category({"User Management", "Authentication"})
+@Description("Password sign-in attempt, including the time spent checking the password hash.")
+@StackTrace(false)
+public class SignInEvent extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Outcome")
+    @Description("SUCCESS, TWO_FACTOR_REQUIRED or FAILED")
+    public String outcome;
+
+    @Label("Hash Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long hashDuration;
+}
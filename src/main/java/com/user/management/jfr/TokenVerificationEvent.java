@@ -0,0 +1,26 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.TokenVerification")
+@Label("Token Verification")
+@Category({"User Management", "Authentication"})
+@Description("Validation of the JWT sent with a request.")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Outcome")
+    @Description("VALID, REVOKED or INVALID")
+    public String outcome;
+
+    @Label("Token Length")
+    public int tokenLength;
+}
@@ -0,0 +1,25 @@
+package com.user.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.user.management.UserDetailsLoad")
+@Label("User Details Load")
+@Category({"User Management", "Authentication"})
+@Description("Load of a user and role for Spring Security.")
+@StackTrace(false)
+public class UserDetailsLoadEvent extends Event {
+
+    @Label("Username")
+    public String username;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -1,6 +1,8 @@
 package com.user.management.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -9,6 +11,10 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = true)
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_audit_log_keep_id", columnList = "keep_id"),
+        @Index(name = "idx_audit_log_timestamp", columnList = "timestamp")
+})
 public class AuditLog extends BaseEntity {
     private String action;
     private String username;
@@ -0,0 +1,36 @@
+package com.user.management.models;
+
+import com.user.management.enums.RollupResolution;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "audit_rollup",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"resolution", "bucket_start", "action", "username"})
+        })
+public class AuditRollup extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupResolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 20)
+    private String action;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "event_count", nullable = false)
+    private long count;
+}
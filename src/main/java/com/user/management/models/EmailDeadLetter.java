@@ -0,0 +1,45 @@
+package com.user.management.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+
+import java.time.Instant;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "email_dead_letter",
+        indexes = {
+                @Index(name = "idx_email_dead_letter_campaign", columnList = "campaign_id")
+        })
+public class EmailDeadLetter extends BaseEntity {
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, length = Length.LONG32)
+    private String body;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+}
@@ -1,7 +1,9 @@
 package com.user.management.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
 import lombok.*;
 
 @Entity
@@ -10,6 +12,9 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
+@Table(indexes = {
+        @Index(name = "idx_keep_owner_username", columnList = "owner_username")
+})
 public class Keep extends BaseEntity {
 
     @Lob
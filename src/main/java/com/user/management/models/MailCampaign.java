@@ -0,0 +1,51 @@
+package com.user.management.models;
+
+import com.user.management.enums.EmailTemplate;
+import com.user.management.enums.MailCampaignState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "mail_campaign")
+public class MailCampaign extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EmailTemplate template;
+
+    private String subject;
+
+    /**
+     * The user filter as JSON, or null when the recipients are listed in {@code mail_campaign_recipient}.
+     */
+    @Lob
+    private String criteria;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MailCampaignState state;
+
+    @Column(nullable = false)
+    private long lastUserId;
+
+    @Column(nullable = false)
+    private long queuedCount;
+
+    @Column(nullable = false)
+    private long skippedCount;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
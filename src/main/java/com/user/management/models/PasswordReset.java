@@ -13,12 +13,18 @@ import java.time.Instant;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_password_reset_expiry", columnList = "expiry_date")
+})
 public class PasswordReset extends BaseEntity {
 
+    /**
+     * SHA-256 of the token sent to the user; the token itself is never stored.
+     */
     @NotBlank(message = "Token is mandatory")
-    @Size(max = 255, message = "Token should not exceed 255 characters")
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Size(min = 64, max = 64, message = "Token hash must be 64 characters")
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @Column(nullable = false)
     private Instant expiryDate;
@@ -0,0 +1,46 @@
+package com.user.management.models;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Table-backed id generator shared by every entity. Each entity table has its own row in
+ * {@value #TABLE}, and ids are handed out in blocks of {@code allocationSize} with the pooled-lo
+ * optimizer: the row holds the lowest id of the next free block. Unlike identity columns, the id
+ * is known before the insert, so Hibernate can batch inserts.
+ * <p>
+ * Anything else that inserts rows must take its ids from the same row, see
+ * {@link com.user.management.repositories.IdSequenceRepository}.
+ */
+public class PooledIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_sequences";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    /**
+     * Hibernate setting carrying {@code spring.app.idAllocationSize}.
+     */
+    public static final String ALLOCATION_SIZE_SETTING = "user_management.id_allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.put(TABLE_PARAM, TABLE);
+        parameters.put(SEGMENT_COLUMN_PARAM, SEGMENT_COLUMN);
+        parameters.put(VALUE_COLUMN_PARAM, VALUE_COLUMN);
+        parameters.put(SEGMENT_VALUE_PARAM, parameters.getProperty(PersistentIdentifierGenerator.TABLE));
+        parameters.put(INCREMENT_PARAM, Integer.toString(allocationSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
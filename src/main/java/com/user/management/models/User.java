@@ -7,7 +7,11 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
@@ -17,6 +21,9 @@ import java.time.LocalDateTime;
 import static com.user.management.constants.Constants.EMAIL;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Data
 @NoArgsConstructor
 @Builder
@@ -25,11 +32,16 @@ import static com.user.management.constants.Constants.EMAIL;
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "username"),
                 @UniqueConstraint(columnNames = EMAIL)
+        },
+        indexes = {
+                @Index(name = "idx_users_role_id", columnList = "role_id"),
+                @Index(name = "idx_users_created_at", columnList = "created_at, id")
         })
 public class User extends BaseEntity {
 
     @NotBlank(message = "Username is mandatory")
     @Size(min = 3, max = 20, message = "Username must be between 3 and 20 characters")
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -70,13 +82,17 @@ public class User extends BaseEntity {
 
 
     @CreationTimestamp
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
     private LocalDateTime lastLoginTime;
+
+    // Tokens issued before this second are rejected; set when an admin locks, expires or disables the account
+    @JsonIgnore
+    private LocalDateTime tokensValidAfter;
     private LocalDateTime passwordResetTime;
 
     public User(String username, String email, String password) {
@@ -92,7 +108,11 @@ public class User extends BaseEntity {
 
     // Password Encryption
     public void setPassword(String password) {
-        this.password = new BCryptPasswordEncoder().encode(password);
+        this.password = encodePassword(password);
+    }
+
+    public static String encodePassword(String password) {
+        return new BCryptPasswordEncoder().encode(password);
     }
 
     // Account management methods
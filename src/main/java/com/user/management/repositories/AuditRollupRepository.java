@@ -0,0 +1,50 @@
+package com.user.management.repositories;
+
+import com.user.management.enums.RollupResolution;
+import com.user.management.models.AuditRollup;
+import com.user.management.response.AuditActivityPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, Long> {
+
+    /**
+     * Adds {@code delta} to a bucket, creating it with {@code id} if it does not exist yet. The
+     * caller must hold a transaction. The query space keeps Hibernate from evicting every cached
+     * entity after this native statement.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "audit_rollup"))
+    @Query(value = "insert into audit_rollup (id, resolution, bucket_start, action, username, event_count) " +
+            "values (:id, :resolution, :bucketStart, :action, :username, :delta) " +
+            "on duplicate key update event_count = event_count + :delta", nativeQuery = true)
+    int upsertCount(@Param("id") long id,
+                    @Param("resolution") String resolution,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("action") String action,
+                    @Param("username") String username,
+                    @Param("delta") long delta);
+
+    @Query("select new com.user.management.response.AuditActivityPoint(r.bucketStart, r.action, sum(r.count)) " +
+            "from AuditRollup r " +
+            "where r.resolution = :resolution and r.bucketStart >= :from and r.bucketStart < :to " +
+            "and (:action is null or r.action = :action) " +
+            "and (:username is null or r.username = :username) " +
+            "group by r.bucketStart, r.action " +
+            "order by r.bucketStart")
+    List<AuditActivityPoint> findSeries(@Param("resolution") RollupResolution resolution,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("action") String action,
+                                        @Param("username") String username);
+}
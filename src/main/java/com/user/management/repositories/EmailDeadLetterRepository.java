@@ -0,0 +1,11 @@
+package com.user.management.repositories;
+
+import com.user.management.models.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+
+    long countByCampaignId(Long campaignId);
+}
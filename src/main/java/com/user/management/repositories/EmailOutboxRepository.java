@@ -0,0 +1,63 @@
+package com.user.management.repositories;
+
+import com.user.management.models.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("select e.id from EmailOutbox e where e.nextAttemptAt <= :now and e.sentAt is null " +
+            "and (e.leaseUntil is null or e.leaseUntil < :now) order by e.priority, e.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.leaseUntil = :leaseUntil where e.id in :ids and e.sentAt is null " +
+            "and (e.leaseUntil is null or e.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Query("select e from EmailOutbox e where e.id in :ids and e.leaseUntil = :leaseUntil " +
+            "order by e.priority, e.nextAttemptAt")
+    List<EmailOutbox> findClaimed(@Param("ids") Collection<Long> ids, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.leaseUntil = null, e.lastError = :lastError where e.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.nextAttemptAt = :nextAttemptAt, e.leaseUntil = null where e.id = :id")
+    int defer(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.sentAt = :sentAt, e.leaseUntil = null where e.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutbox e where e.sentAt is not null")
+    int deleteSent();
+
+    long countBySentAtIsNull();
+
+    long countByCampaignIdAndSentAtIsNull(Long campaignId);
+
+    @Query("select min(e.createdAt) from EmailOutbox e where e.sentAt is null")
+    Instant findOldestCreatedAt();
+}
@@ -0,0 +1,120 @@
+package com.user.management.repositories;
+
+import com.user.management.models.PooledIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Direct access to the {@value PooledIdGenerator#TABLE} rows behind {@link PooledIdGenerator},
+ * for writers that bypass Hibernate and for aligning the rows with ids already in use.
+ * <p>
+ * Moving a database from auto-increment ids to pooled ids is a stop-the-world cutover: stop every
+ * node still running the auto-increment build before the first pooled node starts. A rolling
+ * deploy cannot be made safe. An explicit id moves MySQL's AUTO_INCREMENT counter past it, so an
+ * old node's next insert takes an id from the middle of a block a new node has reserved but not
+ * used yet. The sequence rows are created {@code idSequenceCutoverMargin} above the highest
+ * existing id, so that old-node transactions still committing during the cutover do not collide
+ * with the first blocks.
+ */
+@Slf4j
+@Repository
+public class IdSequenceRepository {
+
+    private static final String SELECT_FOR_UPDATE = "select " + PooledIdGenerator.VALUE_COLUMN + " from "
+            + PooledIdGenerator.TABLE + " where " + PooledIdGenerator.SEGMENT_COLUMN + " = ? for update";
+    private static final String SET_NEXT = "update " + PooledIdGenerator.TABLE + " set "
+            + PooledIdGenerator.VALUE_COLUMN + " = ? where " + PooledIdGenerator.SEGMENT_COLUMN + " = ?";
+    private static final String RAISE_NEXT = SET_NEXT + " and " + PooledIdGenerator.VALUE_COLUMN + " < ?";
+    private static final String INSERT = "insert into " + PooledIdGenerator.TABLE + " ("
+            + PooledIdGenerator.SEGMENT_COLUMN + ", " + PooledIdGenerator.VALUE_COLUMN + ") values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${spring.app.idSequenceCutoverMargin:10000}")
+    private long cutoverMargin;
+
+    public IdSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Reserves a block of ids for {@code entity} in its own short transaction, so the row lock is
+     * not held while the caller writes. Ids of a block that ends up unused are simply skipped.
+     *
+     * @return the first id of the block; the block ends before {@code first + count}
+     */
+    public long reserve(Class<?> entity, int count) {
+        String segment = generatorOf(persisterOf(entity)).getSegmentValue();
+        return requiresNew.execute(status -> {
+            Long next = jdbcTemplate.queryForObject(SELECT_FOR_UPDATE, Long.class, segment);
+            jdbcTemplate.update(SET_NEXT, next + count, segment);
+            return next;
+        });
+    }
+
+    /**
+     * Makes sure every entity using {@link PooledIdGenerator} has its row, starting above the
+     * highest id already in its table. This is the migration from auto-increment ids: existing
+     * rows keep their ids, a new row starts {@code idSequenceCutoverMargin} above them, and the
+     * MySQL AUTO_INCREMENT attribute may stay on the column because explicit ids move its counter
+     * along. Safe to run on every start and on several pooled nodes at once, but not while nodes
+     * inserting with auto-increment ids are still running, see the class comment.
+     */
+    public void alignWithExistingIds() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof PooledIdGenerator generator) {
+                align(generator.getSegmentValue(), persister.getIdentifierTableName(),
+                        persister.getIdentifierColumnNames()[0]);
+            }
+        });
+    }
+
+    private void align(String segment, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        long floor = (maxId == null ? 0 : maxId) + 1;
+        if (jdbcTemplate.update(RAISE_NEXT, floor, segment, floor) > 0) {
+            log.info("Raised id sequence {} to {}", segment, floor);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from " + PooledIdGenerator.TABLE
+                + " where " + PooledIdGenerator.SEGMENT_COLUMN + " = ?", Integer.class, segment);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        long start = floor + cutoverMargin;
+        try {
+            jdbcTemplate.update(INSERT, segment, start);
+            log.info("Created id sequence {} starting at {}, {} above the highest existing id", segment, start, cutoverMargin);
+        } catch (DuplicateKeyException e) {
+            // Another node created it first; make sure it still starts above the existing ids
+            jdbcTemplate.update(RAISE_NEXT, start, segment, start);
+        }
+    }
+
+    private EntityPersister persisterOf(Class<?> entity) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(entity);
+    }
+
+    private static PooledIdGenerator generatorOf(EntityPersister persister) {
+        if (persister.getGenerator() instanceof PooledIdGenerator generator) {
+            return generator;
+        }
+        throw new IllegalArgumentException(persister.getEntityName() + " does not use " + PooledIdGenerator.class.getSimpleName());
+    }
+}
@@ -0,0 +1,51 @@
+package com.user.management.repositories;
+
+import com.user.management.enums.MailCampaignState;
+import com.user.management.models.MailCampaign;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailCampaignRepository extends JpaRepository<MailCampaign, Long> {
+
+    List<MailCampaign> findByStateIn(Collection<MailCampaignState> states);
+
+    /**
+     * Moves the checkpoint from {@code expectedLastUserId} to {@code lastUserId}.
+     *
+     * @return 0 if the checkpoint was not at {@code expectedLastUserId}, so nothing changed
+     */
+    @Modifying
+    @Query("update MailCampaign c set c.lastUserId = :lastUserId, c.queuedCount = c.queuedCount + :queued, " +
+            "c.skippedCount = c.skippedCount + :skipped where c.id = :id and c.lastUserId = :expectedLastUserId")
+    int advanceCheckpoint(@Param("id") Long id, @Param("expectedLastUserId") long expectedLastUserId,
+                          @Param("lastUserId") long lastUserId, @Param("queued") long queued,
+                          @Param("skipped") long skipped);
+
+    /**
+     * Records recipients of a campaign, ignoring ids that are already recorded or belong to no user.
+     * Joins the caller's transaction if there is one.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mail_campaign_recipient"))
+    @Query(value = "insert ignore into mail_campaign_recipient (campaign_id, user_id) " +
+            "select :campaignId, u.id from users u where u.id in (:userIds)", nativeQuery = true)
+    int addRecipients(@Param("campaignId") Long campaignId, @Param("userIds") Collection<Long> userIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mail_campaign_recipient"))
+    @Query(value = "select user_id from mail_campaign_recipient where campaign_id = :campaignId " +
+            "and user_id > :afterId order by user_id limit :limit", nativeQuery = true)
+    List<Long> findRecipientIds(@Param("campaignId") Long campaignId, @Param("afterId") long afterId,
+                                @Param("limit") int limit);
+}
@@ -1,11 +1,41 @@
 package com.user.management.repositories;
 
 import com.user.management.models.PasswordReset;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetRepository extends JpaRepository<PasswordReset, Long> {
-     Optional<PasswordReset> findByToken(String token);
+     Optional<PasswordReset> findByTokenHash(String tokenHash);
+
+     @Transactional
+     @Modifying
+     @Query("delete from PasswordReset p where p.user.id = :userId")
+     int deleteByUserId(@Param("userId") Long userId);
+
+     /**
+      * Marks the token used if it still is unused and unexpired. The row lock taken by the update makes
+      * a concurrent reset with the same token wait and then match no row.
+      */
+     @Transactional
+     @Modifying
+     @Query("update PasswordReset p set p.used = true, p.expiryDate = :now " +
+             "where p.id = :id and p.used = false and p.expiryDate > :now")
+     int consume(@Param("id") Long id, @Param("now") Instant now);
+
+     @Query("select count(p) > 0 from PasswordReset p " +
+             "where p.user.id = :userId and p.used = false and p.expiryDate > :threshold")
+     boolean existsUnusedExpiringAfter(@Param("userId") Long userId, @Param("threshold") Instant threshold);
+
+     @Query("select p.id from PasswordReset p where p.expiryDate < :now")
+     List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
 }
@@ -2,13 +2,21 @@ package com.user.management.repositories;
 
 import com.user.management.enums.AppRole;
 import com.user.management.models.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
-    Optional<Role> findByRoleName(AppRole appRole);
+    String LOOKUP_REGION = "role-lookups";
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_REGION)
+    })
+    Optional<Role> findByRoleName(AppRole appRole);
 }
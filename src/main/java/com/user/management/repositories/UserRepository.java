@@ -1,15 +1,131 @@
 package com.user.management.repositories;
 
+import com.user.management.models.Role;
 import com.user.management.models.User;
+import com.user.management.response.UserSearchResult;
+import com.user.management.response.UserStatusCounts;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_REGION)
+    })
     Optional<User> findByEmail(String email);
+
+    @Query("select new com.user.management.response.UserSearchResult(u.id, u.username, u.email) " +
+            "from User u where u.id > :afterId order by u.id")
+    List<UserSearchResult> findSearchEntriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.user.management.response.UserSearchResult(u.id, u.username, u.email) " +
+            "from User u where u.id in :ids order by u.id")
+    List<UserSearchResult> findSearchEntriesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.user.management.response.UserStatusCounts(count(u), " +
+            "sum(case when u.enabled = true then 1 else 0 end), " +
+            "sum(case when u.accountNonLocked = false then 1 else 0 end), " +
+            "sum(case when u.accountNonExpired = false then 1 else 0 end), " +
+            "sum(case when u.credentialsNonExpired = false then 1 else 0 end), " +
+            "sum(case when u.isTwoFactorEnabled = true then 1 else 0 end)) from User u")
+    UserStatusCounts countUserStatuses();
+
+    @Query("select u.twoFactorSecret from User u where u.id = :id")
+    Optional<String> findTwoFactorSecret(@Param("id") Long id);
+
+    @Query("select u.signUpMethod, count(u) from User u group by u.signUpMethod")
+    List<Object[]> countUsersBySignUpMethod();
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.role = :role, u.updatedAt = :updatedAt where u.id = :id")
+    int updateRole(@Param("id") Long id,
+                   @Param("role") Role role,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Single-column writes: a full-entity save would write back every field of a possibly stale cached copy
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password, u.updatedAt = :updatedAt where u.id = :id")
+    int updatePassword(@Param("id") Long id,
+                       @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.twoFactorSecret = :twoFactorSecret, u.updatedAt = :updatedAt where u.id = :id")
+    int updateTwoFactorSecret(@Param("id") Long id,
+                              @Param("twoFactorSecret") String twoFactorSecret,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.isTwoFactorEnabled = :enabled, u.updatedAt = :updatedAt " +
+            "where u.id = :id and u.isTwoFactorEnabled <> :enabled")
+    int updateTwoFactorEnabled(@Param("id") Long id,
+                               @Param("enabled") boolean enabled,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountNonLocked = :accountNonLocked, u.updatedAt = :updatedAt, " +
+            "u.tokensValidAfter = coalesce(:tokensValidAfter, u.tokensValidAfter) " +
+            "where u.id in :ids and u.accountNonLocked <> :accountNonLocked")
+    int updateAccountNonLocked(@Param("ids") Collection<Long> ids,
+                               @Param("accountNonLocked") boolean accountNonLocked,
+                               @Param("updatedAt") LocalDateTime updatedAt,
+                               @Param("tokensValidAfter") LocalDateTime tokensValidAfter);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountNonExpired = :accountNonExpired, u.updatedAt = :updatedAt, " +
+            "u.tokensValidAfter = coalesce(:tokensValidAfter, u.tokensValidAfter) " +
+            "where u.id in :ids and u.accountNonExpired <> :accountNonExpired")
+    int updateAccountNonExpired(@Param("ids") Collection<Long> ids,
+                                @Param("accountNonExpired") boolean accountNonExpired,
+                                @Param("updatedAt") LocalDateTime updatedAt,
+                                @Param("tokensValidAfter") LocalDateTime tokensValidAfter);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.enabled = :enabled, u.updatedAt = :updatedAt, " +
+            "u.tokensValidAfter = coalesce(:tokensValidAfter, u.tokensValidAfter) " +
+            "where u.id in :ids and u.enabled <> :enabled")
+    int updateEnabled(@Param("ids") Collection<Long> ids,
+                      @Param("enabled") boolean enabled,
+                      @Param("updatedAt") LocalDateTime updatedAt,
+                      @Param("tokensValidAfter") LocalDateTime tokensValidAfter);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.credentialsNonExpired = :credentialsNonExpired, u.updatedAt = :updatedAt, " +
+            "u.tokensValidAfter = coalesce(:tokensValidAfter, u.tokensValidAfter) " +
+            "where u.id in :ids and u.credentialsNonExpired <> :credentialsNonExpired")
+    int updateCredentialsNonExpired(@Param("ids") Collection<Long> ids,
+                                    @Param("credentialsNonExpired") boolean credentialsNonExpired,
+                                    @Param("updatedAt") LocalDateTime updatedAt,
+                                    @Param("tokensValidAfter") LocalDateTime tokensValidAfter);
 }
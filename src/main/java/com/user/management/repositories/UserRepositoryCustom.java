@@ -0,0 +1,35 @@
+package com.user.management.repositories;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.models.User;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.UserSearchResult;
+import com.user.management.response.UserSummaryResponse;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+    String LOOKUP_REGION = "user-lookups";
+
+    List<UserSummaryResponse> findUserSummaries(UserFilterRequest filter, Object afterValue, Long afterId, int limit);
+
+    List<Long> findUserIds(UserFilterRequest filter, Long afterId, int limit);
+
+    List<Long> lockIdsToChange(AccountStatusField field, Collection<Long> ids, boolean value);
+
+    List<UserSearchResult> findRecipients(UserFilterRequest filter, Long afterId, int limit);
+
+    Stream<UserSummaryResponse> streamUserSummaries(UserFilterRequest filter, int fetchSize);
+
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+
+    @Transactional(readOnly = true)
+    Optional<User> findByUsernameForAuthentication(String username);
+
+    void evictLookupQueries();
+}
@@ -0,0 +1,216 @@
+package com.user.management.repositories;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.enums.UserSortField;
+import com.user.management.models.User;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.UserSearchResult;
+import com.user.management.response.UserSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Builds the admin user listing as a JPQL constructor projection, so rows are read straight into
+ * {@link UserSummaryResponse} without hydrating {@code User} entities or their roles.
+ * Pages are addressed by keyset (last sort value and id) rather than by offset.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String SUMMARY_SELECT = "select new com.user.management.response.UserSummaryResponse("
+            + "u.id, u.username, u.email, r.roleName, u.enabled, u.accountNonLocked, u.accountNonExpired, "
+            + "u.credentialsNonExpired, u.isTwoFactorEnabled, u.signUpMethod, u.createdAt) "
+            + "from User u left join u.role r where 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummaryResponse> findUserSummaries(UserFilterRequest filter, Object afterValue, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+
+        UserSortField sortBy = filter.getSortBy();
+        String sortAttribute = sortBy.expression();
+        String comparator = filter.getDirection() == Sort.Direction.DESC ? "<" : ">";
+        String direction = filter.getDirection() == Sort.Direction.DESC ? " desc" : " asc";
+
+        if (afterId != null) {
+            if (sortBy == UserSortField.ID) {
+                jpql.append(" and u.id ").append(comparator).append(" :afterId");
+            } else {
+                jpql.append(" and (").append(sortAttribute).append(' ').append(comparator).append(" :afterValue")
+                        .append(" or (").append(sortAttribute).append(" = :afterValue and u.id ")
+                        .append(comparator).append(" :afterId))");
+                params.put("afterValue", afterValue);
+            }
+            params.put("afterId", afterId);
+        }
+
+        jpql.append(" order by ");
+        if (sortBy != UserSortField.ID) {
+            jpql.append(sortAttribute).append(direction).append(", ");
+        }
+        jpql.append("u.id").append(direction);
+
+        TypedQuery<UserSummaryResponse> query = entityManager.createQuery(jpql.toString(), UserSummaryResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Long> findUserIds(UserFilterRequest filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select u.id from User u left join u.role r where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+        if (afterId != null) {
+            jpql.append(" and u.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by u.id asc");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Locks, with {@code select ... for update}, the users among {@code ids} whose flag is not yet in
+     * the requested state and returns their ids. The caller must hold a transaction and apply the
+     * change in it, so the returned ids are exactly the rows its update changes.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> lockIdsToChange(AccountStatusField field, Collection<Long> ids, boolean value) {
+        String column = switch (field) {
+            case LOCKED -> "account_non_locked";
+            case ACCOUNT_EXPIRED -> "account_non_expired";
+            case ENABLED -> "enabled";
+            case CREDENTIALS_EXPIRED -> "credentials_non_expired";
+        };
+        boolean stored = field == AccountStatusField.ENABLED ? value : !value;
+        return entityManager.createNativeQuery("select id from users where id in (:ids) and " + column
+                        + " <> :stored order by id for update", Long.class)
+                .setParameter("ids", ids)
+                .setParameter("stored", stored)
+                .getResultList();
+    }
+
+    @Override
+    public List<UserSearchResult> findRecipients(UserFilterRequest filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select new com.user.management.response.UserSearchResult(")
+                .append("u.id, u.username, u.email) from User u left join u.role r where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+        if (afterId != null) {
+            jpql.append(" and u.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by u.id asc");
+
+        TypedQuery<UserSearchResult> query = entityManager.createQuery(jpql.toString(), UserSearchResult.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Streams every matching user in id order over a forward-only, read-only cursor. The caller must
+     * hold a transaction open and close the stream.
+     */
+    @Override
+    public Stream<UserSummaryResponse> streamUserSummaries(UserFilterRequest filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+        jpql.append(" order by u.id asc");
+
+        TypedQuery<UserSummaryResponse> query = entityManager.createQuery(jpql.toString(), UserSummaryResponse.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        params.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    /**
+     * Loads a user by its natural id, so a repeated lookup is answered from the natural-id and entity
+     * caches without a statement.
+     */
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    /**
+     * Loads a user, with its role, straight from the database for authentication. A lock, a disable
+     * or a token revocation made on another instance only reaches this instance's cache when the
+     * entry expires, so the cached path could authenticate the old state for up to the cache TTL.
+     * The load never reads the cache; it only fills entries that are missing, since a read-write
+     * region keeps an unversioned entry it already holds until a write or expiry replaces it.
+     */
+    @Override
+    public Optional<User> findByUsernameForAuthentication(String username) {
+        return entityManager.createQuery("select u from User u left join fetch u.role where u.username = :username", User.class)
+                .setParameter("username", username)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.REFRESH)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Drops the cached lookup results, for writes that bypass Hibernate and so never touch the
+     * update timestamps the query cache checks.
+     */
+    @Override
+    public void evictLookupQueries() {
+        entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class).evictQueryRegion(LOOKUP_REGION);
+    }
+
+    private void appendFilter(UserFilterRequest filter, StringBuilder jpql, Map<String, Object> params) {
+        if (filter.getRole() != null) {
+            jpql.append(" and r.roleName = :role");
+            params.put("role", filter.getRole());
+        }
+        if (filter.getEnabled() != null) {
+            jpql.append(" and u.enabled = :enabled");
+            params.put("enabled", filter.getEnabled());
+        }
+        if (filter.getLocked() != null) {
+            jpql.append(" and u.accountNonLocked = :accountNonLocked");
+            params.put("accountNonLocked", !filter.getLocked());
+        }
+        if (filter.getAccountExpired() != null) {
+            jpql.append(" and u.accountNonExpired = :accountNonExpired");
+            params.put("accountNonExpired", !filter.getAccountExpired());
+        }
+        if (filter.getCredentialsExpired() != null) {
+            jpql.append(" and u.credentialsNonExpired = :credentialsNonExpired");
+            params.put("credentialsNonExpired", !filter.getCredentialsExpired());
+        }
+        if (filter.getSignUpMethod() != null) {
+            jpql.append(" and u.signUpMethod = :signUpMethod");
+            params.put("signUpMethod", filter.getSignUpMethod());
+        }
+        if (filter.getCreatedFrom() != null) {
+            jpql.append(" and u.createdAt >= :createdFrom");
+            params.put("createdFrom", filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            jpql.append(" and u.createdAt < :createdTo");
+            params.put("createdTo", filter.getCreatedTo());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.user.management.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAccountStatusRequest {
+    private List<Long> userIds;
+    private UserFilterRequest filter;
+    private boolean value;
+    private boolean notifyUsers;
+}
@@ -0,0 +1,14 @@
+package com.user.management.request;
+
+import com.user.management.enums.EmailTemplate;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MailCampaignRequest {
+    private EmailTemplate template;
+    private String subject;
+    private List<Long> userIds;
+    private UserFilterRequest filter;
+}
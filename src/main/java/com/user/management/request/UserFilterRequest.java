@@ -0,0 +1,28 @@
+package com.user.management.request;
+
+import com.user.management.enums.AppRole;
+import com.user.management.enums.UserSortField;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+public class UserFilterRequest {
+    private AppRole role;
+    private Boolean enabled;
+    private Boolean locked;
+    private Boolean accountExpired;
+    private Boolean credentialsExpired;
+    private String signUpMethod;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    private UserSortField sortBy = UserSortField.ID;
+    private Sort.Direction direction = Sort.Direction.ASC;
+}
@@ -0,0 +1,23 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class AdminStatsResponse {
+    private long totalUsers;
+    private long enabledUsers;
+    private long lockedUsers;
+    private long accountExpiredUsers;
+    private long credentialsExpiredUsers;
+    private long twoFactorEnabledUsers;
+    private Map<String, Long> usersBySignUpMethod;
+    private long totalKeeps;
+    private Map<LocalDate, Long> keepsPerDay;
+    private Instant reconciledAt;
+}
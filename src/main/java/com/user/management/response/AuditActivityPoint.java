@@ -0,0 +1,14 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AuditActivityPoint {
+    private LocalDateTime bucketStart;
+    private String action;
+    private Long count;
+}
@@ -0,0 +1,12 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkUpdateResponse {
+    private long affected;
+    private int batches;
+    private Long campaignId;
+}
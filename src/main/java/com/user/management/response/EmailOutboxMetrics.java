@@ -0,0 +1,18 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmailOutboxMetrics {
+    private long pending;
+    private long deadLetters;
+    private long oldestPendingAgeSeconds;
+    private int busyWorkers;
+    private long enqueued;
+    private long sent;
+    private long retried;
+    private long deferred;
+    private long deadLettered;
+}
@@ -0,0 +1,26 @@
+package com.user.management.response;
+
+import com.user.management.enums.HealthStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class HealthResponse {
+    private HealthStatus status;
+    private Instant checkedAt;
+    private Map<String, ProbeResult> probes;
+    private Map<String, Number> saturation;
+
+    @Data
+    @AllArgsConstructor
+    public static class ProbeResult {
+        private HealthStatus status;
+        private long durationMillis;
+        private String error;
+        private Map<String, Object> details;
+    }
+}
@@ -0,0 +1,22 @@
+package com.user.management.response;
+
+import com.user.management.enums.ImportJobState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ImportJobStatus {
+    private String jobId;
+    private ImportJobState state;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportRowError> errors;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -11,6 +11,8 @@ public class LoginResponse {
     private String jwtToken;
     private String username;
     private List<String> roles;
+    private boolean twoFactorRequired;
+    private String challengeId;
 
     public LoginResponse(String username, List<String> roles, String jwtToken) {
         this.username = username;
@@ -0,0 +1,27 @@
+package com.user.management.response;
+
+import com.user.management.enums.EmailTemplate;
+import com.user.management.enums.MailCampaignState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class MailCampaignStatus {
+    private Long campaignId;
+    private EmailTemplate template;
+    private MailCampaignState state;
+    private long queued;
+    private long skipped;
+    private long pending;
+    private long delivered;
+    private long deadLettered;
+    private double queuedPerSecond;
+    private double deliveredPerSecond;
+    private long lastUserId;
+    private String lastError;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,66 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class QueryStatsResponse {
+    private boolean statisticsEnabled;
+    private long prepareStatementCount;
+    private long queryExecutionCount;
+    private long queryExecutionMaxTimeMillis;
+    private String queryExecutionMaxTimeQuery;
+    private long entityLoadCount;
+    private long entityFetchCount;
+    private long collectionLoadCount;
+    private long collectionFetchCount;
+    private long transactionCount;
+    private List<EndpointQueries> endpoints;
+    private List<NPlusOneSuspect> nPlusOneSuspects;
+    private List<SlowQuery> slowQueries;
+    private List<CacheRegion> cacheRegions;
+
+    @Data
+    @AllArgsConstructor
+    public static class EndpointQueries {
+        private String endpoint;
+        private long requests;
+        private long statements;
+        private long maxStatements;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class NPlusOneSuspect {
+        private String endpoint;
+        private String sql;
+        private long requests;
+        private long maxRepeats;
+        private Instant lastSeen;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SlowQuery {
+        private String sql;
+        private int parameterCount;
+        private long millis;
+        private String endpoint;
+        private Instant executedAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class CacheRegion {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private long entries;
+        private long estimatedBytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserSearchResult {
+    private Long id;
+    private String username;
+    private String email;
+}
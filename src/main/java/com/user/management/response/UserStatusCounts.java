@@ -0,0 +1,15 @@
+package com.user.management.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserStatusCounts {
+    private Long total;
+    private Long enabled;
+    private Long locked;
+    private Long accountExpired;
+    private Long credentialsExpired;
+    private Long twoFactorEnabled;
+}
@@ -0,0 +1,23 @@
+package com.user.management.response;
+
+import com.user.management.enums.AppRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class UserSummaryResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private AppRole role;
+    private boolean enabled;
+    private boolean accountNonLocked;
+    private boolean accountNonExpired;
+    private boolean credentialsNonExpired;
+    private boolean isTwoFactorEnabled;
+    private String signUpMethod;
+    private LocalDateTime createdAt;
+}
@@ -1,25 +1,135 @@
 package com.user.management.security;
 
+import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.util.AccessLog;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.stereotype.Component;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
 import java.io.IOException;
 
-@Component
 public class CustomLoggingFilter extends OncePerRequestFilter {
 
+    private final AccessLog accessLog;
+
+    public CustomLoggingFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
     /*
     Filters are components that can intercept and modify incoming requests and outgoing responses in a web application.
     A Filter Chain is a sequence of filters that an HTTP request and response pass through before reaching the targeted resource and after the resource has generated a response.
+    Only raw values are captured here; formatting and file I/O happen on the access log's writer thread.
     */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        System.out.println("CustomLoggingFilter - Request URI: " + request.getRequestURI());
-        filterChain.doFilter(request, response);
-        System.out.println("CustomLoggingFilter - Response Status: " + response.getStatus());
+        long start = System.nanoTime();
+        CountingResponse countingResponse = new CountingResponse(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            completed = true;
+        } finally {
+            accessLog.record(request.getMethod(), pathOf(request),
+                    completed ? countingResponse.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    System.nanoTime() - start, currentUserId(), countingResponse.bytesWritten());
+        }
+    }
+
+    static String pathOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    /**
+     * Counts body bytes written through the output stream. Bodies written through a writer are
+     * reported by their declared Content-Length instead, or -1 when there is none.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        private long bytesWritten() {
+            if (outputStream != null) {
+                return outputStream.count;
+            }
+            String contentLength = getHeader("Content-Length");
+            try {
+                return contentLength != null ? Long.parseLong(contentLength) : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
     }
 }
@@ -8,6 +8,7 @@ import com.user.management.repositories.RoleRepository;
 import com.user.management.repositories.UserRepository;
 import com.user.management.security.jwt.AuthEntryPointJwt;
 import com.user.management.security.jwt.AuthTokenFilter;
+import com.user.management.util.AccessLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -49,14 +50,18 @@ public class SecurityConfig {
     @Lazy
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
 
+    private final AccessLog accessLog;
+
     /**
      * Constructor injection for AuthEntryPointJwt to handle unauthorized access attempts.
      *
      * @param unauthorizedHandler the entry point that handles authentication errors
+     * @param accessLog           the access log fed by {@link CustomLoggingFilter}
      */
-    public SecurityConfig(AuthEntryPointJwt unauthorizedHandler, OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler) {
+    public SecurityConfig(AuthEntryPointJwt unauthorizedHandler, OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler, AccessLog accessLog) {
         this.unauthorizedHandler = unauthorizedHandler;
         this.oAuth2LoginSuccessHandler = oAuth2LoginSuccessHandler;
+        this.accessLog = accessLog;
     }
 
     /**
@@ -88,6 +93,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/csrf-token").permitAll() // CSRF token endpoint is accessible to all
                         .requestMatchers("/api/auth/public/**").permitAll() // Public auth endpoints are accessible to all
                         .requestMatchers("/oauth2/**").permitAll() // OAuth2 endpoints are accessible to all
+                        .requestMatchers("/health/live", "/health/ready").permitAll() // Probes for the load balancer
                         .anyRequest().authenticated()) // All other requests require authentication
                 .oauth2Login(oauth->{
                     oauth.successHandler(oAuth2LoginSuccessHandler);
@@ -95,7 +101,7 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint(unauthorizedHandler)) // Handle unauthorized access attempts
                 .addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class) // Add JWT token filter
-                .addFilterBefore(new CustomLoggingFilter(), UsernamePasswordAuthenticationFilter.class) // Add custom logging filter
+                .addFilterBefore(new CustomLoggingFilter(accessLog), UsernamePasswordAuthenticationFilter.class) // Add custom logging filter
                 .addFilterAfter(new RequestValidationFilter(), CustomLoggingFilter.class) // Add request validation filter
                 .formLogin(withDefaults()) // Enable default form-based login
                 .httpBasic(withDefaults()); // Enable default HTTP Basic authentication
@@ -117,13 +123,13 @@ public class SecurityConfig {
 
     /**
      * Provides a PasswordEncoder instance for encoding and decoding passwords.
-     * Uses BCrypt hashing algorithm for secure password storage.
+     * Uses BCrypt hashing algorithm for secure password storage, timed for JFR.
      *
      * @return a PasswordEncoder instance
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     /**
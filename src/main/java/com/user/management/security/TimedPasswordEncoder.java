@@ -0,0 +1,71 @@
+package com.user.management.security;
+
+import com.user.management.jfr.PasswordHashEvent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the real encoder to emit a JFR {@link PasswordHashEvent} per hash and to keep a running
+ * total of hashing time per thread, which the sign-in event reports as its hash duration. The number
+ * of hashes in progress is kept as a saturation signal for the readiness probe.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private static final ThreadLocal<long[]> THREAD_HASH_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private final PasswordEncoder delegate;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the total time the current thread has spent hashing, for computing deltas
+     */
+    public static long currentThreadHashNanos() {
+        return THREAD_HASH_NANOS.get()[0];
+    }
+
+    /**
+     * @return the number of hashes currently being computed across all threads
+     */
+    public static int hashesInFlight() {
+        return IN_FLIGHT.get();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return time("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return time("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T time(String operation, Supplier<T> hash) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long start = System.nanoTime();
+        IN_FLIGHT.incrementAndGet();
+        try {
+            return hash.get();
+        } finally {
+            IN_FLIGHT.decrementAndGet();
+            THREAD_HASH_NANOS.get()[0] += System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.user.management.security;
+
+import com.user.management.util.RequestTrace;
+import com.user.management.util.TraceLog;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.user.management.util.RequestTrace.SERVER_TIMING_HEADER;
+
+/**
+ * Samples requests for tracing. Runs ahead of the security filter chain so that the trace covers
+ * every filter. Sampled requests get a Server-Timing header and a record in the trace log.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceFilter extends OncePerRequestFilter {
+
+    private final TraceLog traceLog;
+    private final double sampleRate;
+
+    public TraceFilter(TraceLog traceLog, @Value("${spring.app.traceSampleRate:0.0}") double sampleRate) {
+        this.traceLog = traceLog;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTrace trace = RequestTrace.begin();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            trace.end(request.getMethod(), CustomLoggingFilter.pathOf(request),
+                    completed ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            // Responses with a body already carry the header, set before the body was written
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING_HEADER)) {
+                response.setHeader(SERVER_TIMING_HEADER, trace.serverTiming());
+            }
+            traceLog.submit(trace);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.user.management.security;
+
+import com.user.management.config.ReadFromPrimary;
+import com.user.management.repositories.UserRepository;
+import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.services.ITotpService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.user.management.enums.ResponseCode.TWO_FA_CHALLENGE_INVALID;
+import static com.user.management.enums.ResponseCode.TWO_FA_CODE_INVALID;
+import static com.user.management.util.UserManagementUtils.createUserMgmtException;
+import static com.user.management.util.UserManagementUtils.generateToken;
+
+/**
+ * Holds logins that passed the password check and still owe a two-factor code.
+ * A challenge is keyed by an opaque random id and carries the authenticated user. The two-factor
+ * secret is not part of it: it is read only when a code is checked, and only when the TOTP service
+ * does not already hold it, so it never sits in a principal. Challenges expire after
+ * {@code twoFactorChallengeTtlMs}, are single-use, and allow {@code twoFactorMaxAttempts} codes:
+ * each attempt is counted before its code is checked, so concurrent guesses cannot exceed the limit.
+ * A right code only completes the login if the account, reloaded from the primary, is still usable
+ * and has not had its tokens revoked since the challenge was issued.
+ */
+@Component
+public class TwoFactorChallengeStore {
+
+    private final ITotpService totpService;
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<String, PendingChallenge> challenges = new ConcurrentHashMap<>();
+
+    @Value("${spring.app.twoFactorChallengeTtlMs:300000}")
+    private long challengeTtlMs;
+
+    @Value("${spring.app.twoFactorMaxAttempts:5}")
+    private int maxAttempts;
+
+    public TwoFactorChallengeStore(ITotpService totpService, UserRepository userRepository) {
+        this.totpService = totpService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Opens a challenge for a user who authenticated with their password.
+     *
+     * @param userDetails the authenticated user
+     * @return the challenge id to hand back to the client
+     */
+    public String issue(UserDetailsImpl userDetails) {
+        String challengeId = generateToken();
+        long now = System.currentTimeMillis();
+        challenges.put(challengeId, new PendingChallenge(userDetails, now, now + challengeTtlMs));
+        return challengeId;
+    }
+
+    /**
+     * Checks a code against a challenge and closes the challenge when the code is right.
+     *
+     * @param challengeId the id returned by {@link #issue(UserDetailsImpl)}
+     * @param code        the code entered by the user
+     * @return the user the challenge was issued for, as currently stored
+     */
+    @ReadFromPrimary
+    public UserDetailsImpl verify(String challengeId, int code) {
+        PendingChallenge challenge = challengeId == null ? null : challenges.get(challengeId);
+        if (challenge == null || challenge.expiresAt <= System.currentTimeMillis()) {
+            throw createUserMgmtException(TWO_FA_CHALLENGE_INVALID);
+        }
+        int attempt = challenge.attempts.incrementAndGet();
+        if (attempt > maxAttempts) {
+            challenges.remove(challengeId, challenge);
+            throw createUserMgmtException(TWO_FA_CHALLENGE_INVALID);
+        }
+        Long userId = challenge.userDetails.getId();
+        if (!totpService.verifyCode(userId, code, () -> userRepository.findTwoFactorSecret(userId).orElse(null))) {
+            if (attempt == maxAttempts) {
+                challenges.remove(challengeId, challenge);
+            }
+            throw createUserMgmtException(TWO_FA_CODE_INVALID);
+        }
+        if (!challenges.remove(challengeId, challenge)) {
+            throw createUserMgmtException(TWO_FA_CHALLENGE_INVALID);
+        }
+        UserDetailsImpl current = userRepository.findByUsernameForAuthentication(challenge.userDetails.getUsername())
+                .filter(user -> user.getId().equals(userId))
+                .map(UserDetailsImpl::build)
+                .orElse(null);
+        if (current == null || !isUsable(current) || current.isTokenRevoked(new Date(challenge.issuedAt))) {
+            throw createUserMgmtException(TWO_FA_CHALLENGE_INVALID);
+        }
+        return current;
+    }
+
+    /**
+     * Drops the open challenges of the given users, so a login that passed the password check before
+     * an account change cannot complete after it.
+     *
+     * @param userIds the users whose challenges to drop
+     */
+    public void dropChallenges(Collection<Long> userIds) {
+        challenges.values().removeIf(challenge -> userIds.contains(challenge.userDetails.getId()));
+    }
+
+    /**
+     * Drops challenges that were never completed.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.twoFactorChallengeTtlMs:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        challenges.values().removeIf(challenge -> challenge.expiresAt <= now);
+    }
+
+    private static boolean isUsable(UserDetailsImpl userDetails) {
+        return userDetails.isAccountNonLocked() && userDetails.isAccountNonExpired()
+                && userDetails.isCredentialsNonExpired() && userDetails.isEnabled();
+    }
+
+    private static final class PendingChallenge {
+        private final UserDetailsImpl userDetails;
+        private final long issuedAt;
+        private final long expiresAt;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private PendingChallenge(UserDetailsImpl userDetails, long issuedAt, long expiresAt) {
+            this.userDetails = userDetails;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package com.user.management.security.jwt;
 
+import com.user.management.enums.MetricFamily;
+import com.user.management.jfr.TokenVerificationEvent;
+import com.user.management.security.services.UserDetailsImpl;
 import com.user.management.security.services.UserDetailsServiceImpl;
+import com.user.management.services.IMetricsService;
+import com.user.management.util.LatencyHistogram;
+import com.user.management.util.RequestTrace;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,41 +35,91 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private IMetricsService metricsService;
+
+    private LatencyHistogram filterLatency;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         logger.debug("AuthTokenFilter called for URI: {}", request.getRequestURI());
+        long start = System.nanoTime();
+        boolean failed = true;
+        int span = RequestTrace.open("jwt", null);
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        String jwt = null;
+        String outcome = "INVALID";
+        long userId = -1;
         try {
             // Extract JWT token from the request header
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            jwt = parseJwt(request);
+            Claims claims = jwt != null ? jwtUtils.parseValidClaims(jwt) : null;
+            if (claims != null) {
                 // Get username from the token
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                String username = claims.getSubject();
 
                 // Load user details from the database
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                // Create an authentication object with user details and roles
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                if (userDetails instanceof UserDetailsImpl user && user.getId() != null) {
+                    userId = user.getId();
+                }
 
-                logger.debug("Roles from JWT: {}", userDetails.getAuthorities());
+                // Reject tokens of accounts that are locked, expired or disabled, and tokens issued
+                // before an admin changed the account's status
+                if (!isUsable(userDetails)
+                        || userDetails instanceof UserDetailsImpl user && user.isTokenRevoked(claims.getIssuedAt())) {
+                    logger.debug("Token for user {} has been revoked", username);
+                    outcome = "REVOKED";
+                } else {
+                    outcome = "VALID";
+                    // Create an authentication object with user details and roles
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-                // Set authentication details and store in SecurityContext
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    logger.debug("Roles from JWT: {}", userDetails.getAuthorities());
+
+                    // Set authentication details and store in SecurityContext
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
+            failed = false;
         } catch (Exception e) {
             logger.error("Error: Cannot set user authentication {}", e.getMessage(), e);
             throw createUserMgmtException(AUTHENTICATION_FAILED);
+        } finally {
+            filterLatency().recordNanos(System.nanoTime() - start, failed);
+            RequestTrace.close(span);
+            event.end();
+            if (jwt != null && event.shouldCommit()) {
+                event.userId = userId;
+                event.outcome = outcome;
+                event.tokenLength = jwt.length();
+                event.commit();
+            }
         }
 
         // Proceed to the next filter in the chain
         filterChain.doFilter(request, response);
     }
 
+    private static boolean isUsable(UserDetails userDetails) {
+        return userDetails.isAccountNonLocked() && userDetails.isAccountNonExpired()
+                && userDetails.isCredentialsNonExpired() && userDetails.isEnabled();
+    }
+
+    private LatencyHistogram filterLatency() {
+        if (filterLatency == null) {
+            filterLatency = metricsService.histogram(MetricFamily.JWT_FILTER, "");
+        }
+        return filterLatency;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         // Extract JWT token from the Authorization header
         String jwt = jwtUtils.getJwtFromHeader(request);
@@ -92,6 +92,23 @@ public class JwtUtils {
         return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
     }
 
+    /**
+     * Checks that the configured secret yields a usable signing key by signing and parsing a
+     * short-lived token.
+     *
+     * @throws io.jsonwebtoken.JwtException if the key is missing, too weak or does not round-trip
+     */
+    public void verifyKeyMaterial() {
+        String token = Jwts.builder()
+                .subject("health-probe")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key())
+                .compact();
+        if (!"health-probe".equals(getUserNameFromJwtToken(token))) {
+            throw new UnsupportedJwtException("Signed token did not round-trip");
+        }
+    }
+
     /**
      * Validates a JWT token by checking its structure and expiration date.
      *
@@ -99,13 +116,23 @@ public class JwtUtils {
      * @return true if the token is valid, otherwise false
      */
     public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies a JWT token and returns its claims, so callers need to parse it only once.
+     *
+     * @param authToken the JWT token to verify
+     * @return the token's claims, or null if the token is malformed, expired, unsupported or empty
+     */
+    public Claims parseValidClaims(String authToken) {
         try {
             logger.debug("Validating JWT token");
-            Jwts.parser()
+            return Jwts.parser()
                     .verifyWith((SecretKey) key())
                     .build()
-                    .parseSignedClaims(authToken);
-            return true;
+                    .parseSignedClaims(authToken)
+                    .getPayload();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -115,6 +142,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
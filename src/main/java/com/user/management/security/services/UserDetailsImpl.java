@@ -10,7 +10,10 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.Serial;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,6 +36,14 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    @JsonIgnore
+    private Instant tokensValidAfter;
+
+    private boolean accountNonLocked = true;
+    private boolean accountNonExpired = true;
+    private boolean credentialsNonExpired = true;
+    private boolean enabled = true;
+
     public UserDetailsImpl(Long id, String username, String email, String password,
                            boolean is2faEnabled, Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
@@ -47,7 +58,7 @@ public class UserDetailsImpl implements UserDetails {
 
         GrantedAuthority authority = new SimpleGrantedAuthority(user.getRole().getRoleName().name());
 
-        return new UserDetailsImpl(
+        UserDetailsImpl userDetails = new UserDetailsImpl(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -55,6 +66,14 @@ public class UserDetailsImpl implements UserDetails {
                 user.isTwoFactorEnabled(),
                 List.of(authority)
         );
+        userDetails.setAccountNonLocked(user.isAccountNonLocked());
+        userDetails.setAccountNonExpired(user.isAccountNonExpired());
+        userDetails.setCredentialsNonExpired(user.isCredentialsNonExpired());
+        userDetails.setEnabled(user.isEnabled());
+        if (user.getTokensValidAfter() != null) {
+            userDetails.setTokensValidAfter(user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return userDetails;
     }
 
 
@@ -75,28 +94,43 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isAccountNonExpired() {
-        return true;
+        return accountNonExpired;
     }
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return accountNonLocked;
     }
 
     @Override
     public boolean isCredentialsNonExpired() {
-        return true;
+        return credentialsNonExpired;
     }
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     public boolean is2faEnabled() {
         return is2faEnabled;
     }
 
+    /**
+     * Checks a token's issued-at claim against the account's token cut-off. The claim only has
+     * whole seconds, so both are compared as epoch seconds: a token issued in the same second as the
+     * cut-off is accepted, since it may come from a sign-in right after the account was re-enabled.
+     *
+     * @param issuedAt the token's issued-at claim
+     * @return true if the token was issued before the cut-off, or carries no issued-at
+     */
+    public boolean isTokenRevoked(Date issuedAt) {
+        if (tokensValidAfter == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.toInstant().getEpochSecond() < tokensValidAfter.getEpochSecond();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
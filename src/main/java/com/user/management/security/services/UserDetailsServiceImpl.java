@@ -1,5 +1,7 @@
 package com.user.management.security.services;
 
+import com.user.management.config.ReadFromPrimary;
+import com.user.management.jfr.UserDetailsLoadEvent;
 import com.user.management.models.User;
 import com.user.management.repositories.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,11 +20,29 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    /**
+     * Loads the user for sign-in and for every authenticated request, so it always reads the
+     * primary: a replica lagging behind a lock, a disable or a password change would otherwise let
+     * the old state authenticate. For the same reason it bypasses the second-level cache, which
+     * another instance's writes only reach once the entry expires.
+     */
     @Override
-    @Transactional
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        UserDetailsLoadEvent event = new UserDetailsLoadEvent();
+        event.begin();
+        User user = userRepository.findByUsernameForAuthentication(username).orElse(null);
+        event.end();
+        if (event.shouldCommit()) {
+            event.username = username;
+            event.found = user != null;
+            event.userId = user != null && user.getId() != null ? user.getId() : -1;
+            event.commit();
+        }
+        if (user == null) {
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
 
         return UserDetailsImpl.build(user);
     }
@@ -0,0 +1,24 @@
+package com.user.management.services;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.models.User;
+import com.user.management.response.AdminStatsResponse;
+
+public interface IAdminStatsService {
+
+    AdminStatsResponse getStats();
+
+    void recordUserCreated(User user);
+
+    void recordUsersImported(long count, String signUpMethod);
+
+    void recordAccountStatusChange(AccountStatusField field, boolean value, long changed);
+
+    void recordTwoFactorChange(boolean enabled);
+
+    void recordKeepCreated();
+
+    void recordKeepDeleted();
+
+    void reconcile();
+}
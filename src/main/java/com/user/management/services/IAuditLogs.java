@@ -1,8 +1,11 @@
 package com.user.management.services;
 
+import com.user.management.enums.RollupResolution;
 import com.user.management.models.AuditLog;
 import com.user.management.models.Keep;
+import com.user.management.response.AuditActivityPoint;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface IAuditLogs {
@@ -16,4 +19,9 @@ public interface IAuditLogs {
     List<AuditLog> getAllAuditLogs();
 
     List<AuditLog> getAuditLogsForKeepId(Long keepId);
+
+    List<AuditActivityPoint> getActivitySeries(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                               String action, String username);
+
+    void flushRollups();
 }
@@ -11,6 +11,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 public interface IAuthService {
     LoginResponse signIn(LoginRequest loginRequest);
 
+    LoginResponse verifyTwoFactorLogin(String challengeId, int code);
+
     SignupResponse signUp(SignupRequest signupRequest);
 
     UserInfoResponse getUserDetails(UserDetails userDetails);
@@ -0,0 +1,12 @@
+package com.user.management.services;
+
+import com.user.management.response.EmailOutboxMetrics;
+
+public interface IEmailOutboxService {
+
+    void enqueue(String to, String subject, String htmlBody);
+
+    void dispatch();
+
+    EmailOutboxMetrics getMetrics();
+}
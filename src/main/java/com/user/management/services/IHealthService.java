@@ -0,0 +1,10 @@
+package com.user.management.services;
+
+import com.user.management.response.HealthResponse;
+
+public interface IHealthService {
+
+    HealthResponse liveness();
+
+    HealthResponse readiness();
+}
@@ -0,0 +1,20 @@
+package com.user.management.services;
+
+import com.user.management.enums.EmailTemplate;
+import com.user.management.request.MailCampaignRequest;
+import com.user.management.response.MailCampaignStatus;
+
+import java.util.Collection;
+
+public interface IMailCampaignService {
+
+    MailCampaignStatus startCampaign(MailCampaignRequest request);
+
+    Long prepareCampaign(EmailTemplate template);
+
+    void addRecipients(Long campaignId, Collection<Long> userIds);
+
+    void launchCampaign(Long campaignId);
+
+    MailCampaignStatus getCampaignStatus(Long campaignId);
+}
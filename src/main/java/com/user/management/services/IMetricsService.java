@@ -0,0 +1,19 @@
+package com.user.management.services;
+
+import com.user.management.enums.MetricFamily;
+import com.user.management.util.LatencyHistogram;
+
+import java.util.function.LongSupplier;
+
+public interface IMetricsService {
+
+    LatencyHistogram histogram(MetricFamily family, String labels);
+
+    /**
+     * Registers a cumulative counter read at scrape time; a second registration under the same name
+     * replaces the first.
+     */
+    void counter(String name, String help, LongSupplier value);
+
+    String scrape();
+}
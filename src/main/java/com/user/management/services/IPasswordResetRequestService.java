@@ -0,0 +1,6 @@
+package com.user.management.services;
+
+public interface IPasswordResetRequestService {
+
+    void requestReset(String email);
+}
@@ -0,0 +1,16 @@
+package com.user.management.services;
+
+import com.user.management.response.QueryStatsResponse;
+
+public interface IQueryStatsService {
+
+    void beginRequest();
+
+    void endRequest(String endpoint);
+
+    void onStatement(String sql);
+
+    void onSlowQuery(String sql, long millis);
+
+    QueryStatsResponse getStats();
+}
@@ -2,10 +2,16 @@ package com.user.management.services;
 
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 
+import java.util.function.Supplier;
+
 public interface ITotpService {
     GoogleAuthenticatorKey generateSecretKey();
 
     String getQRCodeUrl(GoogleAuthenticatorKey secret, String username);
 
     boolean verifyCode(String secret, int code);
+
+    boolean verifyCode(Long userId, int code, Supplier<String> secretLoader);
+
+    void evictSecret(Long userId);
 }
@@ -0,0 +1,11 @@
+package com.user.management.services;
+
+import com.user.management.enums.ExportFormat;
+import com.user.management.request.UserFilterRequest;
+
+import java.io.OutputStream;
+
+public interface IUserExportService {
+
+    void exportUsers(UserFilterRequest filter, ExportFormat format, boolean gzip, OutputStream out);
+}
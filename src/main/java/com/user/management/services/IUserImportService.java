@@ -0,0 +1,13 @@
+package com.user.management.services;
+
+import com.user.management.enums.ImportFormat;
+import com.user.management.response.ImportJobStatus;
+
+import java.io.InputStream;
+
+public interface IUserImportService {
+
+    ImportJobStatus submitImport(InputStream input, ImportFormat format);
+
+    ImportJobStatus getImportStatus(String jobId);
+}
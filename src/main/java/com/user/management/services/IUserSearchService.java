@@ -0,0 +1,14 @@
+package com.user.management.services;
+
+import com.user.management.response.UserSearchResult;
+
+import java.util.List;
+
+public interface IUserSearchService {
+
+    void index(Long userId, String username, String email);
+
+    void remove(Long userId);
+
+    List<UserSearchResult> search(String query, int limit);
+}
@@ -1,8 +1,14 @@
 package com.user.management.services;
 
+import com.user.management.enums.AccountStatusField;
 import com.user.management.models.Role;
 import com.user.management.models.User;
+import com.user.management.request.BulkAccountStatusRequest;
+import com.user.management.request.UserFilterRequest;
 import com.user.management.request.dto.UserDTO;
+import com.user.management.response.BulkUpdateResponse;
+import com.user.management.response.KeysetPage;
+import com.user.management.response.UserSummaryResponse;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 
 import java.util.List;
@@ -13,6 +19,8 @@ public interface IUserService {
 
     List<User> getAllUsers();
 
+    KeysetPage<UserSummaryResponse> getUserPage(UserFilterRequest filter, String cursor, int size);
+
     UserDTO getUserById(Long id);
 
     User findByUsername(String username);
@@ -27,6 +35,8 @@ public interface IUserService {
 
     void updateCredentialsExpiryStatus(Long userId, boolean expire);
 
+    BulkUpdateResponse bulkUpdateAccountStatus(AccountStatusField field, BulkAccountStatusRequest request);
+
     void updatePassword(Long userId, String password);
 
     Optional<User> findByEmail(String email);
@@ -0,0 +1,242 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.enums.RollupResolution;
+import com.user.management.models.User;
+import com.user.management.repositories.KeepRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.response.AdminStatsResponse;
+import com.user.management.response.AuditActivityPoint;
+import com.user.management.response.UserStatusCounts;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IAuditLogs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.user.management.constants.Constants.CREATE_KEEP;
+
+/**
+ * Serves the admin dashboard counters from memory.
+ * <p>
+ * The services that create users, change account status or write keeps report their deltas here,
+ * so reading the stats never touches the database. A scheduled reconciliation corrects drift from
+ * writes that bypass the services: each counter is read before its {@code COUNT} query runs and is
+ * only replaced if it still holds that value afterwards. A counter that a concurrent write moved in
+ * the meantime keeps its live value and is corrected by the next reconciliation instead.
+ */
+@Service
+@Slf4j
+public class AdminStatsService implements IAdminStatsService {
+
+    private final UserRepository userRepository;
+    private final KeepRepository keepRepository;
+    private final IAuditLogs auditLogService;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong enabledUsers = new AtomicLong();
+    private final AtomicLong lockedUsers = new AtomicLong();
+    private final AtomicLong accountExpiredUsers = new AtomicLong();
+    private final AtomicLong credentialsExpiredUsers = new AtomicLong();
+    private final AtomicLong twoFactorEnabledUsers = new AtomicLong();
+    private final AtomicLong totalKeeps = new AtomicLong();
+    private final ConcurrentHashMap<String, AtomicLong> usersBySignUpMethod = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, AtomicLong> keepsPerDay = new ConcurrentHashMap<>();
+    private volatile Instant reconciledAt;
+
+    @Value("${spring.app.statsKeepDays:30}")
+    private int statsKeepDays;
+
+    public AdminStatsService(UserRepository userRepository, KeepRepository keepRepository, IAuditLogs auditLogService) {
+        this.userRepository = userRepository;
+        this.keepRepository = keepRepository;
+        this.auditLogService = auditLogService;
+    }
+
+    /**
+     * Returns the current dashboard counters without querying the database.
+     *
+     * @return The user, sign-up method and keep counters.
+     */
+    @Override
+    public AdminStatsResponse getStats() {
+        Map<String, Long> bySignUpMethod = new TreeMap<>();
+        usersBySignUpMethod.forEach((method, count) -> bySignUpMethod.put(method, count.get()));
+        LocalDate firstDay = LocalDate.now().minusDays(statsKeepDays - 1L);
+        Map<LocalDate, Long> keepsByDay = new TreeMap<>();
+        keepsPerDay.forEach((day, count) -> {
+            if (!day.isBefore(firstDay)) {
+                keepsByDay.put(day, count.get());
+            }
+        });
+        return new AdminStatsResponse(totalUsers.get(), enabledUsers.get(), lockedUsers.get(),
+                accountExpiredUsers.get(), credentialsExpiredUsers.get(), twoFactorEnabledUsers.get(),
+                bySignUpMethod, totalKeeps.get(), keepsByDay, reconciledAt);
+    }
+
+    @Override
+    public void recordUserCreated(User user) {
+        totalUsers.incrementAndGet();
+        if (user.isEnabled()) {
+            enabledUsers.incrementAndGet();
+        }
+        if (!user.isAccountNonLocked()) {
+            lockedUsers.incrementAndGet();
+        }
+        if (!user.isAccountNonExpired()) {
+            accountExpiredUsers.incrementAndGet();
+        }
+        if (!user.isCredentialsNonExpired()) {
+            credentialsExpiredUsers.incrementAndGet();
+        }
+        if (user.isTwoFactorEnabled()) {
+            twoFactorEnabledUsers.incrementAndGet();
+        }
+        signUpMethodCounter(user.getSignUpMethod()).incrementAndGet();
+    }
+
+    /**
+     * Records users created by the bulk import, which are always enabled, unlocked and unexpired.
+     */
+    @Override
+    public void recordUsersImported(long count, String signUpMethod) {
+        totalUsers.addAndGet(count);
+        enabledUsers.addAndGet(count);
+        signUpMethodCounter(signUpMethod).addAndGet(count);
+    }
+
+    /**
+     * Records a status change; {@code changed} must count only the users whose flag actually flipped.
+     */
+    @Override
+    public void recordAccountStatusChange(AccountStatusField field, boolean value, long changed) {
+        long delta = value ? changed : -changed;
+        switch (field) {
+            case LOCKED -> lockedUsers.addAndGet(delta);
+            case ACCOUNT_EXPIRED -> accountExpiredUsers.addAndGet(delta);
+            case ENABLED -> enabledUsers.addAndGet(delta);
+            case CREDENTIALS_EXPIRED -> credentialsExpiredUsers.addAndGet(delta);
+        }
+    }
+
+    @Override
+    public void recordTwoFactorChange(boolean enabled) {
+        twoFactorEnabledUsers.addAndGet(enabled ? 1 : -1);
+    }
+
+    @Override
+    public void recordKeepCreated() {
+        totalKeeps.incrementAndGet();
+        keepsPerDay.computeIfAbsent(LocalDate.now(), day -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void recordKeepDeleted() {
+        totalKeeps.decrementAndGet();
+    }
+
+    /**
+     * Corrects the in-memory counters from fresh {@code COUNT} results without overwriting deltas
+     * recorded while the queries ran. Keeps per day come from the daily audit rollups, since keeps
+     * carry no creation timestamp of their own.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${spring.app.statsReconcileMs:900000}",
+            initialDelayString = "${spring.app.statsReconcileMs:900000}")
+    public void reconcile() {
+        try {
+            AtomicLong[] userCounters = {totalUsers, enabledUsers, lockedUsers, accountExpiredUsers,
+                    credentialsExpiredUsers, twoFactorEnabledUsers};
+            long[] userCountersBefore = new long[userCounters.length];
+            for (int i = 0; i < userCounters.length; i++) {
+                userCountersBefore[i] = userCounters[i].get();
+            }
+            Map<String, Long> bySignUpMethodBefore = snapshot(usersBySignUpMethod);
+            long totalKeepsBefore = totalKeeps.get();
+            Map<LocalDate, Long> keepsPerDayBefore = snapshot(keepsPerDay);
+
+            UserStatusCounts counts = userRepository.countUserStatuses();
+            long[] userCounts = {valueOf(counts.getTotal()), valueOf(counts.getEnabled()), valueOf(counts.getLocked()),
+                    valueOf(counts.getAccountExpired()), valueOf(counts.getCredentialsExpired()),
+                    valueOf(counts.getTwoFactorEnabled())};
+            Map<String, Long> bySignUpMethod = new HashMap<>();
+            for (Object[] row : userRepository.countUsersBySignUpMethod()) {
+                bySignUpMethod.merge(signUpMethodKey((String) row[0]), (Long) row[1], Long::sum);
+            }
+            long keeps = keepRepository.count();
+            LocalDate firstDay = LocalDate.now().minusDays(statsKeepDays - 1L);
+            Map<LocalDate, Long> keepsByDay = new HashMap<>();
+            for (AuditActivityPoint point : auditLogService.getActivitySeries(RollupResolution.DAY,
+                    firstDay.atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(), CREATE_KEEP, null)) {
+                keepsByDay.merge(point.getBucketStart().toLocalDate(), point.getCount(), Long::sum);
+            }
+
+            int skipped = 0;
+            for (int i = 0; i < userCounters.length; i++) {
+                skipped += userCounters[i].compareAndSet(userCountersBefore[i], userCounts[i]) ? 0 : 1;
+            }
+            skipped += totalKeeps.compareAndSet(totalKeepsBefore, keeps) ? 0 : 1;
+            skipped += correct(usersBySignUpMethod, bySignUpMethodBefore, bySignUpMethod);
+            keepsPerDay.keySet().removeIf(day -> day.isBefore(firstDay));
+            skipped += correct(keepsPerDay, keepsPerDayBefore, keepsByDay);
+
+            reconciledAt = Instant.now();
+            log.info("Reconciled admin stats: {} users, {} keeps, {} counters left for the next run after concurrent updates",
+                    totalUsers.get(), totalKeeps.get(), skipped);
+        } catch (Exception e) {
+            log.error("Error occurred while reconciling admin stats: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets every counter whose value is still the one snapshotted before counting; counters missing
+     * from the counts are corrected to zero.
+     *
+     * @return the number of counters left alone because they changed while counting
+     */
+    private static <K> int correct(ConcurrentHashMap<K, AtomicLong> counters, Map<K, Long> before, Map<K, Long> counts) {
+        int skipped = 0;
+        Set<K> keys = new HashSet<>(counts.keySet());
+        keys.addAll(counters.keySet());
+        for (K key : keys) {
+            long expected = before.getOrDefault(key, 0L);
+            long actual = counts.getOrDefault(key, 0L);
+            AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong());
+            skipped += counter.compareAndSet(expected, actual) ? 0 : 1;
+        }
+        return skipped;
+    }
+
+    private static <K> Map<K, Long> snapshot(ConcurrentHashMap<K, AtomicLong> counters) {
+        Map<K, Long> values = new HashMap<>();
+        counters.forEach((key, counter) -> values.put(key, counter.get()));
+        return values;
+    }
+
+    private AtomicLong signUpMethodCounter(String signUpMethod) {
+        return usersBySignUpMethod.computeIfAbsent(signUpMethodKey(signUpMethod), method -> new AtomicLong());
+    }
+
+    private static String signUpMethodKey(String signUpMethod) {
+        return signUpMethod == null ? "unknown" : signUpMethod.toLowerCase(Locale.ROOT);
+    }
+
+    private static long valueOf(Long count) {
+        return count == null ? 0 : count;
+    }
+}
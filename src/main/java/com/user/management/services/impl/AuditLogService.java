@@ -1,18 +1,39 @@
 package com.user.management.services.impl;
 
+import com.user.management.config.ReadFromReplica;
+import com.user.management.enums.RollupResolution;
 import com.user.management.exceptions.ValidationException;
+import com.user.management.jfr.AuditWriteEvent;
 import com.user.management.models.AuditLog;
+import com.user.management.models.AuditRollup;
 import com.user.management.models.Keep;
 import com.user.management.repositories.AuditLogRepository;
+import com.user.management.repositories.AuditRollupRepository;
+import com.user.management.repositories.IdSequenceRepository;
+import com.user.management.response.AuditActivityPoint;
 import com.user.management.services.IAuditLogs;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ObjectUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static com.user.management.constants.Constants.*;
 import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
 import static com.user.management.util.UserManagementUtils.createValidationException;
 
@@ -22,8 +43,37 @@ public class AuditLogService implements IAuditLogs {
 
     private final AuditLogRepository auditLogRepository;
 
-    public AuditLogService(AuditLogRepository auditLogRepository) {
+    private final AuditRollupRepository auditRollupRepository;
+
+    private final IdSequenceRepository idSequenceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Per-minute activity counters that have not been flushed to the rollup table yet.
+     * {@link LongAdder} stripes increments across cells so concurrent keep operations
+     * do not contend on a single counter.
+     */
+    private final ConcurrentHashMap<RollupKey, LongAdder> pendingRollups = new ConcurrentHashMap<>();
+
+    /**
+     * Held for writing while a flush persists and drains the counters, and for reading while a
+     * series merges rows with counters, so a series never sees a flushed count twice or not at all.
+     */
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private record RollupKey(RollupResolution resolution, LocalDateTime bucketStart, String action, String username) {
+    }
+
+    private record SeriesKey(LocalDateTime bucketStart, String action) {
+    }
+
+    public AuditLogService(AuditLogRepository auditLogRepository, AuditRollupRepository auditRollupRepository,
+                           IdSequenceRepository idSequenceRepository, PlatformTransactionManager transactionManager) {
         this.auditLogRepository = auditLogRepository;
+        this.auditRollupRepository = auditRollupRepository;
+        this.idSequenceRepository = idSequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -40,12 +90,12 @@ public class AuditLogService implements IAuditLogs {
         }
         try {
             AuditLog log = new AuditLog();
-            log.setAction("CREATE_KEEP");
+            log.setAction(CREATE_KEEP);
             log.setUsername(username);
             log.setKeepId(keep.getId());
             log.setKeepContent(keep.getContent());
             log.setTimestamp(LocalDateTime.now());
-            auditLogRepository.save(log);
+            persist(log);
         } catch (Exception e) {
             log.error("Error occurred while saving created audit log: {}", e.getMessage(), e);
             throw new ServiceException("Failed to save created audit log", e);
@@ -66,12 +116,12 @@ public class AuditLogService implements IAuditLogs {
         }
         try {
             AuditLog log = new AuditLog();
-            log.setAction("UPDATE_KEEP");
+            log.setAction(UPDATE_KEEP);
             log.setUsername(username);
             log.setKeepId(keep.getId());
             log.setKeepContent(keep.getContent());
             log.setTimestamp(LocalDateTime.now());
-            auditLogRepository.save(log);
+            persist(log);
         } catch (Exception e) {
             log.error("Error occurred while saving updated audit log: {}", e.getMessage(), e);
             throw new ServiceException("Failed to save updated audit log", e);
@@ -92,23 +142,40 @@ public class AuditLogService implements IAuditLogs {
         }
         try {
             AuditLog log = new AuditLog();
-            log.setAction("DELETE_KEEP");
+            log.setAction(DELETE_KEEP);
             log.setUsername(username);
             log.setKeepId(keepId);
             log.setTimestamp(LocalDateTime.now());
-            auditLogRepository.save(log);
+            persist(log);
         } catch (Exception e) {
             log.error("Error occurred while saving deletion audit log: {}", e.getMessage(), e);
             throw new ServiceException("Failed to save deletion audit log", e);
         }
     }
 
+    private void persist(AuditLog auditLog) {
+        AuditWriteEvent event = new AuditWriteEvent();
+        event.begin();
+        auditLogRepository.save(auditLog);
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = auditLog.getAction();
+            event.keepId = auditLog.getKeepId() != null ? auditLog.getKeepId() : -1;
+            event.username = auditLog.getUsername();
+            event.contentLength = auditLog.getKeepContent() != null ? auditLog.getKeepContent().length() : 0;
+            event.commit();
+        }
+        recordActivity(auditLog);
+    }
+
     /**
      * To fetch all audit logs, throwing an appropriate exception if something went wrong.
      *
      * @throws ServiceException Thrown if failed to create note.
      */
     @Override
+    @ReadFromReplica
+    @Transactional(readOnly = true)
     public List<AuditLog> getAllAuditLogs() {
         try {
             return auditLogRepository.findAll();
@@ -132,4 +199,122 @@ public class AuditLogService implements IAuditLogs {
             throw new ServiceException("Failed to fetch audit logs by keepID.", e);
         }
     }
+
+    /**
+     * Fetches a time-bucketed activity series from the rollup table, merged with counters that
+     * have not been flushed yet, throwing an appropriate exception if something went wrong.
+     *
+     * @param resolution The bucket size of the series.
+     * @param from       Inclusive start of the window, widened to the start of its bucket.
+     * @param to         Exclusive end of the window; a bucket that starts before it is included whole.
+     * @param action     Optional action to filter on.
+     * @param username   Optional username to filter on.
+     * @throws ValidationException Thrown if the window is missing or empty.
+     * @throws ServiceException    Thrown if failed to fetch the series.
+     */
+    @Override
+    public List<AuditActivityPoint> getActivitySeries(RollupResolution resolution, LocalDateTime from, LocalDateTime to,
+                                                      String action, String username) {
+        if (ObjectUtils.isEmpty(resolution) || ObjectUtils.isEmpty(from)
+                || ObjectUtils.isEmpty(to) || !from.isBefore(to)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        String actionFilter = ObjectUtils.isEmpty(action) ? null : action;
+        String usernameFilter = ObjectUtils.isEmpty(username) ? null : username;
+        // pending counters and flushed rollups are both filtered on the bucket start, so an event
+        // stays in or out of the window when it is flushed
+        LocalDateTime bucketFrom = resolution.truncate(from);
+        flushLock.readLock().lock();
+        try {
+            Map<SeriesKey, AuditActivityPoint> series = new LinkedHashMap<>();
+            auditRollupRepository.findSeries(resolution, bucketFrom, to, actionFilter, usernameFilter)
+                    .forEach(point -> series.put(new SeriesKey(point.getBucketStart(), point.getAction()), point));
+
+            pendingRollups.forEach((key, adder) -> {
+                long pending = adder.sum();
+                LocalDateTime bucketStart = resolution.truncate(key.bucketStart());
+                if (pending == 0
+                        || bucketStart.isBefore(bucketFrom) || !bucketStart.isBefore(to)
+                        || (actionFilter != null && !actionFilter.equals(key.action()))
+                        || (usernameFilter != null && !usernameFilter.equals(key.username()))) {
+                    return;
+                }
+                AuditActivityPoint point = series.computeIfAbsent(new SeriesKey(bucketStart, key.action()),
+                        k -> new AuditActivityPoint(bucketStart, key.action(), 0L));
+                point.setCount(point.getCount() + pending);
+            });
+
+            List<AuditActivityPoint> points = new ArrayList<>(series.values());
+            points.sort(Comparator.comparing(AuditActivityPoint::getBucketStart)
+                    .thenComparing(AuditActivityPoint::getAction));
+            return points;
+        } catch (Exception e) {
+            log.error("Error occurred while fetching audit activity series: {}", e.getMessage(), e);
+            throw new ServiceException("Failed to fetch audit activity series.", e);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the pending per-minute counters into the minute, hour and day rollup rows.
+     * <p>
+     * Each bucket is added with an upsert, so flushes from other instances cannot clash on the
+     * unique key, and all buckets go in one transaction. The flushed amounts are subtracted from
+     * the counters only after the commit: a failed flush leaves them in place for the next run, and
+     * events counted while the flush runs are kept. Counters of closed minutes are dropped from
+     * memory once drained.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.auditRollupFlushMs:60000}")
+    @PreDestroy
+    public void flushRollups() {
+        flushLock.writeLock().lock();
+        try {
+            Map<RollupKey, Long> drained = new HashMap<>();
+            Map<RollupKey, Long> buckets = new HashMap<>();
+            pendingRollups.forEach((key, adder) -> {
+                long delta = adder.sum();
+                if (delta > 0) {
+                    drained.put(key, delta);
+                    for (RollupResolution resolution : RollupResolution.values()) {
+                        RollupKey bucket = new RollupKey(resolution, resolution.truncate(key.bucketStart()),
+                                key.action(), key.username());
+                        buckets.merge(bucket, delta, Long::sum);
+                    }
+                }
+            });
+            if (!buckets.isEmpty()) {
+                long firstId = idSequenceRepository.reserve(AuditRollup.class, buckets.size());
+                transactionTemplate.executeWithoutResult(status -> {
+                    long id = firstId;
+                    for (Map.Entry<RollupKey, Long> bucket : buckets.entrySet()) {
+                        RollupKey key = bucket.getKey();
+                        auditRollupRepository.upsertCount(id++, key.resolution().name(), key.bucketStart(),
+                                key.action(), key.username(), bucket.getValue());
+                    }
+                });
+                drained.forEach((key, delta) -> pendingRollups.get(key).add(-delta));
+                log.debug("Flushed {} audit rollup buckets", buckets.size());
+            }
+            LocalDateTime closedBefore = RollupResolution.MINUTE.truncate(LocalDateTime.now()).minusMinutes(1);
+            pendingRollups.forEach((key, adder) -> {
+                if (key.bucketStart().isBefore(closedBefore) && adder.sum() == 0) {
+                    pendingRollups.remove(key, adder);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error occurred while flushing audit rollups, keeping the counts for the next flush: {}",
+                    e.getMessage(), e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void recordActivity(AuditLog auditLog) {
+        RollupKey key = new RollupKey(RollupResolution.MINUTE,
+                RollupResolution.MINUTE.truncate(auditLog.getTimestamp()),
+                auditLog.getAction(),
+                auditLog.getUsername());
+        pendingRollups.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
 }
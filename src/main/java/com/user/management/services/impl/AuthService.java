@@ -1,8 +1,10 @@
 package com.user.management.services.impl;
 
+import com.user.management.config.ReadFromPrimary;
 import com.user.management.enums.AppRole;
 import com.user.management.exceptions.UserMgmtException;
 import com.user.management.exceptions.ValidationException;
+import com.user.management.jfr.SignInEvent;
 import com.user.management.models.Role;
 import com.user.management.models.User;
 import com.user.management.repositories.RoleRepository;
@@ -12,9 +14,13 @@ import com.user.management.request.SignupRequest;
 import com.user.management.response.LoginResponse;
 import com.user.management.response.SignupResponse;
 import com.user.management.response.UserInfoResponse;
+import com.user.management.security.TimedPasswordEncoder;
+import com.user.management.security.TwoFactorChallengeStore;
 import com.user.management.security.jwt.JwtUtils;
 import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.services.IAdminStatsService;
 import com.user.management.services.IAuthService;
+import com.user.management.services.IUserSearchService;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -55,13 +61,22 @@ public class AuthService implements IAuthService {
 
     private final UserService userService;
 
-    public AuthService(JwtUtils jwtUtils, AuthenticationManager authenticationManager, UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder, UserService userService) {
+    private final IUserSearchService userSearchService;
+
+    private final IAdminStatsService adminStatsService;
+
+    private final TwoFactorChallengeStore twoFactorChallengeStore;
+
+    public AuthService(JwtUtils jwtUtils, AuthenticationManager authenticationManager, UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder encoder, UserService userService, IUserSearchService userSearchService, IAdminStatsService adminStatsService, TwoFactorChallengeStore twoFactorChallengeStore) {
         this.jwtUtils = jwtUtils;
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.encoder = encoder;
         this.userService = userService;
+        this.userSearchService = userSearchService;
+        this.adminStatsService = adminStatsService;
+        this.twoFactorChallengeStore = twoFactorChallengeStore;
     }
 
     /**
@@ -71,11 +86,15 @@ public class AuthService implements IAuthService {
      * It also handles exceptions for input validation and authentication failures.
      *
      * @param loginRequest The login request containing username and password to authenticate.
-     * @return LoginResponse containing the authenticated username, roles, and JWT token.
+     * @return LoginResponse containing the authenticated username, roles, and JWT token, or a
+     *         two-factor challenge id instead of the token when the user has 2FA enabled.
+     *         The user is read from the primary, so a password just reset or an account just
+     *         locked takes effect immediately.
      * @throws ValidationException Thrown if the input validation fails (e.g., empty or invalid fields).
      * @throws UserMgmtException Thrown if the authentication process fails.
      */
     @Override
+    @ReadFromPrimary
     public LoginResponse signIn(LoginRequest loginRequest) {
 
         if (ObjectUtils.isEmpty(loginRequest)
@@ -84,6 +103,11 @@ public class AuthService implements IAuthService {
             throw createValidationException(INPUT_IS_INVALID); //TODO: either username and pass are invalid (check for password length etc ) in @validate annotation
         }
         Authentication authentication;
+        SignInEvent event = new SignInEvent();
+        event.begin();
+        long hashNanosBefore = TimedPasswordEncoder.currentThreadHashNanos();
+        String outcome = "FAILED";
+        long userId = -1;
         /*
         Authentication Object is a more comprehensive representation of
         the user's authentication information
@@ -104,20 +128,60 @@ public class AuthService implements IAuthService {
              */
             log.info("Validating userDetails");
             validateUserDetails(userDetails);
-            String jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
-            List<String> roles = userDetails.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .toList();
-            return new LoginResponse(
-                    userDetails.getUsername(),
-                    roles, jwtToken);
+            userId = userDetails.getId() != null ? userDetails.getId() : -1;
+            if (userDetails.is2faEnabled()) {
+                LoginResponse response = new LoginResponse(userDetails.getUsername(), List.of(), null);
+                response.setTwoFactorRequired(true);
+                response.setChallengeId(twoFactorChallengeStore.issue(userDetails));
+                outcome = "TWO_FACTOR_REQUIRED";
+                return response;
+            }
+            LoginResponse response = loginResponse(userDetails);
+            outcome = "SUCCESS";
+            return response;
 
         } catch (AuthenticationException e) {
             log.error("Error: AuthenticationException {}", e.getMessage(), e);
             throw createUserMgmtException(AUTHENTICATION_FAILED);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.username = loginRequest.getUsername();
+                event.userId = userId;
+                event.outcome = outcome;
+                event.hashDuration = TimedPasswordEncoder.currentThreadHashNanos() - hashNanosBefore;
+                event.commit();
+            }
         }
     }
 
+    /**
+     * Finishes a two-step login by checking the code for an outstanding challenge and issuing the JWT.
+     * The challenge carries the authenticated user, so no database read is needed.
+     *
+     * @param challengeId The challenge id returned by {@link #signIn(LoginRequest)}.
+     * @param code        The code from the user's authenticator app.
+     * @return LoginResponse containing the authenticated username, roles, and JWT token.
+     * @throws UserMgmtException Thrown if the challenge is unknown, expired or used up, or the code is wrong.
+     */
+    @Override
+    public LoginResponse verifyTwoFactorLogin(String challengeId, int code) {
+        if (ObjectUtils.isEmpty(challengeId)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        return loginResponse(twoFactorChallengeStore.verify(challengeId, code));
+    }
+
+    private LoginResponse loginResponse(UserDetailsImpl userDetails) {
+        String jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return new LoginResponse(
+                userDetails.getUsername(),
+                roles, jwtToken);
+    }
+
     /**
      * Registers a new user account with the provided signup details.
      * The method validates the input request, checks for username and email availability,
@@ -170,12 +234,14 @@ public class AuthService implements IAuthService {
                     role = roleRepository.findByRoleName(AppRole.ROLE_USER)
                             .orElseThrow(() -> createUserMgmtException(ROLE_NOT_FOUND));
                 }
-
-                makeUser(user);
-                user.setSignUpMethod(EMAIL);
             }
+            // there is no email verification step, so the account is usable at once
+            makeUser(user);
+            user.setSignUpMethod(EMAIL);
             user.setRole(role);
             User save = userRepository.save(user);
+            userSearchService.index(save.getId(), save.getUsername(), save.getEmail());
+            adminStatsService.recordUserCreated(save);
             return new SignupResponse(
                     save.getId(),
                     signupRequest.getUsername(),
@@ -0,0 +1,425 @@
+package com.user.management.services.impl;
+
+import com.user.management.jfr.EmailSendEvent;
+import com.user.management.models.EmailDeadLetter;
+import com.user.management.models.EmailOutbox;
+import com.user.management.repositories.EmailDeadLetterRepository;
+import com.user.management.repositories.EmailOutboxRepository;
+import com.user.management.response.EmailOutboxMetrics;
+import com.user.management.services.IEmailOutboxService;
+import com.user.management.util.DomainRateLimiter;
+import com.user.management.util.SmtpTransportPool;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.user.management.constants.Constants.MAIL_PRIORITY_TRANSACTIONAL;
+
+/**
+ * Delivers mail from the {@code email_outbox} table so callers never wait on SMTP.
+ * <p>
+ * A scheduled dispatcher leases due rows in batches and hands each batch to a worker. The worker
+ * sends the whole batch over one pooled SMTP connection. Delivered rows are deleted; a delivered row
+ * whose delete fails is marked sent instead, and counts as delivered either way, so it is never
+ * leased again. Transient
+ * failures are retried with exponential backoff and jitter. Permanent failures (5xx replies,
+ * malformed addresses) and rows that run out of attempts move to {@code email_dead_letter}.
+ * Rows are leased in priority order so campaign mail never holds up transactional mail, and each
+ * recipient domain is rate limited; a message over its domain's limit is pushed back without
+ * using up an attempt.
+ * Leases make delivery at-least-once: a row whose worker died before recording the outcome is
+ * picked up again once its lease expires.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService implements IEmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String UTF_8 = StandardCharsets.UTF_8.name();
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final DomainRateLimiter rateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final long leaseMs;
+
+    private final ExecutorService workerPool;
+    private final Semaphore idleWorkers;
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final Set<Long> sentNotRemoved = ConcurrentHashMap.newKeySet();
+    private volatile InternetAddress fromAddress;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepository, EmailDeadLetterRepository deadLetterRepository,
+                              JavaMailSender mailSender, SmtpTransportPool transportPool, DomainRateLimiter rateLimiter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${spring.mail.username}") String fromEmail,
+                              @Value("${spring.app.mailWorkers:4}") int workers,
+                              @Value("${spring.app.mailBatchSize:20}") int batchSize,
+                              @Value("${spring.app.mailMaxAttempts:8}") int maxAttempts,
+                              @Value("${spring.app.mailRetryBaseMs:5000}") long retryBaseMs,
+                              @Value("${spring.app.mailRetryMaxMs:3600000}") long retryMaxMs,
+                              @Value("${spring.app.mailLeaseMs:300000}") long leaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.rateLimiter = rateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.leaseMs = leaseMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "mail-outbox-" + threadCount.incrementAndGet()));
+        this.idleWorkers = new Semaphore(workers);
+    }
+
+    /**
+     * Queues a message for delivery, throwing an appropriate exception if something went wrong.
+     *
+     * @param to       The recipient address.
+     * @param subject  The subject line.
+     * @param htmlBody The rendered HTML body.
+     * @throws ServiceException Thrown if the message could not be queued.
+     */
+    @Override
+    public void enqueue(String to, String subject, String htmlBody) {
+        try {
+            Instant now = Instant.now();
+            outboxRepository.save(EmailOutbox.builder()
+                    .recipient(to)
+                    .subject(subject)
+                    .body(htmlBody)
+                    .attempts(0)
+                    .priority(MAIL_PRIORITY_TRANSACTIONAL)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build());
+            enqueued.increment();
+        } catch (RuntimeException e) {
+            log.error("Error occurred while queueing email to {}: {}", to, e.getMessage(), e);
+            throw new ServiceException("Failed to queue email", e);
+        }
+    }
+
+    /**
+     * Leases due messages and hands them to idle workers until either runs out.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${spring.app.mailPollMs:1000}")
+    public void dispatch() {
+        while (idleWorkers.tryAcquire()) {
+            List<EmailOutbox> batch;
+            try {
+                batch = claimBatch();
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                log.error("Error occurred while leasing outbox messages: {}", e.getMessage(), e);
+                return;
+            }
+            if (batch.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+            workerPool.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    @Override
+    public EmailOutboxMetrics getMetrics() {
+        Instant oldest = outboxRepository.findOldestCreatedAt();
+        long oldestAge = oldest == null ? 0 : Duration.between(oldest, Instant.now()).toSeconds();
+        return new EmailOutboxMetrics(outboxRepository.countBySentAtIsNull(), deadLetterRepository.count(), oldestAge,
+                workers - idleWorkers.availablePermits(), enqueued.sum(), sent.sum(), retried.sum(), deferred.sum(),
+                deadLettered.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Removes rows that were delivered but only marked sent, and retries deletes this node could not
+     * record at all.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.mailPurgeSentMs:600000}")
+    public void purgeSent() {
+        try {
+            for (Long id : sentNotRemoved) {
+                outboxRepository.deleteById(id);
+                sentNotRemoved.remove(id);
+            }
+            int purged = outboxRepository.deleteSent();
+            if (purged > 0) {
+                log.info("Purged {} delivered outbox messages", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error occurred while purging delivered outbox messages: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Leases up to {@code batchSize} due rows with one UPDATE. The lease expiry doubles as the claim
+     * token: no other dispatcher can lease a row until it has passed, so the rows carrying exactly
+     * this expiry are the ones this call won.
+     */
+    private List<EmailOutbox> claimBatch() {
+        Instant now = Instant.now();
+        Instant leaseUntil = now.plusMillis(leaseMs).truncatedTo(ChronoUnit.MICROS);
+        List<Long> due = outboxRepository.findDueIds(now, PageRequest.ofSize(batchSize));
+        if (due.isEmpty() || outboxRepository.claim(due, now, leaseUntil) == 0) {
+            return List.of();
+        }
+        return outboxRepository.findClaimed(due, leaseUntil);
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Transport transport = null;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                EmailOutbox message = batch.get(i);
+                if (sentNotRemoved.contains(message.getId())) {
+                    markDelivered(message);
+                    continue;
+                }
+                long waitMs = rateLimiter.tryAcquire(message.getRecipient());
+                if (waitMs > 0) {
+                    defer(message, waitMs);
+                    continue;
+                }
+                if (transport == null) {
+                    try {
+                        transport = transportPool.borrow();
+                    } catch (MessagingException e) {
+                        log.warn("Could not connect to SMTP server: {}", e.getMessage());
+                        batch.subList(i, batch.size()).forEach(pending -> fail(pending, e, false));
+                        return;
+                    }
+                }
+                EmailSendEvent event = new EmailSendEvent();
+                event.begin();
+                String outcome = "FAILED";
+                try {
+                    MimeMessage mime = toMimeMessage(message);
+                    transport.sendMessage(mime, mime.getAllRecipients());
+                    outcome = "SENT";
+                    sent.increment();
+                    markDelivered(message);
+                } catch (MessagingException e) {
+                    boolean permanent = isPermanent(e);
+                    if (!(e instanceof SendFailedException) && !(e instanceof AddressException)) {
+                        transportPool.invalidate(transport);
+                        transport = null;
+                    }
+                    fail(message, e, permanent);
+                } catch (RuntimeException e) {
+                    fail(message, e, false);
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.outboxId = message.getId();
+                        event.campaignId = message.getCampaignId() != null ? message.getCampaignId() : -1;
+                        event.attempt = message.getAttempts() + 1;
+                        event.bodySize = message.getBody() != null ? message.getBody().getBytes(StandardCharsets.UTF_8).length : 0;
+                        event.outcome = outcome;
+                        event.commit();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport);
+            }
+        }
+    }
+
+    /**
+     * Builds a single-part HTML message. The sender address is parsed once and reused, and no
+     * multipart wrapper is created since outbox mail carries no attachments or inline images.
+     */
+    private MimeMessage toMimeMessage(EmailOutbox message) throws MessagingException {
+        MimeMessage mime = mailSender.createMimeMessage();
+        mime.setFrom(fromAddress());
+        mime.setRecipient(Message.RecipientType.TO, new InternetAddress(message.getRecipient(), true));
+        mime.setSubject(message.getSubject(), UTF_8);
+        mime.setText(message.getBody(), UTF_8, "html");
+        mime.setSentDate(new Date());
+        mime.saveChanges();
+        return mime;
+    }
+
+    private InternetAddress fromAddress() throws AddressException {
+        InternetAddress address = fromAddress;
+        if (address == null) {
+            address = new InternetAddress(fromEmail, true);
+            fromAddress = address;
+        }
+        return address;
+    }
+
+    /**
+     * Removes a delivered row. If the delete fails the row is marked sent, which takes it out of
+     * leasing until the purge removes it; if that fails too, this node remembers the id and neither
+     * sends it nor lets it count as failed until the delete goes through.
+     */
+    private void markDelivered(EmailOutbox message) {
+        try {
+            outboxRepository.deleteById(message.getId());
+            sentNotRemoved.remove(message.getId());
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not delete delivered email {}, marking it sent: {}", message.getId(), e.getMessage());
+        }
+        try {
+            outboxRepository.markSent(message.getId(), Instant.now());
+            sentNotRemoved.remove(message.getId());
+        } catch (RuntimeException e) {
+            sentNotRemoved.add(message.getId());
+            log.error("Email {} was delivered but could not be recorded; it will not be sent again by this node: {}",
+                    message.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void fail(EmailOutbox message, Exception e, boolean permanent) {
+        int attempts = message.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+        try {
+            if (permanent || attempts >= maxAttempts) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deadLetterRepository.save(EmailDeadLetter.builder()
+                            .recipient(message.getRecipient())
+                            .subject(message.getSubject())
+                            .body(message.getBody())
+                            .attempts(attempts)
+                            .campaignId(message.getCampaignId())
+                            .lastError(error)
+                            .createdAt(message.getCreatedAt())
+                            .failedAt(Instant.now())
+                            .build());
+                    outboxRepository.deleteById(message.getId());
+                });
+                deadLettered.increment();
+                log.error("Email {} to {} dead-lettered after {} attempt(s): {}",
+                        message.getId(), message.getRecipient(), attempts, error);
+            } else {
+                Instant nextAttemptAt = Instant.now().plusMillis(backoffMs(attempts));
+                outboxRepository.reschedule(message.getId(), attempts, nextAttemptAt, error);
+                retried.increment();
+                log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                        message.getId(), message.getRecipient(), attempts, nextAttemptAt, error);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Error occurred while recording failure of email {}: {}", message.getId(), ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Puts a rate-limited message back without counting it as a failed attempt.
+     */
+    private void defer(EmailOutbox message, long waitMs) {
+        try {
+            outboxRepository.defer(message.getId(), Instant.now().plusMillis(waitMs));
+            deferred.increment();
+        } catch (RuntimeException e) {
+            log.error("Error occurred while deferring email {}: {}", message.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the capped delay is fixed, the other half random.
+     */
+    private long backoffMs(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > retryMaxMs) {
+            delay = retryMaxMs;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * Treats 5xx SMTP replies and unparseable addresses as permanent; anything else may succeed later.
+     */
+    private static boolean isPermanent(MessagingException e) {
+        Exception current = e;
+        while (current != null) {
+            int code = 0;
+            if (current instanceof SMTPAddressFailedException failed) {
+                code = failed.getReturnCode();
+            } else if (current instanceof SMTPSendFailedException failed) {
+                code = failed.getReturnCode();
+            } else if (current instanceof SMTPSenderFailedException failed) {
+                code = failed.getReturnCode();
+            }
+            if (code >= 500 || current instanceof AddressException) {
+                return true;
+            }
+            current = current instanceof MessagingException messagingException ? messagingException.getNextException() : null;
+        }
+        return false;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,239 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.HealthStatus;
+import com.user.management.config.ReplicaLagMonitor;
+import com.user.management.response.HealthResponse;
+import com.user.management.response.HealthResponse.ProbeResult;
+import com.user.management.security.TimedPasswordEncoder;
+import com.user.management.security.jwt.JwtUtils;
+import com.user.management.services.IHealthService;
+import com.user.management.util.SmtpTransportPool;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the dependency probes on a schedule and serves their cached results, so a health request
+ * never waits on the database or the mail server.
+ * <p>
+ * Each probe runs on its own worker with {@code healthProbeTimeoutMs} to answer; a probe still
+ * running from an earlier round is reported as down rather than started again. Readiness is up
+ * when every probe listed in {@code readinessProbes} is up, and degraded when one of the other
+ * probes is down; a name there that matches no probe fails startup instead of being skipped. Liveness only asks whether the probe
+ * rounds are still happening, so a dependency outage never gets the node restarted.
+ */
+@Service
+@Slf4j
+public class HealthService implements IHealthService {
+
+    static final String DATABASE = "database";
+    static final String MAIL = "mail";
+    static final String JWT = "jwt";
+
+    private final DataSource dataSource;
+    private final SmtpTransportPool smtpTransportPool;
+    private final JwtUtils jwtUtils;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final long intervalMs;
+    private final long timeoutMs;
+    private final Set<String> readinessProbes;
+    private final Map<String, Callable<Map<String, Object>>> probes = new LinkedHashMap<>();
+    private final Map<String, Future<Map<String, Object>>> running = new LinkedHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService probeExecutor;
+
+    private volatile Map<String, ProbeResult> results = Collections.emptyMap();
+    private volatile Instant checkedAt;
+    private volatile long lastRoundNanos = System.nanoTime();
+    private volatile long poolWaitMillis;
+
+    public HealthService(DataSource dataSource, SmtpTransportPool smtpTransportPool, JwtUtils jwtUtils,
+                         ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                         @Value("${spring.app.healthProbeIntervalMs:10000}") long intervalMs,
+                         @Value("${spring.app.healthProbeTimeoutMs:2000}") long timeoutMs,
+                         @Value("${spring.app.readinessProbes:database,jwt}") List<String> readinessProbes) {
+        this.dataSource = dataSource;
+        this.smtpTransportPool = smtpTransportPool;
+        this.jwtUtils = jwtUtils;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.intervalMs = intervalMs;
+        this.timeoutMs = timeoutMs;
+        probes.put(DATABASE, this::probeDatabase);
+        probes.put(MAIL, this::probeMail);
+        probes.put(JWT, this::probeJwt);
+        List<String> unknown = readinessProbes.stream().filter(name -> !probes.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("Unknown readiness probes " + unknown + ", expected some of " + probes.keySet());
+        }
+        this.readinessProbes = Set.copyOf(readinessProbes);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "health-scheduler"));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.probeExecutor = Executors.newFixedThreadPool(probes.size(),
+                r -> daemon(r, "health-probe-" + threadCount.incrementAndGet()));
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::runProbes, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public HealthResponse liveness() {
+        long sinceLastRound = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRoundNanos);
+        HealthStatus status = sinceLastRound <= 3 * intervalMs + timeoutMs ? HealthStatus.UP : HealthStatus.DOWN;
+        return new HealthResponse(status, checkedAt, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Override
+    public HealthResponse readiness() {
+        Map<String, ProbeResult> current = results;
+        HealthStatus status = current.isEmpty() ? HealthStatus.UNKNOWN : HealthStatus.UP;
+        for (String name : readinessProbes) {
+            ProbeResult result = current.get(name);
+            if (!current.isEmpty() && (result == null || result.getStatus() != HealthStatus.UP)) {
+                status = HealthStatus.DOWN;
+            }
+        }
+        if (status == HealthStatus.UP && current.values().stream().anyMatch(result -> result.getStatus() != HealthStatus.UP)) {
+            status = HealthStatus.DEGRADED;
+        }
+        return new HealthResponse(status, checkedAt, current, saturation());
+    }
+
+    void runProbes() {
+        try {
+            for (Map.Entry<String, Callable<Map<String, Object>>> probe : probes.entrySet()) {
+                Future<Map<String, Object>> previous = running.get(probe.getKey());
+                if (previous == null || previous.isDone()) {
+                    running.put(probe.getKey(), probeExecutor.submit(probe.getValue()));
+                }
+            }
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            Map<String, ProbeResult> round = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<Map<String, Object>>> entry : running.entrySet()) {
+                round.put(entry.getKey(), await(entry.getValue(), deadline, start));
+            }
+            results = Collections.unmodifiableMap(round);
+            checkedAt = Instant.now();
+        } catch (RuntimeException e) {
+            log.error("Health probe round failed", e);
+        } finally {
+            lastRoundNanos = System.nanoTime();
+        }
+    }
+
+    private ProbeResult await(Future<Map<String, Object>> future, long deadline, long start) {
+        try {
+            Map<String, Object> details = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new ProbeResult(HealthStatus.UP, elapsedMillis(start), null, details);
+        } catch (TimeoutException e) {
+            // Left running: interrupting does not unblock socket reads, and the next round checks it again
+            return new ProbeResult(HealthStatus.DOWN, elapsedMillis(start), "Timed out after " + timeoutMs + " ms", null);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return new ProbeResult(HealthStatus.DOWN, elapsedMillis(start),
+                    cause.getClass().getSimpleName() + ": " + cause.getMessage(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ProbeResult(HealthStatus.UNKNOWN, elapsedMillis(start), "Interrupted", null);
+        }
+    }
+
+    private Map<String, Object> probeDatabase() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            poolWaitMillis = elapsedMillis(start);
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs));
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new SQLException("Connection failed validation");
+            }
+        }
+        return Map.of("poolWaitMillis", poolWaitMillis);
+    }
+
+    private Map<String, Object> probeMail() throws Exception {
+        return Map.of("allConnectionsBusy", !smtpTransportPool.probe());
+    }
+
+    private Map<String, Object> probeJwt() {
+        jwtUtils.verifyKeyMaterial();
+        return Collections.emptyMap();
+    }
+
+    private Map<String, Number> saturation() {
+        Map<String, Number> saturation = new LinkedHashMap<>();
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            saturation.put("dbActiveConnections", pool.getActiveConnections());
+            saturation.put("dbIdleConnections", pool.getIdleConnections());
+            saturation.put("dbThreadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        saturation.put("dbPoolWaitMillis", poolWaitMillis);
+        ReplicaLagMonitor replica = replicaLagMonitor.getIfAvailable();
+        if (replica != null) {
+            saturation.put("replicaLagMillis", replica.getLagMs());
+            saturation.put("replicaServingReads", replica.isReplicaAvailable() ? 1 : 0);
+        }
+        saturation.put("hashesInFlight", TimedPasswordEncoder.hashesInFlight());
+        saturation.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        saturation.put("smtpBusyConnections", smtpTransportPool.busyConnections());
+        return saturation;
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap the connection pool", e);
+        }
+        return null;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+}
@@ -2,13 +2,16 @@ package com.user.management.services.impl;
 
 import com.user.management.exceptions.UserMgmtException;
 import com.user.management.exceptions.ValidationException;
+import com.user.management.jfr.KeepOperationEvent;
 import com.user.management.models.Keep;
 import com.user.management.repositories.KeepRepository;
+import com.user.management.services.IAdminStatsService;
 import com.user.management.services.IKeepService;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import org.springframework.validation.annotation.Validated;
 
@@ -26,10 +29,12 @@ public class KeepService implements IKeepService {
 
     private final KeepRepository keepRepository;
     private final AuditLogService auditLogService;
+    private final IAdminStatsService adminStatsService;
 
-    public KeepService(KeepRepository keepRepository, AuditLogService auditLogService) {
+    public KeepService(KeepRepository keepRepository, AuditLogService auditLogService, IAdminStatsService adminStatsService) {
         this.keepRepository = keepRepository;
         this.auditLogService = auditLogService;
+        this.adminStatsService = adminStatsService;
     }
 
     /**
@@ -42,15 +47,24 @@ public class KeepService implements IKeepService {
     @Override
     public Keep createKeepForUser(String content, UserDetails userDetails) throws ValidationException {
         validateContentAndUser(content, userDetails);
+        KeepOperationEvent event = new KeepOperationEvent();
+        event.begin();
+        Exception failure = null;
+        Long keepId = null;
         try {
             String username = userDetails.getUsername();
             Keep savedKeep = keepRepository.save(new Keep(content, username));
+            keepId = savedKeep.getId();
             log.info("Note created successfully with ID: {}", savedKeep.getId());
             auditLogService.logKeepCreation(username, savedKeep);
+            adminStatsService.recordKeepCreated();
             return savedKeep;
         } catch (Exception e) {
+            failure = e;
             log.error("Error occurred while creating note: {}", e.getMessage(), e);
             throw new ServiceException("Failed to create note", e);
+        } finally {
+            commitKeepEvent(event, "CREATE", keepId, userDetails, content, failure);
         }
     }
 
@@ -65,6 +79,9 @@ public class KeepService implements IKeepService {
     @Override
     public Keep updateKeepForUser(Long noteId, String content, UserDetails userDetails) {
         validateNoteIdContentAndUser(noteId, content, userDetails);
+        KeepOperationEvent event = new KeepOperationEvent();
+        event.begin();
+        Exception failure = null;
         try {
             Keep existingKeep = getExistingKeep(noteId, userDetails);
             existingKeep.setContent(content);
@@ -73,8 +90,11 @@ public class KeepService implements IKeepService {
             auditLogService.logKeepUpdate(userDetails.getUsername(), updatedKeep);
             return updatedKeep;
         } catch (Exception e) {
+            failure = e;
             log.error("Error occurred while updating note: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update note", e);
+        } finally {
+            commitKeepEvent(event, "UPDATE", noteId, userDetails, content, failure);
         }
     }
 
@@ -88,14 +108,21 @@ public class KeepService implements IKeepService {
     @Override
     public void deleteKeepForUser(Long keepId, UserDetails userDetails) {
         validateKeepIdAndUser(keepId, userDetails);
+        KeepOperationEvent event = new KeepOperationEvent();
+        event.begin();
+        Exception failure = null;
         try {
             Keep existingKeep = getExistingKeep(keepId, userDetails);
             auditLogService.logKeepDeletion(userDetails.getUsername(), keepId);
             keepRepository.delete(existingKeep);
+            adminStatsService.recordKeepDeleted();
             log.info("Note deleted successfully with ID: {}", keepId);
         } catch (Exception e) {
+            failure = e;
             log.error("Error occurred while deleting note: {}", e.getMessage(), e);
             throw new ServiceException("Failed to delete note", e);
+        } finally {
+            commitKeepEvent(event, "DELETE", keepId, userDetails, null, failure);
         }
     }
 
@@ -107,6 +134,7 @@ public class KeepService implements IKeepService {
      * @exception ServiceException Thrown if failed to retrieve notes for user.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Keep> getAllKeepForUser(UserDetails userDetails) {
         if (ObjectUtils.isEmpty(userDetails.getUsername())) {
             throw createUserMgmtException(USER_DETAILS_MISSING);
@@ -185,4 +213,18 @@ public class KeepService implements IKeepService {
                     return new ServiceException("Note not found or unauthorized access");
                 });
     }
-}
\ No newline at end of file
+
+    private static void commitKeepEvent(KeepOperationEvent event, String operation, Long keepId,
+                                        UserDetails userDetails, String content, Exception failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.keepId = keepId != null ? keepId : -1;
+            event.username = userDetails.getUsername();
+            event.contentLength = content != null ? content.length() : 0;
+            event.outcome = failure == null ? "SUCCESS" : "FAILED";
+            event.failure = failure != null ? failure.getClass().getName() : null;
+            event.commit();
+        }
+    }
+}
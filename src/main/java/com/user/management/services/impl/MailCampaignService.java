@@ -0,0 +1,396 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.management.enums.EmailTemplate;
+import com.user.management.enums.MailCampaignState;
+import com.user.management.exceptions.UserMgmtException;
+import com.user.management.exceptions.ValidationException;
+import com.user.management.models.EmailOutbox;
+import com.user.management.models.MailCampaign;
+import com.user.management.repositories.EmailDeadLetterRepository;
+import com.user.management.repositories.EmailOutboxRepository;
+import com.user.management.repositories.MailCampaignRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.MailCampaignRequest;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.MailCampaignStatus;
+import com.user.management.response.UserSearchResult;
+import com.user.management.services.IMailCampaignService;
+import com.user.management.util.EmailTemplateRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.user.management.constants.Constants.MAIL_PRIORITY_CAMPAIGN;
+import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
+import static com.user.management.enums.ResponseCode.MAIL_CAMPAIGN_NOT_FOUND;
+import static com.user.management.util.UserManagementUtils.createUserMgmtException;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * Sends one template to a large set of users.
+ * <p>
+ * Recipients are read in id order, {@code campaignBatchSize} at a time, from either the campaign's
+ * rows in {@code mail_campaign_recipient} or a user filter. Each batch is rendered in parallel and
+ * written to the email outbox at campaign priority. The campaign's checkpoint (last user id) is
+ * advanced in the same transaction, so a campaign interrupted by a restart resumes after its last
+ * committed batch without duplicates. The checkpoint only moves from the value the runner last
+ * saw, so when several instances resume the same campaign, all but one lose a batch's race, roll
+ * it back and stop. A recipient whose mail cannot be rendered is skipped, and a
+ * batch that still cannot be written after {@code BATCH_ATTEMPTS} tries is skipped as a whole; both
+ * are counted on the campaign rather than failing it.
+ * <p>
+ * Campaigns for bulk account updates are prepared first and filled with the ids each update chunk
+ * actually changed, in that chunk's transaction, then launched once the update is done.
+ * Delivery, SMTP connection reuse, per-domain rate limits and retries are left to the outbox.
+ */
+@Service
+@Slf4j
+public class MailCampaignService implements IMailCampaignService {
+
+    private static final String USERNAME = "username";
+    private static final int BATCH_ATTEMPTS = 3;
+
+    private final MailCampaignRepository campaignRepository;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final UserRepository userRepository;
+    private final EmailTemplateRegistry templateRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService campaignRunner = Executors.newSingleThreadExecutor(r -> new Thread(r, "mail-campaign"));
+    private final ForkJoinPool renderPool;
+
+    @Value("${spring.app.campaignBatchSize:500}")
+    private int campaignBatchSize;
+
+    @Value("${spring.app.campaignRetryMs:1000}")
+    private long campaignRetryMs;
+
+    public MailCampaignService(MailCampaignRepository campaignRepository, EmailOutboxRepository outboxRepository,
+                               EmailDeadLetterRepository deadLetterRepository, UserRepository userRepository,
+                               EmailTemplateRegistry templateRegistry, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${spring.app.campaignRenderParallelism:0}") int renderParallelism) {
+        this.campaignRepository = campaignRepository;
+        this.outboxRepository = outboxRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.userRepository = userRepository;
+        this.templateRegistry = templateRegistry;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.renderPool = new ForkJoinPool(renderParallelism > 0 ? renderParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Records a campaign and starts queueing its mail in the background, throwing an appropriate exception if something went wrong.
+     *
+     * @param request The template, optional subject, and either user ids or a user filter.
+     * @return The status of the new campaign.
+     * @throws ValidationException Thrown if the template needs more than a username or no recipients are given.
+     * @throws ServiceException    Thrown if the campaign could not be recorded.
+     */
+    @Override
+    public MailCampaignStatus startCampaign(MailCampaignRequest request) {
+        if (ObjectUtils.isEmpty(request) || ObjectUtils.isEmpty(request.getTemplate())
+                || !List.of(USERNAME).containsAll(request.getTemplate().requiredKeys())
+                || (ObjectUtils.isEmpty(request.getUserIds()) && request.getFilter() == null)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        try {
+            List<Long> userIds = ObjectUtils.isEmpty(request.getUserIds()) ? null : request.getUserIds().stream()
+                    .filter(Objects::nonNull).distinct().sorted().toList();
+            String criteria = userIds == null ? objectMapper.writeValueAsString(request.getFilter()) : null;
+            MailCampaign campaign = transactionTemplate.execute(status -> {
+                MailCampaign saved = campaignRepository.save(MailCampaign.builder()
+                        .template(request.getTemplate())
+                        .subject(StringUtils.hasText(request.getSubject()) ? request.getSubject() : null)
+                        .criteria(criteria)
+                        .state(MailCampaignState.RUNNING)
+                        .startedAt(Instant.now())
+                        .build());
+                if (userIds != null) {
+                    addRecipients(saved.getId(), userIds);
+                }
+                return saved;
+            });
+            campaignRunner.submit(() -> run(campaign.getId()));
+            log.info("Mail campaign {} started with template {}", campaign.getId(), campaign.getTemplate());
+            return toStatus(campaign);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Error occurred while starting mail campaign: {}", e.getMessage(), e);
+            throw new ServiceException("Failed to start mail campaign", e);
+        }
+    }
+
+    /**
+     * Records a campaign that recipients are still being added to; it sends nothing until launched.
+     *
+     * @param template The template to send; it may only need a username.
+     * @return The id of the new campaign.
+     * @throws ValidationException Thrown if the template needs more than a username.
+     */
+    @Override
+    public Long prepareCampaign(EmailTemplate template) {
+        if (ObjectUtils.isEmpty(template) || !List.of(USERNAME).containsAll(template.requiredKeys())) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        return campaignRepository.save(MailCampaign.builder()
+                .template(template)
+                .state(MailCampaignState.PREPARING)
+                .startedAt(Instant.now())
+                .build()).getId();
+    }
+
+    /**
+     * Adds users to a campaign's recipients in the caller's transaction, if it has one.
+     *
+     * @param campaignId The campaign id.
+     * @param userIds    The users to add; unknown ids and ids already added are ignored.
+     */
+    @Override
+    public void addRecipients(Long campaignId, Collection<Long> userIds) {
+        if (ObjectUtils.isEmpty(campaignId) || ObjectUtils.isEmpty(userIds)) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        for (int from = 0; from < ids.size(); from += campaignBatchSize) {
+            campaignRepository.addRecipients(campaignId, ids.subList(from, Math.min(from + campaignBatchSize, ids.size())));
+        }
+    }
+
+    /**
+     * Starts queueing mail for a prepared campaign.
+     *
+     * @param campaignId The campaign id.
+     */
+    @Override
+    public void launchCampaign(Long campaignId) {
+        campaignRepository.findById(campaignId).ifPresent(campaign -> {
+            if (campaign.getState() == MailCampaignState.PREPARING) {
+                campaign.setState(MailCampaignState.RUNNING);
+                campaignRepository.save(campaign);
+            }
+            campaignRunner.submit(() -> run(campaignId));
+        });
+    }
+
+    /**
+     * Fetches the progress and throughput of a campaign, throwing an appropriate exception if something went wrong.
+     *
+     * @param campaignId The campaign id.
+     * @return The campaign status.
+     * @throws UserMgmtException Thrown if the campaign is unknown.
+     */
+    @Override
+    public MailCampaignStatus getCampaignStatus(Long campaignId) {
+        if (ObjectUtils.isEmpty(campaignId)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        return campaignRepository.findById(campaignId)
+                .map(this::toStatus)
+                .orElseThrow(() -> createUserMgmtException(MAIL_CAMPAIGN_NOT_FOUND));
+    }
+
+    /**
+     * Picks up campaigns that were still queueing when the application last stopped. A campaign
+     * still being prepared lost the bulk update that was filling it, so it is launched for the
+     * recipients that update committed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeCampaigns() {
+        for (MailCampaign campaign : campaignRepository.findByStateIn(List.of(MailCampaignState.PREPARING, MailCampaignState.RUNNING))) {
+            log.info("Resuming mail campaign {} after user id {}", campaign.getId(), campaign.getLastUserId());
+            launchCampaign(campaign.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        campaignRunner.shutdownNow();
+        renderPool.shutdownNow();
+    }
+
+    private void run(Long campaignId) {
+        MailCampaign campaign = campaignRepository.findById(campaignId).orElse(null);
+        if (campaign == null || campaign.getState() != MailCampaignState.RUNNING) {
+            return;
+        }
+        long lastUserId = campaign.getLastUserId();
+        long queued = 0;
+        String batchError = null;
+        long started = System.nanoTime();
+        try {
+            UserFilterRequest filter = campaign.getCriteria() == null ? null
+                    : objectMapper.readValue(campaign.getCriteria(), UserFilterRequest.class);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                List<UserSearchResult> recipients;
+                long recipientCount;
+                long checkpoint;
+                if (filter == null) {
+                    List<Long> ids = campaignRepository.findRecipientIds(campaignId, lastUserId, campaignBatchSize);
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    recipients = userRepository.findSearchEntriesByIds(ids);
+                    recipientCount = ids.size();
+                    checkpoint = ids.get(ids.size() - 1);
+                } else {
+                    recipients = userRepository.findRecipients(filter, lastUserId, campaignBatchSize);
+                    if (recipients.isEmpty()) {
+                        break;
+                    }
+                    recipientCount = recipients.size();
+                    checkpoint = recipients.get(recipients.size() - 1).getId();
+                }
+
+                List<EmailOutbox> batch = render(campaign, recipients);
+                String error = queueBatch(campaignId, lastUserId, checkpoint, batch, recipientCount);
+                if (error == null) {
+                    queued += batch.size();
+                } else {
+                    batchError = error;
+                }
+                lastUserId = checkpoint;
+                double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+                log.info("Mail campaign {} queued {} messages ({} msg/s), checkpoint user id {}",
+                        campaignId, queued, Math.round(queued / seconds), checkpoint);
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                finish(campaignId, MailCampaignState.COMPLETED, batchError);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Mail campaign {} paused at user id {}; it resumes on next start", campaignId, lastUserId);
+        } catch (CheckpointMovedException e) {
+            log.info("Mail campaign {} moved past user id {} on another runner; stopping this one", campaignId, lastUserId);
+        } catch (Exception e) {
+            log.error("Mail campaign {} failed at user id {}: {}", campaignId, lastUserId, e.getMessage(), e);
+            finish(campaignId, MailCampaignState.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one batch and advances the checkpoint past it, retrying with a growing pause. If every
+     * attempt fails, the checkpoint is advanced with the whole batch counted as skipped, so one bad
+     * batch does not stop the campaign. The checkpoint is moved first, so a runner that finds it
+     * moved writes nothing.
+     *
+     * @return null if the batch was queued, otherwise the error that made it be skipped
+     * @throws CheckpointMovedException if another runner advanced the checkpoint past {@code lastUserId}
+     */
+    private String queueBatch(Long campaignId, long lastUserId, long checkpoint, List<EmailOutbox> batch,
+                              long recipientCount) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    advanceCheckpoint(campaignId, lastUserId, checkpoint, batch.size(), recipientCount - batch.size());
+                    outboxRepository.saveAll(batch);
+                });
+                return null;
+            } catch (CheckpointMovedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= BATCH_ATTEMPTS) {
+                    log.error("Mail campaign {} skipped {} recipients up to user id {} after {} attempts: {}",
+                            campaignId, recipientCount, checkpoint, attempt, e.getMessage(), e);
+                    transactionTemplate.executeWithoutResult(status ->
+                            advanceCheckpoint(campaignId, lastUserId, checkpoint, 0, recipientCount));
+                    return e.getMessage();
+                }
+                log.warn("Mail campaign {} batch up to user id {} failed (attempt {}), retrying: {}",
+                        campaignId, checkpoint, attempt, e.getMessage());
+                Thread.sleep(campaignRetryMs * attempt);
+            }
+        }
+    }
+
+    /**
+     * Renders one message per recipient with an email. A recipient whose template fails to render
+     * is left out of the batch and counted as skipped with it.
+     */
+    private List<EmailOutbox> render(MailCampaign campaign, List<UserSearchResult> recipients)
+            throws ExecutionException, InterruptedException {
+        EmailTemplate template = campaign.getTemplate();
+        String subject = campaign.getSubject() != null ? campaign.getSubject() : template.subject();
+        Instant now = Instant.now();
+        return renderPool.submit(() -> recipients.parallelStream()
+                .filter(recipient -> StringUtils.hasText(recipient.getEmail()))
+                .map(recipient -> {
+                    try {
+                        return EmailOutbox.builder()
+                                .recipient(recipient.getEmail())
+                                .subject(subject)
+                                .body(templateRegistry.render(template, Map.of(USERNAME, recipient.getUsername())))
+                                .attempts(0)
+                                .priority(MAIL_PRIORITY_CAMPAIGN)
+                                .campaignId(campaign.getId())
+                                .nextAttemptAt(now)
+                                .createdAt(now)
+                                .build();
+                    } catch (RuntimeException e) {
+                        log.warn("Mail campaign {} skipped user {}: {}", campaign.getId(), recipient.getId(), e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList()).get();
+    }
+
+    private void advanceCheckpoint(Long campaignId, long lastUserId, long checkpoint, long queued, long skipped) {
+        if (campaignRepository.advanceCheckpoint(campaignId, lastUserId, checkpoint, queued, skipped) == 0) {
+            throw new CheckpointMovedException();
+        }
+    }
+
+    private void finish(Long campaignId, MailCampaignState state, String error) {
+        campaignRepository.findById(campaignId).ifPresent(campaign -> {
+            campaign.setState(state);
+            campaign.setFinishedAt(Instant.now());
+            campaign.setLastError(error == null || error.length() <= 1000 ? error : error.substring(0, 1000));
+            campaignRepository.save(campaign);
+        });
+    }
+
+    private MailCampaignStatus toStatus(MailCampaign campaign) {
+        long pending = outboxRepository.countByCampaignIdAndSentAtIsNull(campaign.getId());
+        long deadLettered = deadLetterRepository.countByCampaignId(campaign.getId());
+        long delivered = Math.max(0, campaign.getQueuedCount() - pending - deadLettered);
+        Instant queueEnd = campaign.getFinishedAt() != null ? campaign.getFinishedAt() : Instant.now();
+        double queueSeconds = Math.max(Duration.between(campaign.getStartedAt(), queueEnd).toMillis() / 1000.0, 0.001);
+        double sendSeconds = Math.max(Duration.between(campaign.getStartedAt(), Instant.now()).toMillis() / 1000.0, 0.001);
+        return new MailCampaignStatus(campaign.getId(), campaign.getTemplate(), campaign.getState(),
+                campaign.getQueuedCount(), campaign.getSkippedCount(), pending, delivered, deadLettered,
+                campaign.getQueuedCount() / queueSeconds, delivered / sendSeconds,
+                campaign.getLastUserId(), campaign.getLastError(), campaign.getStartedAt(), campaign.getFinishedAt());
+    }
+
+    /**
+     * Thrown inside a batch's transaction, rolling it back, when the checkpoint is no longer where
+     * this runner left it.
+     */
+    private static final class CheckpointMovedException extends RuntimeException {
+    }
+}
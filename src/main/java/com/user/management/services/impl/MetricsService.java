@@ -0,0 +1,102 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.MetricFamily;
+import com.user.management.services.IMetricsService;
+import com.user.management.util.LatencyHistogram;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of latency histograms and counters, rendered in the Prometheus text exposition format.
+ * <p>
+ * Callers look a histogram up once and keep the reference, so recording never touches the
+ * registry maps. Labels are passed preformatted (for example {@code handler="AuthController.signIn"}).
+ */
+@Service
+public class MetricsService implements IMetricsService {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<MetricFamily, ConcurrentHashMap<String, LatencyHistogram>> histograms = new EnumMap<>(MetricFamily.class);
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public MetricsService() {
+        for (MetricFamily family : MetricFamily.values()) {
+            histograms.put(family, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public LatencyHistogram histogram(MetricFamily family, String labels) {
+        return histograms.get(family).computeIfAbsent(labels, key -> new LatencyHistogram());
+    }
+
+    @Override
+    public void counter(String name, String help, LongSupplier value) {
+        counters.put(name, new Counter(help, value));
+    }
+
+    /**
+     * Renders every histogram as a Prometheus summary with its error counter, then every counter. Quantiles cover the
+     * histogram's sliding window; {@code _sum} and {@code _count} are cumulative.
+     *
+     * @return the metrics in text exposition format 0.0.4
+     */
+    @Override
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(8192);
+        for (MetricFamily family : MetricFamily.values()) {
+            Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+            histograms.get(family).forEach((labels, histogram) -> snapshots.put(labels, histogram.snapshot(QUANTILES)));
+            if (snapshots.isEmpty()) {
+                continue;
+            }
+            String duration = family.prefix() + "_duration_seconds";
+            sb.append("# HELP ").append(duration).append(' ').append(family.help()).append('\n');
+            sb.append("# TYPE ").append(duration).append(" summary\n");
+            snapshots.forEach((labels, snapshot) -> {
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    sb.append(duration).append('{').append(labels);
+                    if (!labels.isEmpty()) {
+                        sb.append(',');
+                    }
+                    sb.append("quantile=\"").append(QUANTILES[i]).append("\"} ")
+                            .append(seconds(snapshot.quantileMicros()[i])).append('\n');
+                }
+                appendSample(sb, duration + "_sum", labels, seconds(snapshot.sumMicros()));
+                appendSample(sb, duration + "_count", labels, Long.toString(snapshot.count()));
+            });
+
+            String errors = family.prefix() + "_errors_total";
+            sb.append("# HELP ").append(errors).append(" Calls that ended with an exception.\n");
+            sb.append("# TYPE ").append(errors).append(" counter\n");
+            snapshots.forEach((labels, snapshot) -> appendSample(sb, errors, labels, Long.toString(snapshot.errors())));
+        }
+        new TreeMap<>(counters).forEach((name, counter) -> {
+            sb.append("# HELP ").append(name).append(' ').append(counter.help()).append('\n');
+            sb.append("# TYPE ").append(name).append(" counter\n");
+            appendSample(sb, name, "", Long.toString(counter.value().getAsLong()));
+        });
+        return sb.toString();
+    }
+
+    private static void appendSample(StringBuilder sb, String name, String labels, String value) {
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+
+    private record Counter(String help, LongSupplier value) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.user.management.services.impl;
+
+import com.user.management.exceptions.UserMgmtException;
+import com.user.management.exceptions.ValidationException;
+import com.user.management.services.IMetricsService;
+import com.user.management.services.IPasswordResetRequestService;
+import com.user.management.services.IUserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * Front door for forgot-password requests.
+ * <p>
+ * The first request for an address within {@code resetRequestWindowMs} is handed to a small
+ * background pool that issues the token and queues the email; repeats inside the window are dropped
+ * after a single map lookup. The caller gets the same answer in the same time whether or not the
+ * address belongs to an account, so the endpoint cannot be used to discover users. Requests that
+ * reach another instance, or arrive after a restart, are still coalesced by
+ * {@code UserService.generatePasswordResetToken}, which skips users holding a token issued within
+ * the same window. Requests that find the queue full are dropped and counted in
+ * {@code password_reset_requests_dropped_total}; the address is released so that a retry is accepted.
+ */
+@Service
+@Slf4j
+public class PasswordResetRequestService implements IPasswordResetRequestService {
+
+    private static final int MAX_TRACKED_ADDRESSES = 100_000;
+    private static final int MAX_QUEUED_REQUESTS = 10_000;
+
+    private final IUserService userService;
+    private final ConcurrentHashMap<String, Long> recentRequests = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor resetExecutor;
+    private final LongAdder droppedRequests = new LongAdder();
+
+    @Value("${spring.app.resetRequestWindowMs:300000}")
+    private long resetRequestWindowMs;
+
+    public PasswordResetRequestService(IUserService userService, IMetricsService metricsService) {
+        this.userService = userService;
+        metricsService.counter("password_reset_requests_dropped_total",
+                "Forgot-password requests dropped because the reset queue was full.", droppedRequests::sum);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.resetExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS),
+                r -> new Thread(r, "password-reset-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Accepts a forgot-password request, throwing an appropriate exception if something went wrong.
+     *
+     * @param email The address the user entered.
+     * @throws ValidationException Thrown if the address is blank.
+     */
+    @Override
+    public void requestReset(String email) {
+        if (!StringUtils.hasText(email)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        String address = email.trim();
+        String key = address.toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        boolean[] accepted = {false};
+        recentRequests.compute(key, (k, until) -> {
+            if (until != null && until > now) {
+                return until;
+            }
+            accepted[0] = true;
+            return now + resetRequestWindowMs;
+        });
+        if (!accepted[0]) {
+            log.debug("Coalesced repeated password reset request");
+            return;
+        }
+        if (recentRequests.size() > MAX_TRACKED_ADDRESSES) {
+            purgeExpired();
+        }
+        try {
+            resetExecutor.execute(() -> issue(address));
+        } catch (RuntimeException e) {
+            recentRequests.remove(key);
+            droppedRequests.increment();
+            log.warn("Password reset queue is full, dropping request");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.resetRequestWindowMs:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        recentRequests.values().removeIf(until -> until <= now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resetExecutor.shutdown();
+    }
+
+    private void issue(String email) {
+        try {
+            userService.generatePasswordResetToken(email);
+        } catch (RuntimeException e) {
+            if (hasCause(e, UserMgmtException.class)) {
+                log.info("Password reset request not fulfilled: {}", e.getMessage());
+            } else {
+                log.error("Error occurred while issuing password reset token: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (type.isInstance(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,293 @@
+package com.user.management.services.impl;
+
+import com.user.management.config.BoundedRegionStorage;
+import com.user.management.config.InProcessRegionFactory;
+import com.user.management.response.QueryStatsResponse;
+import com.user.management.response.QueryStatsResponse.CacheRegion;
+import com.user.management.response.QueryStatsResponse.EndpointQueries;
+import com.user.management.response.QueryStatsResponse.NPlusOneSuspect;
+import com.user.management.response.QueryStatsResponse.SlowQuery;
+import com.user.management.services.IQueryStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the JDBC statements issued while serving each request and aggregates them per endpoint.
+ * <p>
+ * Statements are reported by the Hibernate statement inspector on the thread that runs them, so
+ * the per-request counts live in a thread local between {@link #beginRequest()} and
+ * {@link #endRequest(String)}. A statement shape that repeats at least {@code nPlusOneThreshold}
+ * times within one request is recorded as an N+1 suspect. Slow queries reported by Hibernate are
+ * kept in a bounded ring, with literals replaced by placeholders so no bind values are retained.
+ * Each second-level cache region is reported with its hits, which are statements not issued, and
+ * an estimate of the heap it holds.
+ */
+@Slf4j
+@Service
+public class QueryStatsService implements IQueryStatsService {
+
+    private static final int MAX_ENDPOINTS = 512;
+    private static final int MAX_SUSPECTS = 256;
+    private static final int MAX_TRACKED_SHAPES = 64;
+    private static final String OTHER_ENDPOINT = "other";
+
+    private static final Pattern DRIVER_PREFIX = Pattern.compile("^[\\w.$]+Statement[\\w$]*:\\s*");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.?])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<RequestQueries> CONTEXT = ThreadLocal.withInitial(RequestQueries::new);
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<InProcessRegionFactory> regionFactory;
+    private final int nPlusOneThreshold;
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+    private final AtomicLong slowQueryCursor = new AtomicLong();
+    private final ConcurrentHashMap<String, EndpointCounter> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Suspect> suspects = new ConcurrentHashMap<>();
+
+    public QueryStatsService(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                             ObjectProvider<InProcessRegionFactory> regionFactory,
+                             @Value("${spring.app.nPlusOneThreshold:3}") int nPlusOneThreshold,
+                             @Value("${spring.app.slowQueryRingSize:100}") int slowQueryRingSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.regionFactory = regionFactory;
+        this.nPlusOneThreshold = Math.max(2, nPlusOneThreshold);
+        this.slowQueries = new AtomicReferenceArray<>(Math.max(1, slowQueryRingSize));
+    }
+
+    @Override
+    public void beginRequest() {
+        RequestQueries context = CONTEXT.get();
+        context.active = true;
+        context.statements = 0;
+    }
+
+    /**
+     * Folds the statements counted since {@link #beginRequest()} into the endpoint's totals.
+     *
+     * @param endpoint the method and path template of the request
+     */
+    @Override
+    public void endRequest(String endpoint) {
+        RequestQueries context = CONTEXT.get();
+        if (!context.active) {
+            return;
+        }
+        context.active = false;
+        String key = endpoint;
+        EndpointCounter counter = endpoints.get(key);
+        if (counter == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS) {
+                key = OTHER_ENDPOINT;
+            }
+            counter = endpoints.computeIfAbsent(key, k -> new EndpointCounter());
+        }
+        counter.requests.increment();
+        counter.statements.add(context.statements);
+        counter.maxStatements.accumulate(context.statements);
+
+        for (Map.Entry<String, int[]> shape : context.shapes.entrySet()) {
+            int repeats = shape.getValue()[0];
+            if (repeats >= nPlusOneThreshold) {
+                recordSuspect(key, shape.getKey(), repeats);
+            }
+        }
+        if (context.shapes.size() > MAX_TRACKED_SHAPES) {
+            context.shapes = new HashMap<>();
+        } else {
+            context.shapes.clear();
+        }
+        if (context.slowQueries != null) {
+            for (SlowQuery slowQuery : context.slowQueries) {
+                slowQuery.setEndpoint(key);
+                publish(slowQuery);
+            }
+            context.slowQueries = null;
+        }
+    }
+
+    @Override
+    public void onStatement(String sql) {
+        RequestQueries context = CONTEXT.get();
+        if (!context.active) {
+            return;
+        }
+        context.statements++;
+        context.shapes.computeIfAbsent(sql, k -> new int[1])[0]++;
+    }
+
+    /**
+     * Records a statement Hibernate reported as slow. Within a request the entry is held back
+     * until the request ends so it can be attributed to the endpoint.
+     */
+    @Override
+    public void onSlowQuery(String sql, long millis) {
+        String shape = shapeOf(sql);
+        SlowQuery slowQuery = new SlowQuery(shape, parameterCount(shape), millis, null, Instant.now());
+        RequestQueries context = CONTEXT.get();
+        if (context.active) {
+            if (context.slowQueries == null) {
+                context.slowQueries = new ArrayList<>(2);
+            }
+            context.slowQueries.add(slowQuery);
+        } else {
+            publish(slowQuery);
+        }
+    }
+
+    @Override
+    public QueryStatsResponse getStats() {
+        List<EndpointQueries> endpointQueries = new ArrayList<>(endpoints.size());
+        endpoints.forEach((endpoint, counter) -> endpointQueries.add(new EndpointQueries(endpoint,
+                counter.requests.sum(), counter.statements.sum(), counter.maxStatements.get())));
+        endpointQueries.sort(Comparator.comparingLong(EndpointQueries::getMaxStatements).reversed()
+                .thenComparing(EndpointQueries::getEndpoint));
+
+        List<NPlusOneSuspect> nPlusOneSuspects = new ArrayList<>(suspects.size());
+        suspects.forEach((key, suspect) -> nPlusOneSuspects.add(new NPlusOneSuspect(suspect.endpoint,
+                suspect.sql, suspect.requests.sum(), suspect.maxRepeats.get(), suspect.lastSeen)));
+        nPlusOneSuspects.sort(Comparator.comparingLong(NPlusOneSuspect::getMaxRepeats).reversed());
+
+        List<SlowQuery> recentSlowQueries = new ArrayList<>();
+        long cursor = slowQueryCursor.get();
+        int size = slowQueries.length();
+        for (long i = cursor - 1; i >= 0 && i >= cursor - size; i--) {
+            SlowQuery slowQuery = slowQueries.get((int) (i % size));
+            if (slowQuery != null) {
+                recentSlowQueries.add(slowQuery);
+            }
+        }
+
+        Statistics statistics = statistics();
+        List<CacheRegion> cacheRegions = cacheRegions(statistics);
+        if (statistics == null) {
+            return new QueryStatsResponse(false, 0, 0, 0, null, 0, 0, 0, 0, 0,
+                    endpointQueries, nPlusOneSuspects, recentSlowQueries, cacheRegions);
+        }
+        return new QueryStatsResponse(statistics.isStatisticsEnabled(), statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(), statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(), statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(), statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(), statistics.getTransactionCount(),
+                endpointQueries, nPlusOneSuspects, recentSlowQueries, cacheRegions);
+    }
+
+    /**
+     * Reduces a statement to its shape: driver prefixes are dropped, string and numeric literals
+     * become placeholders and IN lists collapse, so statements that differ only in their bind
+     * values compare equal.
+     */
+    static String shapeOf(String sql) {
+        String shape = DRIVER_PREFIX.matcher(sql).replaceFirst("");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static int parameterCount(String shape) {
+        int count = 0;
+        for (int i = 0; i < shape.length(); i++) {
+            if (shape.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void recordSuspect(String endpoint, String sql, int repeats) {
+        String key = endpoint + '\n' + sql;
+        Suspect suspect = suspects.get(key);
+        if (suspect == null) {
+            if (suspects.size() >= MAX_SUSPECTS) {
+                return;
+            }
+            suspect = suspects.computeIfAbsent(key, k -> {
+                log.warn("Possible N+1 on {}: statement repeated {} times: {}", endpoint, repeats, sql);
+                return new Suspect(endpoint, shapeOf(sql));
+            });
+        }
+        suspect.requests.increment();
+        suspect.maxRepeats.accumulate(repeats);
+        suspect.lastSeen = Instant.now();
+    }
+
+    private void publish(SlowQuery slowQuery) {
+        long slot = slowQueryCursor.getAndIncrement();
+        slowQueries.set((int) (slot % slowQueries.length()), slowQuery);
+    }
+
+    private List<CacheRegion> cacheRegions(Statistics statistics) {
+        InProcessRegionFactory factory = regionFactory.getIfAvailable();
+        if (factory == null) {
+            return List.of();
+        }
+        List<CacheRegion> cacheRegions = new ArrayList<>();
+        for (Map.Entry<String, BoundedRegionStorage> region : factory.getRegions().entrySet()) {
+            CacheRegionStatistics regionStatistics = statistics == null ? null
+                    : statistics.getCacheRegionStatistics(region.getKey());
+            BoundedRegionStorage storage = region.getValue();
+            cacheRegions.add(new CacheRegion(region.getKey(),
+                    regionStatistics == null ? 0 : regionStatistics.getHitCount(),
+                    regionStatistics == null ? 0 : regionStatistics.getMissCount(),
+                    regionStatistics == null ? 0 : regionStatistics.getPutCount(),
+                    storage.size(), storage.estimatedBytes()));
+        }
+        return cacheRegions;
+    }
+
+    private Statistics statistics() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return null;
+        }
+        return factory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static final class RequestQueries {
+        private boolean active;
+        private int statements;
+        private HashMap<String, int[]> shapes = new HashMap<>();
+        private List<SlowQuery> slowQueries;
+    }
+
+    private static final class EndpointCounter {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+    }
+
+    private static final class Suspect {
+        private final String endpoint;
+        private final String sql;
+        private final LongAdder requests = new LongAdder();
+        private final LongAccumulator maxRepeats = new LongAccumulator(Math::max, 0);
+        private volatile Instant lastSeen;
+
+        private Suspect(String endpoint, String sql) {
+            this.endpoint = endpoint;
+            this.sql = sql;
+        }
+    }
+}
@@ -3,24 +3,69 @@ package com.user.management.services.impl;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 import com.warrenstrange.googleauth.GoogleAuthenticatorQRGenerator;
+import org.apache.commons.codec.binary.Base32;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static com.user.management.enums.ResponseCode.TWO_FA_SECRET_EMPTY;
 import static com.user.management.util.UserManagementUtils.createUserMgmtException;
 
+/**
+ * RFC 6238 codes as produced by Google Authenticator (HMAC-SHA1, 30 second steps, 6 digits).
+ * <p>
+ * Decoded secrets are cached per user so that verification after the first call needs neither a
+ * database read nor a Base32 decode. Each user also has the last accepted time step recorded, and a
+ * code is only accepted for a later step, so a code cannot be used twice.
+ */
 @Service
 public class TotpService implements com.user.management.services.ITotpService {
 
+    private static final long TIME_STEP_MS = 30_000;
+    private static final int CODE_MODULUS = 1_000_000;
+    private static final String HMAC_ALGORITHM = "HmacSHA1";
+
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    });
+
     private final GoogleAuthenticator gAuth;
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, CachedSecret> secrets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lastAcceptedSteps = new ConcurrentHashMap<>();
+
+    @Value("${spring.app.totpWindowSteps:1}")
+    private int windowSteps = 1;
+
+    @Value("${spring.app.totpCacheTtlMs:600000}")
+    private long cacheTtlMs = 600_000;
+
+    @Value("${spring.app.totpCacheMaxEntries:100000}")
+    private int cacheMaxEntries = 100_000;
 
     public TotpService() {
-        this.gAuth = new GoogleAuthenticator();
+        this(new GoogleAuthenticator());
     }
     public TotpService(GoogleAuthenticator gAuth) {
+        this(gAuth, Clock.systemUTC());
+    }
+    TotpService(GoogleAuthenticator gAuth, Clock clock) {
         this.gAuth = gAuth;
+        this.clock = clock;
     }
 
     @Override
@@ -41,6 +86,121 @@ public class TotpService implements com.user.management.services.ITotpService {
         if (Strings.isEmpty(secret)) {
           throw createUserMgmtException(TWO_FA_SECRET_EMPTY);
         }
-        return gAuth.authorize(secret, code);
+        return matchingStep(decode(secret), code, currentStep()) != null;
+    }
+
+    /**
+     * Verifies a code for a user, loading the secret through {@code secretLoader} only when it is not
+     * cached. A code is rejected if a code for the same or a later time step was already accepted.
+     *
+     * @param userId       The user the code belongs to.
+     * @param code         The code entered by the user.
+     * @param secretLoader Supplies the user's Base32 secret on a cache miss.
+     * @return {@code true} if the code is valid and has not been used before.
+     */
+    @Override
+    public boolean verifyCode(Long userId, int code, Supplier<String> secretLoader) {
+        long now = clock.millis();
+        CachedSecret cached = secrets.get(userId);
+        if (cached == null || now - cached.loadedAt >= cacheTtlMs) {
+            String secret = secretLoader.get();
+            if (Strings.isEmpty(secret)) {
+                throw createUserMgmtException(TWO_FA_SECRET_EMPTY);
+            }
+            cached = new CachedSecret(decode(secret), now);
+            secrets.put(userId, cached);
+            if (secrets.size() > cacheMaxEntries) {
+                evictExpired();
+            }
+        }
+        cached.lastUsedAt = now;
+
+        Long step = matchingStep(cached.key, code, now / TIME_STEP_MS);
+        if (step == null) {
+            return false;
+        }
+        boolean[] accepted = {false};
+        lastAcceptedSteps.compute(userId, (id, last) -> {
+            if (last != null && last >= step) {
+                return last;
+            }
+            accepted[0] = true;
+            return step;
+        });
+        return accepted[0];
+    }
+
+    @Override
+    public void evictSecret(Long userId) {
+        secrets.remove(userId);
+    }
+
+    /**
+     * Drops secrets that have not been used within the cache TTL and replay markers for steps that
+     * have left the verification window. If the cache is still over its limit, all secrets are dropped
+     * and reloaded on demand; replay markers are kept so that this cannot reopen a used code.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.totpCacheTtlMs:600000}")
+    public void evictExpired() {
+        long now = clock.millis();
+        secrets.values().removeIf(cached -> now - cached.lastUsedAt >= cacheTtlMs);
+        if (secrets.size() > cacheMaxEntries) {
+            secrets.clear();
+        }
+        long oldestUsableStep = now / TIME_STEP_MS - windowSteps;
+        lastAcceptedSteps.values().removeIf(step -> step < oldestUsableStep);
+    }
+
+    private long currentStep() {
+        return clock.millis() / TIME_STEP_MS;
+    }
+
+    private Long matchingStep(SecretKeySpec key, int code, long currentStep) {
+        if (code < 0 || code >= CODE_MODULUS) {
+            return null;
+        }
+        for (long step = currentStep - windowSteps; step <= currentStep + windowSteps; step++) {
+            if (generateCode(key, step) == code) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    static int generateCode(SecretKeySpec key, long step) {
+        byte[] counter = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            counter[i] = (byte) step;
+            step >>>= 8;
+        }
+        Mac mac = MACS.get();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid TOTP key", e);
+        }
+        byte[] hash = mac.doFinal(counter);
+        int offset = hash[hash.length - 1] & 0xf;
+        int binary = ((hash[offset] & 0x7f) << 24)
+                | ((hash[offset + 1] & 0xff) << 16)
+                | ((hash[offset + 2] & 0xff) << 8)
+                | (hash[offset + 3] & 0xff);
+        return binary % CODE_MODULUS;
+    }
+
+    static SecretKeySpec decode(String secret) {
+        return new SecretKeySpec(new Base32().decode(secret.toUpperCase(Locale.ROOT)), HMAC_ALGORITHM);
+    }
+
+    private static final class CachedSecret {
+        private final SecretKeySpec key;
+        private final long loadedAt;
+        private volatile long lastUsedAt;
+
+        private CachedSecret(SecretKeySpec key, long loadedAt) {
+            this.key = key;
+            this.loadedAt = loadedAt;
+            this.lastUsedAt = loadedAt;
+        }
     }
 }
@@ -0,0 +1,145 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.management.config.ReadFromReplica;
+import com.user.management.enums.ExportFormat;
+import com.user.management.exceptions.ValidationException;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.UserSummaryResponse;
+import com.user.management.services.IUserExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ObjectUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * Writes user extracts straight from a database cursor to the response.
+ * <p>
+ * Rows are read as {@link UserSummaryResponse} projections, so passwords and TOTP secrets are never
+ * loaded, and each row is written and dropped before the next is fetched. Heap use therefore depends
+ * on the fetch size, not on the number of users.
+ */
+@Service
+@Slf4j
+public class UserExportService implements IUserExportService {
+
+    private static final String CSV_HEADER = "id,username,email,role,enabled,accountNonLocked,accountNonExpired,"
+            + "credentialsNonExpired,twoFactorEnabled,signUpMethod,createdAt";
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.app.exportFetchSize:1000}")
+    private int exportFetchSize;
+
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams all users matching the filter to the output, throwing an appropriate exception if something went wrong.
+     *
+     * @param filter Role, status flag, sign-up method and creation date filters; sort options are ignored.
+     * @param format CSV or NDJSON.
+     * @param gzip   Whether to gzip the output.
+     * @param out    The stream to write to; it is flushed but not closed.
+     * @throws ValidationException Thrown if the format or output is missing.
+     * @throws ServiceException    Thrown if writing the export fails.
+     */
+    @Override
+    @ReadFromReplica
+    @Transactional(readOnly = true)
+    public void exportUsers(UserFilterRequest filter, ExportFormat format, boolean gzip, OutputStream out) {
+        if (ObjectUtils.isEmpty(format) || ObjectUtils.isEmpty(out)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        UserFilterRequest criteria = filter == null ? new UserFilterRequest() : filter;
+        long rows = 0;
+        try {
+            GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipStream : out, StandardCharsets.UTF_8), 64 * 1024);
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            try (Stream<UserSummaryResponse> users = userRepository.streamUserSummaries(criteria, exportFetchSize)) {
+                Iterator<UserSummaryResponse> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    UserSummaryResponse user = iterator.next();
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, user);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(user));
+                        writer.write('\n');
+                    }
+                    rows++;
+                }
+            }
+            writer.flush();
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+            out.flush();
+            log.info("Exported {} users as {}{}", rows, format, gzip ? " (gzip)" : "");
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error occurred while exporting users after {} rows: {}", rows, e.getMessage(), e);
+            throw new ServiceException("Failed to export users", e);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, UserSummaryResponse user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writeCsvField(writer, user.getUsername());
+        writer.write(',');
+        writeCsvField(writer, user.getEmail());
+        writer.write(',');
+        writeCsvField(writer, user.getRole() == null ? null : user.getRole().name());
+        writer.write(',');
+        writer.write(String.valueOf(user.isEnabled()));
+        writer.write(',');
+        writer.write(String.valueOf(user.isAccountNonLocked()));
+        writer.write(',');
+        writer.write(String.valueOf(user.isAccountNonExpired()));
+        writer.write(',');
+        writer.write(String.valueOf(user.isCredentialsNonExpired()));
+        writer.write(',');
+        writer.write(String.valueOf(user.isTwoFactorEnabled()));
+        writer.write(',');
+        writeCsvField(writer, user.getSignUpMethod());
+        writer.write(',');
+        writeCsvField(writer, user.getCreatedAt() == null ? null : user.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,503 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.management.enums.AppRole;
+import com.user.management.enums.ImportFormat;
+import com.user.management.enums.ImportJobState;
+import com.user.management.exceptions.UserMgmtException;
+import com.user.management.exceptions.ValidationException;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.IdSequenceRepository;
+import com.user.management.repositories.RoleRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.SignupRequest;
+import com.user.management.response.ImportJobStatus;
+import com.user.management.response.ImportRowError;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IUserImportService;
+import com.user.management.services.IUserSearchService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ObjectUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.user.management.constants.Constants.ADMIN;
+import static com.user.management.constants.Constants.EMAIL;
+import static com.user.management.enums.ResponseCode.*;
+import static com.user.management.util.UserManagementUtils.createUserMgmtException;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * Imports users in bulk from CSV or NDJSON uploads.
+ * <p>
+ * The upload is spooled to a temporary file and processed on a background thread in chunks of
+ * {@code importBatchSize} rows: rows are validated, checked against existing usernames and emails
+ * with one query each, their passwords are hashed in parallel on a dedicated {@link ForkJoinPool},
+ * and the chunk is written with a single JDBC batch, after which cached user lookups are evicted.
+ * Progress and per-row errors are kept on an in-memory job that can be polled by id.
+ */
+@Service
+@Slf4j
+public class UserImportService implements IUserImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String INSERT_USER_SQL = "insert into users (id, username, email, password, enabled, "
+            + "account_non_locked, account_non_expired, credentials_non_expired, failed_login_attempts, "
+            + "account_expiry_date, credentials_expiry_date, is_two_factor_enabled, sign_up_method, role_id, "
+            + "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final IdSequenceRepository idSequenceRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder encoder;
+    private final IUserSearchService userSearchService;
+    private final IAdminStatsService adminStatsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private final ConcurrentHashMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "user-import"));
+    private final ForkJoinPool hashingPool;
+
+    @Value("${spring.app.importBatchSize:500}")
+    private int importBatchSize;
+
+    private record ImportRow(long line, String username, String email, String password, String role) {
+    }
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             UserRepository userRepository, IdSequenceRepository idSequenceRepository,
+                             RoleRepository roleRepository, PasswordEncoder encoder,
+                             IUserSearchService userSearchService, IAdminStatsService adminStatsService,
+                             ObjectMapper objectMapper, Validator validator,
+                             @Value("${spring.app.importHashParallelism:0}") int hashParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.idSequenceRepository = idSequenceRepository;
+        this.roleRepository = roleRepository;
+        this.encoder = encoder;
+        this.userSearchService = userSearchService;
+        this.adminStatsService = adminStatsService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Spools an upload to disk and queues it for import, throwing an appropriate exception if something went wrong.
+     *
+     * @param input  The uploaded CSV (with a username,email,password[,role] header) or NDJSON stream.
+     * @param format The format of the upload.
+     * @return The status of the queued job.
+     * @throws ValidationException Thrown if the input or format is missing.
+     * @throws ServiceException    Thrown if the upload could not be stored.
+     */
+    @Override
+    public ImportJobStatus submitImport(InputStream input, ImportFormat format) {
+        if (ObjectUtils.isEmpty(input) || ObjectUtils.isEmpty(format)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        Path spool;
+        try {
+            spool = Files.createTempFile("user-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            Files.copy(input, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Error occurred while spooling user import: {}", e.getMessage(), e);
+            throw new ServiceException("Failed to store user import", e);
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.jobId, job);
+        jobExecutor.submit(() -> runImport(job, spool, format));
+        log.info("User import job {} queued ({} bytes)", job.jobId, spool.toFile().length());
+        return job.snapshot();
+    }
+
+    /**
+     * Fetches the progress of an import job, throwing an appropriate exception if something went wrong.
+     *
+     * @param jobId The id returned when the import was submitted.
+     * @return The current status of the job.
+     * @throws UserMgmtException Thrown if the job is unknown.
+     */
+    @Override
+    public ImportJobStatus getImportStatus(String jobId) {
+        ImportJob job = ObjectUtils.isEmpty(jobId) ? null : jobs.get(jobId);
+        if (job == null) {
+            throw createUserMgmtException(IMPORT_JOB_NOT_FOUND);
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Forgets finished jobs after a day so the registry stays small.
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeFinishedJobs() {
+        Instant horizon = Instant.now().minus(1, ChronoUnit.DAYS);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(horizon));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    private void runImport(ImportJob job, Path spool, ImportFormat format) {
+        job.state = ImportJobState.RUNNING;
+        job.startedAt = Instant.now();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            Map<AppRole, Long> roleIds = new EnumMap<>(AppRole.class);
+            for (AppRole appRole : AppRole.values()) {
+                roleIds.put(appRole, roleRepository.findByRoleName(appRole)
+                        .map(Role::getId)
+                        .orElseThrow(() -> createUserMgmtException(ROLE_NOT_FOUND)));
+            }
+
+            Map<String, Integer> columns = null;
+            List<ImportRow> chunk = new ArrayList<>(importBatchSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && columns == null) {
+                    columns = parseCsvHeader(line);
+                    continue;
+                }
+                try {
+                    chunk.add(format == ImportFormat.CSV ? parseCsvRow(lineNumber, line, columns) : parseJsonRow(lineNumber, line));
+                } catch (Exception e) {
+                    job.processed.incrementAndGet();
+                    job.reject(lineNumber, "Malformed row: " + e.getMessage());
+                }
+                if (chunk.size() >= importBatchSize) {
+                    processChunk(job, chunk, roleIds);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk, roleIds);
+            }
+            job.state = ImportJobState.COMPLETED;
+            log.info("User import job {} completed: {} imported, {} failed",
+                    job.jobId, job.imported.get(), job.failed.get());
+        } catch (Exception e) {
+            log.error("User import job {} failed: {}", job.jobId, e.getMessage(), e);
+            job.reject(0, "Import aborted: " + e.getMessage());
+            job.state = ImportJobState.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete user import spool {}: {}", spool, e.getMessage());
+            }
+        }
+    }
+
+    private void processChunk(ImportJob job, List<ImportRow> chunk, Map<AppRole, Long> roleIds)
+            throws ExecutionException, InterruptedException {
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            job.processed.incrementAndGet();
+            String error = validate(row);
+            if (error == null && !seenUsernames.add(row.username().toLowerCase(Locale.ROOT))) {
+                error = "Duplicate username in upload";
+            }
+            if (error == null && !seenEmails.add(row.email().toLowerCase(Locale.ROOT))) {
+                error = "Duplicate email in upload";
+            }
+            if (error != null) {
+                job.reject(row.line(), error);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> takenUsernames = lowerCased(userRepository.findExistingUsernames(
+                candidates.stream().map(ImportRow::username).toList()));
+        Set<String> takenEmails = lowerCased(userRepository.findExistingEmails(
+                candidates.stream().map(ImportRow::email).toList()));
+        List<ImportRow> accepted = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            if (takenUsernames.contains(row.username().toLowerCase(Locale.ROOT))) {
+                job.reject(row.line(), USERNAME_ALREADY_TAKEN.message());
+            } else if (takenEmails.contains(row.email().toLowerCase(Locale.ROOT))) {
+                job.reject(row.line(), EMAIL_ALREADY_TAKEN.message());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashingPool.submit(() -> accepted.parallelStream()
+                .map(row -> encoder.encode(row.password()))
+                .toList()).get();
+
+        Map<Long, ImportRow> inserted = insertChunk(job, accepted, hashes, roleIds);
+        if (!inserted.isEmpty()) {
+            userRepository.evictLookupQueries();
+        }
+        job.imported.addAndGet(inserted.size());
+        adminStatsService.recordUsersImported(inserted.size(), EMAIL);
+        inserted.forEach((id, row) -> userSearchService.index(id, row.username(), row.email()));
+    }
+
+    /**
+     * Writes the chunk in one JDBC batch inside a transaction. If a concurrent sign-up makes the batch
+     * hit a unique constraint, the batch is rolled back and retried row by row so only the clashing
+     * rows are rejected. Ids are reserved from the users id sequence up front, so the inserted rows
+     * can be indexed without reading them back.
+     *
+     * @return the inserted rows by id
+     */
+    private Map<Long, ImportRow> insertChunk(ImportJob job, List<ImportRow> rows, List<String> hashes, Map<AppRole, Long> roleIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date expiry = Date.valueOf(LocalDate.now().plusYears(1));
+        long firstId = idSequenceRepository.reserve(User.class, rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bindRow(ps, firstId + i, rows.get(i), hashes.get(i), roleIds, now, expiry);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }));
+            Map<Long, ImportRow> inserted = new LinkedHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                inserted.put(firstId + i, rows.get(i));
+            }
+            return inserted;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("User import job {} batch hit a unique constraint, retrying row by row", job.jobId);
+        }
+        Map<Long, ImportRow> inserted = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            String hash = hashes.get(i);
+            long id = firstId + i;
+            try {
+                jdbcTemplate.update(INSERT_USER_SQL, ps -> bindRow(ps, id, row, hash, roleIds, now, expiry));
+                inserted.put(id, row);
+            } catch (DataIntegrityViolationException e) {
+                job.reject(row.line(), "Username or email already exists");
+            } catch (DataAccessException e) {
+                job.reject(row.line(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        return inserted;
+    }
+
+    private void bindRow(PreparedStatement ps, long id, ImportRow row, String hash, Map<AppRole, Long> roleIds,
+                         Timestamp now, Date expiry) throws SQLException {
+        AppRole appRole = ADMIN.equalsIgnoreCase(row.role()) ? AppRole.ROLE_ADMIN : AppRole.ROLE_USER;
+        ps.setLong(1, id);
+        ps.setString(2, row.username());
+        ps.setString(3, row.email());
+        ps.setString(4, hash);
+        ps.setBoolean(5, true);
+        ps.setBoolean(6, true);
+        ps.setBoolean(7, true);
+        ps.setBoolean(8, true);
+        ps.setInt(9, 0);
+        ps.setDate(10, expiry);
+        ps.setDate(11, expiry);
+        ps.setBoolean(12, false);
+        ps.setString(13, EMAIL);
+        ps.setLong(14, roleIds.get(appRole));
+        ps.setTimestamp(15, now);
+        ps.setTimestamp(16, now);
+    }
+
+    /**
+     * Checks the row against the constraints of {@link SignupRequest}, so imported users obey the
+     * same limits as the sign-up endpoint.
+     *
+     * @return the first violation as {@code field: message}, or null if the row is valid
+     */
+    private String validate(ImportRow row) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(row.username());
+        request.setEmail(row.email());
+        request.setPassword(row.password());
+        return validator.validate(request).stream()
+                .min(Comparator.comparing((ConstraintViolation<SignupRequest> violation) -> violation.getPropertyPath().toString())
+                        .thenComparing(ConstraintViolation::getMessage))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .orElse(null);
+    }
+
+    private static Set<String> lowerCased(List<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> header = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey(EMAIL) || !columns.containsKey("password")) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsvRow(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return new ImportRow(lineNumber,
+                field(fields, columns.get("username")),
+                field(fields, columns.get(EMAIL)),
+                field(fields, columns.get("password")),
+                field(fields, columns.get("role")));
+    }
+
+    private ImportRow parseJsonRow(long lineNumber, String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        return new ImportRow(lineNumber,
+                node.path("username").asText(null),
+                node.path(EMAIL).asText(null),
+                node.path("password").asText(null),
+                node.path("role").asText(null));
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and doubled quotes inside them.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static final class ImportJob {
+        private final String jobId;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportRowError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile ImportJobState state = ImportJobState.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        private ImportJob(String jobId) {
+            this.jobId = jobId;
+        }
+
+        private void reject(long line, String message) {
+            if (line > 0) {
+                failed.incrementAndGet();
+            }
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(line, message));
+            }
+        }
+
+        private ImportJobStatus snapshot() {
+            List<ImportRowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new ImportJobStatus(jobId, state, processed.get(), imported.get(), failed.get(),
+                    errorsCopy, submittedAt, startedAt, finishedAt);
+        }
+    }
+}
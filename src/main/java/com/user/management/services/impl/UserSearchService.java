@@ -0,0 +1,341 @@
+package com.user.management.services.impl;
+
+import com.user.management.exceptions.ValidationException;
+import com.user.management.repositories.UserRepository;
+import com.user.management.response.UserSearchResult;
+import com.user.management.services.IUserSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.user.management.constants.Constants.MAX_SEARCH_RESULTS;
+import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * In-memory n-gram index over usernames and emails for admin typeahead.
+ * <p>
+ * Every user gets a slot; each lower-cased trigram of the username and email, plus the first one
+ * and two characters of each, maps to a posting list of slots. Slots are handed out in increasing
+ * order, so posting lists stay sorted and a query only walks the shortest list and binary-searches
+ * the others. Removed and re-indexed users leave a tombstoned slot that is skipped at query time;
+ * once tombstones make up a quarter of the slots, the index is rebuilt from the live slots, so its
+ * size follows the number of users rather than the number of writes.
+ */
+@Service
+@Slf4j
+public class UserSearchService implements IUserSearchService {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int WARM_UP_BATCH_SIZE = 5000;
+    private static final long PREFIX_FLAG = 1L << 48;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final UserRepository userRepository;
+    private final int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByUserId = new HashMap<>();
+    private long[] userIds = new long[1024];
+    private String[] usernames = new String[1024];
+    private String[] emails = new String[1024];
+    private String[] searchableUsernames = new String[1024];
+    private String[] searchableEmails = new String[1024];
+    private int slotCount;
+    private int tombstones;
+
+    public UserSearchService(UserRepository userRepository,
+                             @Value("${spring.app.searchMaxCandidates:10000}") int maxCandidates) {
+        this.userRepository = userRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Loads every user into the index once the application is up, reading the users table in
+     * keyset-ordered batches of id, username and email only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        Long afterId = 0L;
+        int loaded = 0;
+        try {
+            List<UserSearchResult> batch;
+            while (!(batch = userRepository.findSearchEntriesAfter(afterId, PageRequest.ofSize(WARM_UP_BATCH_SIZE))).isEmpty()) {
+                batch.forEach(entry -> index(entry.getId(), entry.getUsername(), entry.getEmail()));
+                loaded += batch.size();
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            log.info("User search index warmed with {} users in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Error occurred while warming user search index after {} users: {}", loaded, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds or replaces a user in the index.
+     *
+     * @param userId   The id of the user.
+     * @param username The username to index.
+     * @param email    The email to index.
+     */
+    @Override
+    public void index(Long userId, String username, String email) {
+        if (ObjectUtils.isEmpty(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(userId);
+            compactIfNeeded();
+            int slot = slotCount++;
+            ensureCapacity(slot + 1);
+            userIds[slot] = userId;
+            usernames[slot] = username;
+            emails[slot] = email;
+            searchableUsernames[slot] = normalize(username);
+            searchableEmails[slot] = normalize(email);
+            slotsByUserId.put(userId, slot);
+            addGrams(searchableUsernames[slot], slot);
+            addGrams(searchableEmails[slot], slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user from the index.
+     *
+     * @param userId The id of the user to remove.
+     */
+    @Override
+    public void remove(Long userId) {
+        if (ObjectUtils.isEmpty(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(userId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds users whose username or email contains the query, prefix matches first. Queries shorter
+     * than three characters only match prefixes. Candidates are ranked before the result is cut to
+     * {@code limit}, so a prefix match is never displaced by an earlier substring match. The scan
+     * stops at {@code limit} prefix matches or after {@code spring.app.searchMaxCandidates} slots,
+     * so a query that occurs in most emails costs a bounded walk; matches past that point are not
+     * ranked.
+     *
+     * @param query The partial username or email.
+     * @param limit The maximum number of results.
+     * @return The matching users.
+     * @throws ValidationException Thrown if the query is empty or the limit is out of range.
+     */
+    @Override
+    public List<UserSearchResult> search(String query, int limit) {
+        if (ObjectUtils.isEmpty(query) || query.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        String needle = normalize(query.trim());
+        List<UserSearchResult> prefixMatches = new ArrayList<>();
+        List<UserSearchResult> substringMatches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            if (needle.length() < GRAM_LENGTH) {
+                lists.add(postings.get(prefixKey(needle)));
+            } else {
+                for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+                    lists.add(postings.get(gramKey(needle, i)));
+                }
+            }
+            if (lists.contains(null)) {
+                return List.of();
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            PostingList shortest = lists.get(0);
+
+            int candidates = Math.min(shortest.size, maxCandidates);
+            for (int i = 0; i < candidates && prefixMatches.size() < limit; i++) {
+                int slot = shortest.slots[i];
+                String username = searchableUsernames[slot];
+                String email = searchableEmails[slot];
+                if (username == null || !containsInAll(lists, slot)) {
+                    continue;
+                }
+                if (username.startsWith(needle) || email.startsWith(needle)) {
+                    prefixMatches.add(new UserSearchResult(userIds[slot], usernames[slot], emails[slot]));
+                } else if (substringMatches.size() < limit && (username.contains(needle) || email.contains(needle))) {
+                    substringMatches.add(new UserSearchResult(userIds[slot], usernames[slot], emails[slot]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        prefixMatches.addAll(substringMatches);
+        return prefixMatches.size() > limit ? prefixMatches.subList(0, limit) : prefixMatches;
+    }
+
+    /**
+     * @return the number of slots in use, live or tombstoned
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeSlot(Long userId) {
+        Integer slot = slotsByUserId.remove(userId);
+        if (slot != null) {
+            usernames[slot] = null;
+            emails[slot] = null;
+            searchableUsernames[slot] = null;
+            searchableEmails[slot] = null;
+            tombstones++;
+        }
+    }
+
+    /**
+     * Rebuilds the slots and posting lists from the live slots, in their current order, once
+     * tombstones reach a quarter of the slots. Must hold the write lock.
+     */
+    private void compactIfNeeded() {
+        if (tombstones < MIN_TOMBSTONES_TO_COMPACT || tombstones * 4L < slotCount) {
+            return;
+        }
+        int live = slotCount - tombstones;
+        long[] oldUserIds = userIds;
+        String[] oldUsernames = usernames;
+        String[] oldEmails = emails;
+        String[] oldSearchableUsernames = searchableUsernames;
+        String[] oldSearchableEmails = searchableEmails;
+        int oldSlotCount = slotCount;
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) << 1);
+        userIds = new long[capacity];
+        usernames = new String[capacity];
+        emails = new String[capacity];
+        searchableUsernames = new String[capacity];
+        searchableEmails = new String[capacity];
+        postings.clear();
+        slotsByUserId.clear();
+        slotCount = 0;
+        tombstones = 0;
+        for (int old = 0; old < oldSlotCount; old++) {
+            if (oldSearchableUsernames[old] == null) {
+                continue;
+            }
+            int slot = slotCount++;
+            userIds[slot] = oldUserIds[old];
+            usernames[slot] = oldUsernames[old];
+            emails[slot] = oldEmails[old];
+            searchableUsernames[slot] = oldSearchableUsernames[old];
+            searchableEmails[slot] = oldSearchableEmails[old];
+            slotsByUserId.put(userIds[slot], slot);
+            addGrams(searchableUsernames[slot], slot);
+            addGrams(searchableEmails[slot], slot);
+        }
+        log.debug("Compacted user search index from {} to {} slots", oldSlotCount, slotCount);
+    }
+
+    private void addGrams(String value, int slot) {
+        if (value.isEmpty()) {
+            return;
+        }
+        posting(prefixKey(value.substring(0, 1))).add(slot);
+        if (value.length() > 1) {
+            posting(prefixKey(value.substring(0, 2))).add(slot);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            posting(gramKey(value, i)).add(slot);
+        }
+    }
+
+    private PostingList posting(long key) {
+        return postings.computeIfAbsent(key, k -> new PostingList());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > userIds.length) {
+            int newLength = Math.max(capacity, userIds.length * 2);
+            userIds = Arrays.copyOf(userIds, newLength);
+            usernames = Arrays.copyOf(usernames, newLength);
+            emails = Arrays.copyOf(emails, newLength);
+            searchableUsernames = Arrays.copyOf(searchableUsernames, newLength);
+            searchableEmails = Arrays.copyOf(searchableEmails, newLength);
+        }
+    }
+
+    private static boolean containsInAll(List<PostingList> lists, int slot) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long gramKey(String value, int offset) {
+        return ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    private static long prefixKey(String prefix) {
+        long key = PREFIX_FLAG | ((long) prefix.length() << 40);
+        for (int i = 0; i < prefix.length(); i++) {
+            key |= (long) prefix.charAt(i) << (16 * (1 - i));
+        }
+        return key;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable, ascending array of slots. Slots are appended in increasing order, so a gram that
+     * occurs more than once for the same user is recognised by comparing with the last slot.
+     */
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.user.management.services.impl;
 
+import com.user.management.config.ReadFromPrimary;
+import com.user.management.config.ReadFromReplica;
+import com.user.management.enums.AccountStatusField;
 import com.user.management.enums.AppRole;
+import com.user.management.enums.EmailTemplate;
+import com.user.management.events.UserAccountsChangedEvent;
 import com.user.management.exceptions.UserMgmtException;
 import com.user.management.exceptions.ValidationException;
 import com.user.management.models.PasswordReset;
@@ -9,31 +14,51 @@ import com.user.management.models.User;
 import com.user.management.repositories.PasswordResetRepository;
 import com.user.management.repositories.RoleRepository;
 import com.user.management.repositories.UserRepository;
+import com.user.management.enums.UserSortField;
+import com.user.management.request.BulkAccountStatusRequest;
+import com.user.management.request.UserFilterRequest;
 import com.user.management.request.dto.UserDTO;
+import com.user.management.response.BulkUpdateResponse;
+import com.user.management.response.KeysetPage;
+import com.user.management.response.UserSummaryResponse;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IMailCampaignService;
 import com.user.management.services.ITotpService;
+import com.user.management.services.IUserSearchService;
 import com.user.management.services.IUserService;
 import com.user.management.util.EmailService;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ObjectUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 
-import static com.user.management.constants.Constants.EMAIL;
+import static com.user.management.constants.Constants.*;
 import static com.user.management.constants.RESTUriConstants.RESET_PASSWORD;
 import static com.user.management.enums.ResponseCode.*;
 import static com.user.management.util.UserManagementUtils.createUserMgmtException;
 import static com.user.management.util.UserManagementUtils.createValidationException;
+import static com.user.management.util.UserManagementUtils.generateToken;
+import static com.user.management.util.UserManagementUtils.hashToken;
 
 @Service
 @Slf4j
@@ -53,12 +78,36 @@ public class UserService implements IUserService {
 
     private final ITotpService totpService;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordResetRepository passwordResetRepository, EmailService emailService, ITotpService totpService) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final IUserSearchService userSearchService;
+
+    private final IAdminStatsService adminStatsService;
+
+    private final IMailCampaignService mailCampaignService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.app.resetTokenPurgeBatchSize:500}")
+    private int resetTokenPurgeBatchSize;
+
+    @Value("${spring.app.resetRequestWindowMs:300000}")
+    private long resetRequestWindowMs;
+
+    @Value("${spring.app.bulkUpdateChunkSize:1000}")
+    private int bulkUpdateChunkSize;
+
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordResetRepository passwordResetRepository, EmailService emailService, ITotpService totpService, ApplicationEventPublisher eventPublisher, IUserSearchService userSearchService, IAdminStatsService adminStatsService, IMailCampaignService mailCampaignService, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordResetRepository = passwordResetRepository;
         this.emailService = emailService;
         this.totpService = totpService;
+        this.eventPublisher = eventPublisher;
+        this.userSearchService = userSearchService;
+        this.adminStatsService = adminStatsService;
+        this.mailCampaignService = mailCampaignService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -75,12 +124,13 @@ public class UserService implements IUserService {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
             AppRole appRole = AppRole.valueOf(roleName);
             Role role = roleRepository.findByRoleName(appRole)
                     .orElseThrow(() -> createUserMgmtException(ROLE_NOT_FOUND));
-            user.setRole(role);
-            userRepository.save(user);
+            if (userRepository.updateRole(userId, role, LocalDateTime.now()) == 0) {
+                throw createUserMgmtException(USERNAME_NOT_FOUND);
+            }
+            eventPublisher.publishEvent(new UserAccountsChangedEvent(List.of(userId), false));
         } catch (RuntimeException e) {
             log.error("Error occurred while updating role: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update role", e);
@@ -94,6 +144,8 @@ public class UserService implements IUserService {
      * @throws ServiceException Thrown if failed to fetch users.
      */
     @Override
+    @ReadFromReplica
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         try {
             return userRepository.findAll();
@@ -103,6 +155,76 @@ public class UserService implements IUserService {
         }
     }
 
+    /**
+     * To fetch one page of the admin user listing as slim projections, filtered and sorted on the server,
+     * throwing an appropriate exception if something went wrong.
+     *
+     * @param filter The role, status, sign-up method and creation date filters plus the sort order.
+     * @param cursor The opaque cursor returned with the previous page, or empty for the first page.
+     * @param size   The number of users per page, up to {@code MAX_PAGE_SIZE}.
+     * @throws ValidationException Thrown if the page size or cursor is invalid.
+     * @throws ServiceException    Thrown if failed to fetch users.
+     */
+    @Override
+    public KeysetPage<UserSummaryResponse> getUserPage(UserFilterRequest filter, String cursor, int size) {
+        if (ObjectUtils.isEmpty(filter) || size < 1 || size > MAX_PAGE_SIZE) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        if (filter.getSortBy() == null) {
+            filter.setSortBy(UserSortField.ID);
+        }
+        Object afterValue = null;
+        Long afterId = null;
+        if (!ObjectUtils.isEmpty(cursor)) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf(CURSOR_SEPARATOR);
+                if (separator < 0) {
+                    throw new IllegalArgumentException("missing separator");
+                }
+                afterId = Long.valueOf(decoded.substring(separator + 1));
+                afterValue = parseCursorValue(filter.getSortBy(), decoded.substring(0, separator));
+                if (afterId < 0) {
+                    throw new IllegalArgumentException("negative id");
+                }
+            } catch (RuntimeException e) {
+                log.error("Invalid user page cursor {}: {}", cursor, e.getMessage());
+                throw createValidationException(INPUT_IS_INVALID);
+            }
+        }
+        try {
+            List<UserSummaryResponse> rows = userRepository.findUserSummaries(filter, afterValue, afterId, size + 1);
+            boolean hasNext = rows.size() > size;
+            List<UserSummaryResponse> items = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = hasNext ? encodeCursor(filter.getSortBy(), items.get(items.size() - 1)) : null;
+            return new KeysetPage<>(items, nextCursor, hasNext);
+        } catch (Exception e) {
+            log.error("Error occurred while fetching user page: {}", e.getMessage(), e);
+            throw new ServiceException("Failed to fetch user page", e);
+        }
+    }
+
+    private Object parseCursorValue(UserSortField sortBy, String value) {
+        if (sortBy == UserSortField.ID ? !value.isEmpty() : value.isEmpty()) {
+            throw new IllegalArgumentException("cursor does not match sort " + sortBy);
+        }
+        return switch (sortBy) {
+            case ID -> null;
+            case USERNAME -> value;
+            case CREATED_AT -> LocalDateTime.parse(value);
+        };
+    }
+
+    private String encodeCursor(UserSortField sortBy, UserSummaryResponse last) {
+        String value = switch (sortBy) {
+            case ID -> "";
+            case USERNAME -> last.getUsername();
+            case CREATED_AT -> last.getCreatedAt().toString();
+        };
+        String raw = value + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * To fetch the user by id, throwing an appropriate exception if something went wrong.
      *
@@ -167,15 +289,13 @@ public class UserService implements IUserService {
      * @throws ServiceException    Thrown if failed to create note.
      */
     @Override
+    @ReadFromPrimary
     public void updateAccountLockStatus(Long userId, boolean lock) {
         if (ObjectUtils.isEmpty(userId) || ObjectUtils.isEmpty(lock)) {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(()
-                    -> createUserMgmtException(USERNAME_NOT_FOUND));
-            user.setAccountNonLocked(!lock);
-            userRepository.save(user);
+            updateAccountStatus(AccountStatusField.LOCKED, userId, lock);
         } catch (RuntimeException e) {
             log.error("Error occurred while updating account lock status: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update account lock status", e);
@@ -207,15 +327,13 @@ public class UserService implements IUserService {
      * @throws ServiceException    Thrown if failed to create note.
      */
     @Override
+    @ReadFromPrimary
     public void updateAccountExpiryStatus(Long userId, boolean expire) {
         if (ObjectUtils.isEmpty(userId) || ObjectUtils.isEmpty(expire)) {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(()
-                    -> createUserMgmtException(USERNAME_NOT_FOUND));
-            user.setAccountNonExpired(!expire);
-            userRepository.save(user);
+            updateAccountStatus(AccountStatusField.ACCOUNT_EXPIRED, userId, expire);
         } catch (RuntimeException e) {
             log.error("Error occurred while updating account expiry status: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update account expiry status", e);
@@ -231,15 +349,13 @@ public class UserService implements IUserService {
      * @throws ServiceException    Thrown if failed to create note.
      */
     @Override
+    @ReadFromPrimary
     public void updateAccountEnabledStatus(Long userId, boolean enabled) {
         if (ObjectUtils.isEmpty(userId) || ObjectUtils.isEmpty(enabled)) {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(()
-                    -> createUserMgmtException(USERNAME_NOT_FOUND));
-            user.setEnabled(enabled);
-            userRepository.save(user);
+            updateAccountStatus(AccountStatusField.ENABLED, userId, enabled);
         } catch (RuntimeException e) {
             log.error("Error occurred while updating account enabled status: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update account enabled status", e);
@@ -255,21 +371,158 @@ public class UserService implements IUserService {
      * @throws ServiceException    Thrown if failed to create note.
      */
     @Override
+    @ReadFromPrimary
     public void updateCredentialsExpiryStatus(Long userId, boolean expire) {
         if (ObjectUtils.isEmpty(userId) || ObjectUtils.isEmpty(expire)) {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(()
-                    -> createUserMgmtException(USERNAME_NOT_FOUND));
-            user.setCredentialsNonExpired(!expire);
-            userRepository.save(user);
+            updateAccountStatus(AccountStatusField.CREDENTIALS_EXPIRED, userId, expire);
         } catch (RuntimeException e) {
             log.error("Error occurred while updating Credentials expire status: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update Credentials expire status", e);
         }
     }
 
+    /**
+     * Applies one account status change to many users with set-based UPDATE statements, throwing an
+     * appropriate exception if something went wrong. Users are addressed either by an explicit id list
+     * or by a filter predicate; in both cases the work is split into chunks of {@code bulkUpdateChunkSize}
+     * ids and one {@link UserAccountsChangedEvent} is published per chunk that changed any row.
+     * If users are to be notified, a campaign is prepared up front and each chunk records the ids it
+     * actually changed as recipients in its own transaction; the campaign is launched afterwards, even
+     * if a later chunk failed, so every committed change is notified exactly once.
+     *
+     * @param field   The account status flag to change.
+     * @param request The target user ids or filter, and the value to apply.
+     * @throws ValidationException Thrown if neither ids nor filter criteria are given.
+     * @throws ServiceException    Thrown if failed to update the users.
+     */
+    @Override
+    public BulkUpdateResponse bulkUpdateAccountStatus(AccountStatusField field, BulkAccountStatusRequest request) {
+        if (ObjectUtils.isEmpty(field) || ObjectUtils.isEmpty(request)
+                || (ObjectUtils.isEmpty(request.getUserIds()) && !hasCriteria(request.getFilter()))) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        Long campaignId = null;
+        try {
+            EmailTemplate template = request.isNotifyUsers() && request.isValue() ? notificationTemplate(field) : null;
+            campaignId = template == null ? null : mailCampaignService.prepareCampaign(template);
+            long affected = 0;
+            int batches = 0;
+            if (!ObjectUtils.isEmpty(request.getUserIds())) {
+                List<Long> ids = request.getUserIds().stream().filter(Objects::nonNull).distinct().toList();
+                for (int from = 0; from < ids.size(); from += bulkUpdateChunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + bulkUpdateChunkSize, ids.size()));
+                    affected += applyAccountStatus(field, chunk, request.isValue(), campaignId);
+                    batches++;
+                }
+            } else {
+                Long afterId = null;
+                List<Long> chunk;
+                while (!(chunk = userRepository.findUserIds(request.getFilter(), afterId, bulkUpdateChunkSize)).isEmpty()) {
+                    affected += applyAccountStatus(field, chunk, request.isValue(), campaignId);
+                    batches++;
+                    afterId = chunk.get(chunk.size() - 1);
+                }
+            }
+            log.info("Bulk {} update set to {} affected {} users in {} batches", field, request.isValue(), affected, batches);
+            return new BulkUpdateResponse(affected, batches, affected > 0 ? campaignId : null);
+        } catch (RuntimeException e) {
+            log.error("Error occurred while bulk updating {} status: {}", field, e.getMessage(), e);
+            throw new ServiceException("Failed to bulk update account status", e);
+        } finally {
+            if (campaignId != null) {
+                launchNotificationCampaign(campaignId);
+            }
+        }
+    }
+
+    /**
+     * Changes one user's flag with the guarded update alone, so a change costs one statement. Only
+     * when no row changed is the id looked up, because the guard cannot tell an unknown user from
+     * one that already has the value.
+     */
+    private void updateAccountStatus(AccountStatusField field, Long userId, boolean value) {
+        if (applyAccountStatus(field, List.of(userId), value, null) == 0 && !userRepository.existsById(userId)) {
+            throw createUserMgmtException(USERNAME_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Applies the flag to one chunk. When the change revokes access, the same update stamps the
+     * affected rows with the current second as their token cut-off, which every node reads when it
+     * loads the user for a request. With a campaign, the rows to change are locked first and exactly
+     * those ids are changed and recorded as recipients in one transaction.
+     */
+    private int applyAccountStatus(AccountStatusField field, List<Long> ids, boolean value, Long campaignId) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean revokeTokens = field == AccountStatusField.ENABLED ? !value : value;
+        LocalDateTime tokensValidAfter = revokeTokens ? now.truncatedTo(ChronoUnit.SECONDS) : null;
+        List<Long> targets = ids;
+        int updated;
+        if (campaignId == null) {
+            updated = executeStatusUpdate(field, ids, value, now, tokensValidAfter);
+        } else {
+            List<Long> changed = transactionTemplate.execute(status -> {
+                List<Long> toChange = userRepository.lockIdsToChange(field, ids, value);
+                if (!toChange.isEmpty()) {
+                    executeStatusUpdate(field, toChange, value, now, tokensValidAfter);
+                    mailCampaignService.addRecipients(campaignId, toChange);
+                }
+                return toChange;
+            });
+            targets = changed == null ? List.of() : changed;
+            updated = targets.size();
+        }
+        if (updated > 0) {
+            adminStatsService.recordAccountStatusChange(field, value, updated);
+            eventPublisher.publishEvent(new UserAccountsChangedEvent(List.copyOf(targets), revokeTokens));
+        }
+        return updated;
+    }
+
+    private int executeStatusUpdate(AccountStatusField field, List<Long> ids, boolean value, LocalDateTime now,
+                                    LocalDateTime tokensValidAfter) {
+        return switch (field) {
+            case LOCKED -> userRepository.updateAccountNonLocked(ids, !value, now, tokensValidAfter);
+            case ACCOUNT_EXPIRED -> userRepository.updateAccountNonExpired(ids, !value, now, tokensValidAfter);
+            case ENABLED -> userRepository.updateEnabled(ids, value, now, tokensValidAfter);
+            case CREDENTIALS_EXPIRED -> userRepository.updateCredentialsNonExpired(ids, !value, now, tokensValidAfter);
+        };
+    }
+
+    /**
+     * @return the template that tells users about a bulk lock or credential expiry, or null if the
+     * change is not notified
+     */
+    private static EmailTemplate notificationTemplate(AccountStatusField field) {
+        return switch (field) {
+            case LOCKED -> EmailTemplate.ACCOUNT_LOCKED;
+            case CREDENTIALS_EXPIRED -> EmailTemplate.CREDENTIALS_EXPIRED;
+            default -> null;
+        };
+    }
+
+    private void launchNotificationCampaign(Long campaignId) {
+        try {
+            mailCampaignService.launchCampaign(campaignId);
+        } catch (RuntimeException e) {
+            log.error("Error occurred while launching notification campaign {}; it is launched on next start: {}",
+                    campaignId, e.getMessage(), e);
+        }
+    }
+
+    private static boolean hasCriteria(UserFilterRequest filter) {
+        return filter != null && (filter.getRole() != null
+                || filter.getEnabled() != null
+                || filter.getLocked() != null
+                || filter.getAccountExpired() != null
+                || filter.getCredentialsExpired() != null
+                || filter.getSignUpMethod() != null
+                || filter.getCreatedFrom() != null
+                || filter.getCreatedTo() != null);
+    }
 
     /**
      * Updates the Credentials expire status for a particular user, throwing an appropriate exception if something went wrong.
@@ -285,10 +538,9 @@ public class UserService implements IUserService {
             throw createValidationException(INPUT_IS_INVALID);
         }
         try {
-            User user = userRepository.findById(userId).orElseThrow(()
-                    -> createUserMgmtException(USERNAME_NOT_FOUND));
-            user.setPassword(password);
-            userRepository.save(user);
+            if (userRepository.updatePassword(userId, User.encodePassword(password), LocalDateTime.now()) == 0) {
+                throw createUserMgmtException(USERNAME_NOT_FOUND);
+            }
         } catch (RuntimeException e) {
             log.error("Error occurred while updating password: {}", e.getMessage(), e);
             throw new ServiceException("Failed to update password", e);
@@ -313,12 +565,14 @@ public class UserService implements IUserService {
 
     /**
      * Generates a password reset token for a user, validates the email, and persists the token in the database.
+     * Only the token's hash is stored, and any earlier tokens of the user are deleted in the same transaction.
      *
      * @param email The email of the user for whom the password reset token will be generated.
      * @throws ValidationException Thrown if the email is invalid or not provided.
      * @throws ServiceException    Thrown if there is an issue generating or saving the password reset token.
      */
     @Override
+    @Transactional
     public void generatePasswordResetToken(String email){
         if (ObjectUtils.isEmpty(email)) {
             log.error("Invalid input: Email is null or empty");
@@ -331,13 +585,24 @@ public class UserService implements IUserService {
                 return createUserMgmtException(USER_NOT_FOUND);
             });
 
-            String token = UUID.randomUUID().toString();
-            Instant expiryDate = Instant.now().plus(24, ChronoUnit.HOURS);
+            Instant expiryDate = Instant.now().plus(PASSWORD_RESET_TOKEN_TTL_HOURS, ChronoUnit.HOURS);
+            Instant issuedWithinWindow = expiryDate.minusMillis(resetRequestWindowMs);
+            if (passwordResetRepository.existsUnusedExpiringAfter(user.getId(), issuedWithinWindow)) {
+                log.info("Password reset token already issued within the last {} ms for email: {}", resetRequestWindowMs, email);
+                return;
+            }
+
+            String token = generateToken();
+
+            int invalidated = passwordResetRepository.deleteByUserId(user.getId());
+            if (invalidated > 0) {
+                log.info("Invalidated {} older password reset token(s) for email: {}", invalidated, email);
+            }
 
             PasswordReset passwordReset = PasswordReset.builder()
-                    .token(token)
+                    .tokenHash(hashToken(token))
                     .expiryDate(expiryDate)
-//                    .used(false)
+                    .used(false)
                     .user(user)
                     .build();
 
@@ -346,19 +611,18 @@ public class UserService implements IUserService {
             log.info("Password reset token generated and saved successfully for email: {}", email);
 
             String resetUrl = frontendUrl+RESET_PASSWORD+"?token="+token;
-            emailService.sendEmail(user.getEmail(), "Password Reset Request", resetUrl);
+            emailService.queueEmail(user.getEmail(), EmailTemplate.PASSWORD_RESET, Map.of("resetUrl", resetUrl));
 
         } catch (RuntimeException e) {
             log.error("Error occurred while generating password reset token for email {}: {}", email, e.getMessage(), e);
             throw new ServiceException("Failed to generate password reset token.", e);
-        } catch (MessagingException e) {
-            throw new RuntimeException(e);
         }
     }
 
     /**
      * Resets the password for a user based on a valid password reset token.
-     * Validates the token, updates the user's password, and marks the token as used.
+     * Validates the token, then consumes it with a conditional update and changes the password in the
+     * same transaction, so a token can only ever reset one password even under concurrent requests.
      *
      * @param token       The password reset token provided by the user.
      * @param newPassword The new password to be set for the user.
@@ -367,42 +631,74 @@ public class UserService implements IUserService {
     @Override
     public void resetPassword(String token, String newPassword) {
         try {
-            PasswordReset passwordResetToken = passwordResetRepository.findByToken(token)
-                    .orElseThrow(() -> new ServiceException("Invalid or missing password reset token."));
-
-            if (passwordResetToken.isUsed()) {
-                log.warn("Attempt to use an already used password reset token: {}", token);
-                throw new ServiceException("This password reset token has already been used. Please request a new one.");
-            }
-
-            if (passwordResetToken.getExpiryDate().isBefore(Instant.now())) {
-                log.warn("Attempt to use an expired password reset token: {}", token);
-                throw new ServiceException("This password reset token has expired. Please request a new one.");
-            }
-
-            User user = passwordResetToken.getUser();
-
-            if (ObjectUtils.isEmpty(user)) {
-                log.error("Password reset token {} does not reference a valid user.", token);
-                throw createUserMgmtException(USER_NOT_FOUND);
+            if (ObjectUtils.isEmpty(token)) {
+                throw new ServiceException("Invalid or missing password reset token.");
             }
-
-            user.setPassword(newPassword);
-            userRepository.save(user);
-            log.info("Password successfully reset for user: {}", user.getEmail());
-
-            passwordResetToken.setUsed(true);
-            passwordResetRepository.save(passwordResetToken);
-            log.info("Password reset token marked as used for user: {}", user.getEmail());
+            transactionTemplate.executeWithoutResult(status -> {
+                PasswordReset passwordResetToken = passwordResetRepository.findByTokenHash(hashToken(token))
+                        .orElseThrow(() -> new ServiceException("Invalid or missing password reset token."));
+
+                if (passwordResetToken.isUsed()) {
+                    log.warn("Attempt to use an already used password reset token: {}", passwordResetToken.getId());
+                    throw new ServiceException("This password reset token has already been used. Please request a new one.");
+                }
+
+                Instant now = Instant.now();
+                if (passwordResetToken.getExpiryDate().isBefore(now)) {
+                    log.warn("Attempt to use an expired password reset token: {}", passwordResetToken.getId());
+                    throw new ServiceException("This password reset token has expired. Please request a new one.");
+                }
+
+                User user = passwordResetToken.getUser();
+
+                if (ObjectUtils.isEmpty(user)) {
+                    log.error("Password reset token {} does not reference a valid user.", passwordResetToken.getId());
+                    throw createUserMgmtException(USER_NOT_FOUND);
+                }
+
+                if (passwordResetRepository.consume(passwordResetToken.getId(), now) == 0) {
+                    log.warn("Password reset token {} was used concurrently", passwordResetToken.getId());
+                    throw new ServiceException("This password reset token has already been used. Please request a new one.");
+                }
+                log.info("Password reset token marked as used for user: {}", user.getEmail());
+
+                userRepository.updatePassword(user.getId(), User.encodePassword(newPassword), LocalDateTime.now());
+                log.info("Password successfully reset for user: {}", user.getEmail());
+            });
         } catch (ServiceException e) {
             log.error("ServiceException while resetting password: {}", e.getMessage(), e);
             throw e;
         } catch (Exception e) {
-            log.error("Unexpected error occurred while resetting password for token: {}", token, e);
+            log.error("Unexpected error occurred while resetting password: {}", e.getMessage(), e);
             throw new ServiceException("An unexpected error occurred while resetting the password. Please try again.");
         }
     }
 
+    /**
+     * Deletes expired password reset tokens in small batches. Used tokens have their expiry moved to the
+     * time of use, so this single range over the expiry index covers both.
+     */
+    @Scheduled(fixedDelayString = "${spring.app.resetTokenPurgeMs:3600000}")
+    public void purgeExpiredResetTokens() {
+        try {
+            Instant now = Instant.now();
+            long purged = 0;
+            List<Long> ids;
+            do {
+                ids = passwordResetRepository.findExpiredIds(now, PageRequest.ofSize(resetTokenPurgeBatchSize));
+                if (!ids.isEmpty()) {
+                    passwordResetRepository.deleteAllByIdInBatch(ids);
+                    purged += ids.size();
+                }
+            } while (ids.size() == resetTokenPurgeBatchSize);
+            if (purged > 0) {
+                log.info("Purged {} expired or used password reset tokens", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error occurred while purging password reset tokens: {}", e.getMessage(), e);
+        }
+    }
+
 
     @Override
     public void registerUser(User newUser) {
@@ -416,7 +712,9 @@ public class UserService implements IUserService {
             }
         }
         try {
-            userRepository.save(newUser);
+            User saved = userRepository.save(newUser);
+            userSearchService.index(saved.getId(), saved.getUsername(), saved.getEmail());
+            adminStatsService.recordUserCreated(saved);
         } catch (Exception e) {
             log.error("Error: while registering user {}", e.getMessage(), e);
             throw new ServiceException("An unexpected error occurred while resetting the password. Please try again.");
@@ -425,35 +723,38 @@ public class UserService implements IUserService {
 
     @Override
     public GoogleAuthenticatorKey generate2FASecret(Long userId){
-        User user = userRepository.findById(userId).orElseThrow(()
-                -> createUserMgmtException(USERNAME_NOT_FOUND));
-
         GoogleAuthenticatorKey googleAuthenticatorKey = totpService.generateSecretKey();
-        user.setTwoFactorSecret(googleAuthenticatorKey.getKey());
-        userRepository.save(user);
+        if (userRepository.updateTwoFactorSecret(userId, googleAuthenticatorKey.getKey(), LocalDateTime.now()) == 0) {
+            throw createUserMgmtException(USERNAME_NOT_FOUND);
+        }
+        totpService.evictSecret(userId);
         return googleAuthenticatorKey;
     }
 
     @Override
     public boolean validate2FACode(Long userId, int code){
-        User user = userRepository.findById(userId).orElseThrow(()
-                -> createUserMgmtException(USERNAME_NOT_FOUND));
-
-      return totpService.verifyCode(user.getTwoFactorSecret(), code);
+        return totpService.verifyCode(userId, code, () -> userRepository.findById(userId)
+                .orElseThrow(() -> createUserMgmtException(USERNAME_NOT_FOUND))
+                .getTwoFactorSecret());
     }
 
     @Override
     public void enable2FA(Long userId){
-        User user = userRepository.findById(userId).orElseThrow(()
-                -> createUserMgmtException(USERNAME_NOT_FOUND));
-        user.setTwoFactorEnabled(true);
+        if (userRepository.updateTwoFactorEnabled(userId, true, LocalDateTime.now()) == 1) {
+            adminStatsService.recordTwoFactorChange(true);
+        } else if (!userRepository.existsById(userId)) {
+            throw createUserMgmtException(USERNAME_NOT_FOUND);
+        }
     }
 
     @Override
     public void disable2FA(Long userId){
-        User user = userRepository.findById(userId).orElseThrow(()
-                -> createUserMgmtException(USERNAME_NOT_FOUND));
-        user.setTwoFactorEnabled(false);
+        if (userRepository.updateTwoFactorEnabled(userId, false, LocalDateTime.now()) == 1) {
+            totpService.evictSecret(userId);
+            adminStatsService.recordTwoFactorChange(false);
+        } else if (!userRepository.existsById(userId)) {
+            throw createUserMgmtException(USERNAME_NOT_FOUND);
+        }
     }
 
 }
@@ -0,0 +1,173 @@
+package com.user.management.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.user.management.util.UserManagementUtils.appendJsonString;
+
+/**
+ * Access log fed from request threads through a fixed ring of preallocated events.
+ * <p>
+ * Request threads claim a slot with a single CAS, copy the raw values into it and publish it;
+ * they never allocate, format or touch the file. A single background thread turns published events
+ * into JSON lines and appends them to {@code accessLogFile}, rolling it once it reaches
+ * {@code accessLogMaxFileBytes}. When the writer falls a whole ring behind, new events are dropped
+ * and counted rather than making requests wait. Requests that ended in a server error are always
+ * logged; the rest are sampled at {@code accessLogSampleRate}.
+ */
+@Component
+public class AccessLog {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Event[] events;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final double sampleRate;
+    private final RollingFileWriter out;
+    private final Thread writerThread;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private volatile boolean running = true;
+
+    public AccessLog(@Value("${spring.app.accessLogFile:logs/access.log}") String file,
+                     @Value("${spring.app.accessLogMaxFileBytes:104857600}") long maxFileBytes,
+                     @Value("${spring.app.accessLogMaxFiles:5}") int maxFiles,
+                     @Value("${spring.app.accessLogBufferSize:8192}") int bufferSize,
+                     @Value("${spring.app.accessLogSampleRate:1.0}") double sampleRate) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.events = new Event[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.sampleRate = sampleRate;
+        this.out = new RollingFileWriter(file, maxFileBytes, maxFiles);
+        this.writerThread = new Thread(this::drain, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Records one finished request. Never blocks; the event is dropped if the ring is full.
+     *
+     * @param method       the HTTP method
+     * @param path         the matched path template, or the raw URI if no handler matched
+     * @param status       the response status
+     * @param latencyNanos time spent in the filter chain
+     * @param userId       the authenticated user's id, or {@code null}
+     * @param bytes        the response body size, or -1 if unknown
+     */
+    public void record(String method, String path, int status, long latencyNanos, Long userId, long bytes) {
+        if (status < 500 && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= events.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        Event event = events[index];
+        event.timestamp = System.currentTimeMillis();
+        event.method = method;
+        event.path = path;
+        event.status = status;
+        event.latencyNanos = latencyNanos;
+        event.userId = userId == null ? -1 : userId;
+        event.bytes = bytes;
+        published.lazySet(index, sequence);
+    }
+
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        long next = consumed.get();
+        boolean pendingFlush = false;
+        while (true) {
+            int index = (int) (next & mask);
+            if (published.get(index) == next) {
+                write(events[index]);
+                events[index].clear();
+                consumed.lazySet(++next);
+                pendingFlush = true;
+            } else if (running) {
+                if (pendingFlush) {
+                    out.flush();
+                    pendingFlush = false;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else {
+                break;
+            }
+        }
+        out.flush();
+        out.close();
+    }
+
+    private void write(Event event) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.timestamp), sb);
+        sb.append("\",\"method\":\"").append(event.method);
+        sb.append("\",\"path\":");
+        appendJsonString(sb, event.path);
+        sb.append(",\"status\":").append(event.status);
+        sb.append(",\"latencyMicros\":").append(event.latencyNanos / 1_000);
+        sb.append(",\"userId\":");
+        if (event.userId < 0) {
+            sb.append("null");
+        } else {
+            sb.append(event.userId);
+        }
+        sb.append(",\"bytes\":").append(event.bytes);
+        sb.append("}\n");
+
+        if (!out.write(sb)) {
+            dropped.increment();
+        }
+    }
+
+    private static final class Event {
+        private long timestamp;
+        private String method;
+        private String path;
+        private int status;
+        private long latencyNanos;
+        private long userId;
+        private long bytes;
+
+        private void clear() {
+            method = null;
+            path = null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.user.management.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per recipient domain, so a large send cannot exceed what a single receiving provider
+ * accepts from us. Buckets refill continuously at {@code mailDomainRatePerSecond} and hold at most
+ * one second's worth of tokens.
+ */
+@Component
+public class DomainRateLimiter {
+
+    private final double ratePerSecond;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final class Bucket {
+        private double tokens = ratePerSecond;
+        private long refilledAt = System.nanoTime();
+
+        private synchronized long tryAcquire(long now) {
+            tokens = Math.min(ratePerSecond, tokens + (now - refilledAt) / 1e9 * ratePerSecond);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / ratePerSecond * 1000);
+        }
+
+        private synchronized boolean isFull(long now) {
+            return tokens + (now - refilledAt) / 1e9 * ratePerSecond >= ratePerSecond;
+        }
+    }
+
+    public DomainRateLimiter(@Value("${spring.app.mailDomainRatePerSecond:5}") double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Takes a token for the address's domain.
+     *
+     * @param address Recipient email address.
+     * @return 0 if the message may be sent now, otherwise the milliseconds until a token is available.
+     */
+    public long tryAcquire(String address) {
+        int at = address == null ? -1 : address.lastIndexOf('@');
+        String domain = at < 0 ? "" : address.substring(at + 1).toLowerCase(Locale.ROOT);
+        return buckets.computeIfAbsent(domain, d -> new Bucket()).tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they behave exactly like new ones.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
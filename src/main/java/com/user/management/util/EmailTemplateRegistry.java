@@ -0,0 +1,135 @@
+package com.user.management.util;
+
+import com.user.management.enums.EmailTemplate;
+import com.user.management.exceptions.ValidationException;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.user.management.enums.ResponseCode.INPUT_IS_INVALID;
+import static com.user.management.util.UserManagementUtils.createValidationException;
+
+/**
+ * Holds every {@link EmailTemplate} compiled and ready to render.
+ * <p>
+ * Templates are loaded once at startup and test-rendered with their required keys, so a missing or
+ * broken template stops the application from starting instead of failing a user's request. Renders
+ * reuse a per-thread buffer instead of allocating and growing a fresh writer for every message.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRegistry {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private final Map<EmailTemplate, Template> templates = new EnumMap<>(EmailTemplate.class);
+    private final ThreadLocal<RenderBuffer> buffers = ThreadLocal.withInitial(RenderBuffer::new);
+
+    public EmailTemplateRegistry(FreeMarkerConfigurer freemarkerConfigurer) {
+        for (EmailTemplate emailTemplate : EmailTemplate.values()) {
+            Template template;
+            try {
+                template = freemarkerConfigurer.getConfiguration().getTemplate(emailTemplate.fileName());
+            } catch (IOException e) {
+                throw new IllegalStateException("Email template " + emailTemplate.fileName() + " could not be loaded", e);
+            }
+            Map<String, Object> sample = new HashMap<>();
+            emailTemplate.requiredKeys().forEach(key -> sample.put(key, "sample"));
+            try {
+                template.process(sample, Writer.nullWriter());
+            } catch (TemplateException | IOException e) {
+                throw new IllegalStateException("Email template " + emailTemplate.fileName() + " failed to render", e);
+            }
+            templates.put(emailTemplate, template);
+        }
+        log.info("Loaded {} email templates", templates.size());
+    }
+
+    /**
+     * Renders a template to HTML, throwing an appropriate exception if something went wrong.
+     *
+     * @param emailTemplate The template to render.
+     * @param model         Values for the template; every required key must be present.
+     * @return The rendered HTML.
+     * @throws ValidationException Thrown if the template or a required key is missing.
+     * @throws ServiceException    Thrown if rendering fails.
+     */
+    public String render(EmailTemplate emailTemplate, Map<String, ?> model) {
+        if (ObjectUtils.isEmpty(emailTemplate) || ObjectUtils.isEmpty(model)) {
+            throw createValidationException(INPUT_IS_INVALID);
+        }
+        for (String key : emailTemplate.requiredKeys()) {
+            if (ObjectUtils.isEmpty(model.get(key))) {
+                log.error("Missing '{}' for email template {}", key, emailTemplate);
+                throw createValidationException(INPUT_IS_INVALID);
+            }
+        }
+        RenderBuffer buffer = buffers.get();
+        buffer.reset();
+        try {
+            templates.get(emailTemplate).process(model, buffer);
+            return buffer.toString();
+        } catch (TemplateException | IOException e) {
+            log.error("Error rendering email template {}: {}", emailTemplate, e.getMessage());
+            throw new ServiceException("Failed to render email template " + emailTemplate, e);
+        } finally {
+            buffer.trim();
+        }
+    }
+
+    /**
+     * Unsynchronized writer over a reusable {@link StringBuilder}.
+     */
+    private static final class RenderBuffer extends Writer {
+        private StringBuilder builder = new StringBuilder(INITIAL_BUFFER_SIZE);
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            builder.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+
+        private void reset() {
+            builder.setLength(0);
+        }
+
+        private void trim() {
+            if (builder.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                builder = new StringBuilder(INITIAL_BUFFER_SIZE);
+            }
+        }
+    }
+}
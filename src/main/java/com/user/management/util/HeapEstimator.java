@@ -0,0 +1,111 @@
+package com.user.management.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rough retained-size estimate for cached values, assuming compressed oops (12 byte headers, 4
+ * byte references, 8 byte alignment). Strings, boxes, arrays, collections and maps are sized
+ * directly; other objects are walked field by field only inside {@code walkPrefix}, and counted
+ * shallowly elsewhere so that a reference to shared metadata is not mistaken for cached data.
+ */
+public final class HeapEstimator {
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int MAX_DEPTH = 16;
+
+    private HeapEstimator() {
+    }
+
+    public static long estimate(Object value, String walkPrefix) {
+        return estimate(value, walkPrefix, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static long estimate(Object value, String walkPrefix, Set<Object> seen, int depth) {
+        if (value == null || value instanceof Enum<?> || value instanceof Class<?> || !seen.add(value)) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            return align(HEADER + 4 + 4 + 1) + align(16 + s.length());
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16 + (value instanceof Long || value instanceof Double ? 8 : 0);
+        }
+        if (depth >= MAX_DEPTH) {
+            return HEADER;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            if (type.getComponentType().isPrimitive()) {
+                return align(16 + (long) length * primitiveSize(type.getComponentType()));
+            }
+            long size = align(16 + (long) length * REFERENCE);
+            for (int i = 0; i < length; i++) {
+                size += estimate(Array.get(value, i), walkPrefix, seen, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 48 + (long) collection.size() * (REFERENCE + 16);
+            for (Object element : collection) {
+                size += estimate(element, walkPrefix, seen, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 64 + (long) map.size() * 32;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey(), walkPrefix, seen, depth + 1)
+                        + estimate(entry.getValue(), walkPrefix, seen, depth + 1);
+            }
+            return size;
+        }
+        long size = HEADER;
+        boolean walk = type.getName().startsWith(walkPrefix);
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (field.getType().isPrimitive()) {
+                    size += primitiveSize(field.getType());
+                    continue;
+                }
+                size += REFERENCE;
+                if (walk && field.trySetAccessible()) {
+                    try {
+                        size += estimate(field.get(value), walkPrefix, seen, depth + 1);
+                    } catch (IllegalAccessException e) {
+                        // counted shallowly
+                    }
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
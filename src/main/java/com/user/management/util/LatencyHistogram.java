@@ -0,0 +1,162 @@
+package com.user.management.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * <p>
+ * Latencies are kept in microseconds. Values below 32&micro;s get a bucket each; above that,
+ * every power of two is split into 32 linear sub-buckets, so a reported quantile is within about
+ * 3% of the true value. Recording is a couple of bit operations and three atomic adds; quantiles
+ * are computed only when a snapshot is taken. Values beyond about 12 days are clamped.
+ * <p>
+ * Quantiles and the maximum describe a sliding window: buckets live in a ring of slices, the
+ * slice for the current interval is cleared the first time it is written after a full turn, and a
+ * snapshot reads only the slices of the last window. By default the window is five minutes in
+ * one-minute slices, so quantiles cover the last four to five minutes. Count, sum and errors stay
+ * cumulative, as Prometheus expects of a summary's {@code _count} and {@code _sum}.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 40;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private static final long DEFAULT_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int DEFAULT_SLICES = 5;
+
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW_NANOS, DEFAULT_SLICES, System::nanoTime);
+    }
+
+    LatencyHistogram(long windowNanos, int sliceCount, LongSupplier nanoClock) {
+        this.slices = new Slice[sliceCount];
+        this.sliceNanos = windowNanos / sliceCount;
+        this.nanoClock = nanoClock;
+        long tick = tick();
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice(tick - sliceCount);
+        }
+    }
+
+    public void recordNanos(long nanos, boolean error) {
+        long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        Slice slice = currentSlice(tick());
+        slice.counts.incrementAndGet(indexOf(micros));
+        count.increment();
+        sumMicros.add(micros);
+        if (error) {
+            errors.increment();
+        }
+        if (micros > slice.maxMicros.get()) {
+            slice.maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /**
+     * Takes a point-in-time view of the histogram. Buckets are read without locking, so a
+     * snapshot taken during recording may be off by the few values recorded while it was read.
+     *
+     * @param quantiles the quantiles to compute over the sliding window, each between 0 and 1
+     * @return the snapshot, with latencies in microseconds
+     */
+    public Snapshot snapshot(double... quantiles) {
+        long oldestLiveTick = tick() - slices.length;
+        long[] buckets = new long[BUCKET_COUNT];
+        long total = 0;
+        long windowMax = 0;
+        for (Slice slice : slices) {
+            if (slice.tick <= oldestLiveTick) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucket = slice.counts.get(i);
+                buckets[i] += bucket;
+                total += bucket;
+            }
+            windowMax = Math.max(windowMax, slice.maxMicros.get());
+        }
+        long[] values = new long[quantiles.length];
+        for (int q = 0; q < quantiles.length; q++) {
+            long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT && total > 0; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    values[q] = Math.min(highestEquivalentValue(i), windowMax);
+                    break;
+                }
+            }
+        }
+        return new Snapshot(count.sum(), sumMicros.sum(), errors.sum(), windowMax, quantiles, values);
+    }
+
+    private long tick() {
+        return Math.floorDiv(nanoClock.getAsLong(), sliceNanos);
+    }
+
+    private Slice currentSlice(long tick) {
+        Slice slice = slices[(int) Math.floorMod(tick, (long) slices.length)];
+        if (slice.tick < tick) {
+            synchronized (slice) {
+                if (slice.tick < tick) {
+                    for (int i = 0; i < BUCKET_COUNT; i++) {
+                        slice.counts.set(i, 0);
+                    }
+                    slice.maxMicros.set(0);
+                    slice.tick = tick;
+                }
+            }
+        }
+        return slice;
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT | (index & (SUB_BUCKET_COUNT - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static final class Slice {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong maxMicros = new AtomicLong();
+        private volatile long tick;
+
+        private Slice(long tick) {
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * @param maxMicros      the largest value recorded in the sliding window
+     * @param quantileMicros the requested quantiles over the sliding window
+     */
+    public record Snapshot(long count, long sumMicros, long errors, long maxMicros,
+                           double[] quantiles, long[] quantileMicros) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.user.management.util;
+
+/**
+ * Spans recorded for one sampled request, kept in a per-thread stack.
+ * <p>
+ * A trace exists only while {@code TraceFilter} has sampled the current request; everywhere else
+ * {@link #open(String, String)} is a single {@link ThreadLocal} read returning -1, so instrumented
+ * code pays next to nothing when tracing is off. Spans are stored in preallocated parallel arrays
+ * and must be closed in the order they were opened, which the try/finally callers guarantee.
+ */
+public final class RequestTrace {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SPANS = 256;
+    private static final String HANDLER = "handler";
+
+    private final long startNanos = System.nanoTime();
+    private final long startMillis = System.currentTimeMillis();
+    private final String[] categories = new String[MAX_SPANS];
+    private final String[] details = new String[MAX_SPANS];
+    private final long[] starts = new long[MAX_SPANS];
+    private final long[] ends = new long[MAX_SPANS];
+    private final int[] parents = new int[MAX_SPANS];
+    private final boolean[] nested = new boolean[MAX_SPANS];
+    private int size;
+    private int current = -1;
+    private int droppedSpans;
+    private long endNanos;
+
+    private String method;
+    private String path;
+    private int status;
+
+    private RequestTrace() {
+    }
+
+    /**
+     * Starts tracing the current thread's request.
+     *
+     * @return the new trace
+     */
+    public static RequestTrace begin() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * @return the trace of the current thread's request, or {@code null} if it is not sampled
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a span if the current request is traced.
+     *
+     * @param category the span category, aggregated in the Server-Timing header
+     * @param detail   what the span covers, written to the trace log; may be {@code null}
+     * @return the span handle to pass to {@link #close(int)}, or -1 if nothing was opened
+     */
+    public static int open(String category, String detail) {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? -1 : trace.push(category, detail);
+    }
+
+    public static void close(int span) {
+        if (span < 0) {
+            return;
+        }
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.pop(span);
+        }
+    }
+
+    /**
+     * Closes any span left open, detaches the trace from the thread and records the outcome.
+     */
+    public void end(String method, String path, int status) {
+        endNanos = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            if (ends[i] == 0) {
+                ends[i] = endNanos;
+            }
+        }
+        current = -1;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        CURRENT.remove();
+    }
+
+    /**
+     * Builds the Server-Timing header value. Time is summed per category, counting only the
+     * outermost span when spans of one category nest. {@code filters} is the time before the first
+     * controller method started and {@code total} the time so far.
+     *
+     * @return the header value
+     */
+    public String serverTiming() {
+        long now = endNanos != 0 ? endNanos : System.nanoTime();
+        String[] names = new String[size];
+        long[] totals = new long[size];
+        int[] counts = new int[size];
+        int distinct = 0;
+        long handlerStart = -1;
+        for (int i = 0; i < size; i++) {
+            if (handlerStart < 0 && HANDLER.equals(categories[i])) {
+                handlerStart = starts[i];
+            }
+            if (nested[i]) {
+                continue;
+            }
+            int slot = 0;
+            while (slot < distinct && !names[slot].equals(categories[i])) {
+                slot++;
+            }
+            if (slot == distinct) {
+                names[distinct++] = categories[i];
+            }
+            totals[slot] += (ends[i] == 0 ? now : ends[i]) - starts[i];
+            counts[slot]++;
+        }
+
+        StringBuilder sb = new StringBuilder(32 * (distinct + 2));
+        if (handlerStart >= 0) {
+            appendMetric(sb, "filters", handlerStart - startNanos, 1);
+        }
+        for (int i = 0; i < distinct; i++) {
+            appendMetric(sb, names[i], totals[i], counts[i]);
+        }
+        appendMetric(sb, "total", now - startNanos, 1);
+        return sb.toString();
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getDurationMicros() {
+        return (endNanos - startNanos) / 1_000;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public int spanCount() {
+        return size;
+    }
+
+    public String category(int span) {
+        return categories[span];
+    }
+
+    public String detail(int span) {
+        return details[span];
+    }
+
+    public long startMicros(int span) {
+        return (starts[span] - startNanos) / 1_000;
+    }
+
+    public long durationMicros(int span) {
+        return (ends[span] - starts[span]) / 1_000;
+    }
+
+    public int depth(int span) {
+        int depth = 0;
+        for (int parent = parents[span]; parent >= 0; parent = parents[parent]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private int push(String category, String detail) {
+        if (size == MAX_SPANS) {
+            droppedSpans++;
+            return -1;
+        }
+        int span = size++;
+        categories[span] = category;
+        details[span] = detail;
+        parents[span] = current;
+        for (int parent = current; parent >= 0; parent = parents[parent]) {
+            if (categories[parent].equals(category)) {
+                nested[span] = true;
+                break;
+            }
+        }
+        starts[span] = System.nanoTime();
+        current = span;
+        return span;
+    }
+
+    private void pop(int span) {
+        ends[span] = System.nanoTime();
+        current = parents[span];
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos, int count) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name);
+        if (count > 1) {
+            sb.append(";desc=\"").append(count).append(" calls\"");
+        }
+        sb.append(";dur=").append(nanos / 1_000 / 1000.0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.user.management.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends text to a file and rolls it by size ({@code file} becomes {@code file.1}, and so on up
+ * to {@code maxFiles}). Not thread-safe: meant to be owned by a single writer thread.
+ * I/O errors are logged and the file is reopened on the next write.
+ */
+@Slf4j
+public class RollingFileWriter {
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private Writer out;
+    private long fileBytes;
+
+    public RollingFileWriter(String file, long maxFileBytes, int maxFiles) {
+        this.file = Paths.get(file);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * Appends the text, rolling the file afterwards if it has reached its size limit.
+     *
+     * @param text the text to append
+     * @return false if the text could not be written
+     */
+    public boolean write(CharSequence text) {
+        try {
+            if (out == null) {
+                open();
+            }
+            out.append(text);
+            fileBytes += text.length();
+            if (fileBytes >= maxFileBytes) {
+                roll();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to write to {}: {}", file, e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    public void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.error("Failed to flush {}: {}", file, e.getMessage());
+            close();
+        }
+    }
+
+    public void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to close {}: {}", file, e.getMessage());
+        }
+        out = null;
+    }
+
+    private void roll() throws IOException {
+        close();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rolledFile(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private Path rolledFile(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        fileBytes = Files.exists(file) ? Files.size(file) : 0;
+        out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+    }
+}
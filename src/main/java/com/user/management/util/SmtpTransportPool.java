@@ -0,0 +1,137 @@
+package com.user.management.util;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps authenticated SMTP connections open between sends so each message skips the TCP, STARTTLS
+ * and AUTH round trips. At most {@code smtpPoolSize} connections are open at once; idle ones are
+ * checked with a NOOP before reuse and closed after {@code smtpIdleMs}.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final long idleTimeoutMs;
+    private final int poolSize;
+
+    private record PooledTransport(Transport transport, long lastUsed) {
+    }
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             @Value("${spring.app.smtpPoolSize:4}") int poolSize,
+                             @Value("${spring.app.smtpIdleMs:60000}") long idleTimeoutMs) {
+        if (!(mailSender instanceof JavaMailSenderImpl senderImpl)) {
+            throw new IllegalStateException("SMTP pooling needs a JavaMailSenderImpl, got " + mailSender.getClass());
+        }
+        this.mailSender = senderImpl;
+        this.permits = new Semaphore(poolSize);
+        this.poolSize = poolSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Borrows a connected transport, reusing an idle one when it still answers. Must be paired with
+     * {@link #release(Transport)} or {@link #invalidate(Transport)}.
+     */
+    public Transport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.transport().isConnected()) {
+                    return pooled.transport();
+                }
+                closeQuietly(pooled.transport());
+            }
+            Session session = mailSender.getSession();
+            String protocol = mailSender.getProtocol();
+            if (protocol == null) {
+                protocol = session.getProperty("mail.transport.protocol");
+            }
+            Transport transport = session.getTransport(protocol == null ? JavaMailSenderImpl.DEFAULT_PROTOCOL : protocol);
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that the SMTP server answers, reusing a pooled connection when one is idle. Reports
+     * false without touching the network when every connection is busy sending.
+     */
+    public boolean probe() throws MessagingException, InterruptedException {
+        if (permits.availablePermits() == 0) {
+            return false;
+        }
+        Transport transport = borrow();
+        if (!transport.isConnected()) {
+            invalidate(transport);
+            throw new MessagingException("SMTP connection closed by server");
+        }
+        release(transport);
+        return true;
+    }
+
+    public int busyConnections() {
+        return poolSize - permits.availablePermits();
+    }
+
+    public void release(Transport transport) {
+        idle.offerFirst(new PooledTransport(transport, System.currentTimeMillis()));
+        permits.release();
+    }
+
+    /**
+     * Closes a transport whose connection can no longer be trusted.
+     */
+    public void invalidate(Transport transport) {
+        closeQuietly(transport);
+        permits.release();
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.smtpIdleMs:60000}")
+    public void evictIdle() {
+        long horizon = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<PooledTransport> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (pooled.lastUsed() < horizon && idle.removeFirstOccurrence(pooled)) {
+                closeQuietly(pooled.transport());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled.transport());
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP transport: {}", e.getMessage());
+        }
+    }
+}
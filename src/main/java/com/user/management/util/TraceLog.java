@@ -0,0 +1,108 @@
+package com.user.management.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.user.management.util.UserManagementUtils.appendJsonString;
+
+/**
+ * Writes finished {@link RequestTrace}s as JSON lines from a background thread.
+ * Request threads only offer the trace to a bounded queue; if the writer falls behind,
+ * traces are dropped and counted.
+ */
+@Component
+@Slf4j
+public class TraceLog {
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final BlockingQueue<RequestTrace> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder dropped = new LongAdder();
+    private final RollingFileWriter out;
+    private final Thread writerThread;
+    private final StringBuilder line = new StringBuilder(1024);
+
+    private volatile boolean running = true;
+
+    public TraceLog(@Value("${spring.app.traceLogFile:logs/trace.log}") String file,
+                    @Value("${spring.app.traceLogMaxFileBytes:104857600}") long maxFileBytes,
+                    @Value("${spring.app.traceLogMaxFiles:5}") int maxFiles) {
+        this.out = new RollingFileWriter(file, maxFileBytes, maxFiles);
+        this.writerThread = new Thread(this::drain, "trace-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void submit(RequestTrace trace) {
+        if (!queue.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDroppedTraces() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestTrace trace = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (trace == null) {
+                    out.flush();
+                } else if (!out.write(format(trace))) {
+                    dropped.increment();
+                }
+            } catch (InterruptedException e) {
+                // woken up by close(); the loop drains what is left
+            } catch (RuntimeException e) {
+                log.error("Failed to write trace: {}", e.getMessage(), e);
+            }
+        }
+        out.flush();
+        out.close();
+    }
+
+    private CharSequence format(RequestTrace trace) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(trace.getStartMillis()), sb);
+        sb.append("\",\"method\":\"").append(trace.getMethod());
+        sb.append("\",\"path\":");
+        appendJsonString(sb, trace.getPath());
+        sb.append(",\"status\":").append(trace.getStatus());
+        sb.append(",\"durationMicros\":").append(trace.getDurationMicros());
+        if (trace.getDroppedSpans() > 0) {
+            sb.append(",\"droppedSpans\":").append(trace.getDroppedSpans());
+        }
+        sb.append(",\"spans\":[");
+        for (int i = 0; i < trace.spanCount(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"category\":\"").append(trace.category(i)).append("\",\"detail\":");
+            appendJsonString(sb, trace.detail(i));
+            sb.append(",\"depth\":").append(trace.depth(i));
+            sb.append(",\"startMicros\":").append(trace.startMicros(i));
+            sb.append(",\"durationMicros\":").append(trace.durationMicros(i)).append('}');
+        }
+        sb.append("]}\n");
+        return sb;
+    }
+}
@@ -13,7 +13,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.util.ObjectUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.function.Supplier;
 
 import static com.user.management.enums.ResponseCode.CONTENT_IS_EMPTY;
@@ -25,6 +31,8 @@ import static com.user.management.enums.ResponseCode.USER_DETAILS_MISSING;
  */
 public class UserManagementUtils {
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     /**
      * Handles response formatting and manages any exceptions that may occur during data retrieval.
      *
@@ -185,4 +193,49 @@ public class UserManagementUtils {
         newUser.setTwoFactorEnabled(false);
     }
 
+    /**
+     * Creates a random 256-bit token, URL-safe base64 encoded.
+     */
+    public static String generateToken() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Hashes a token with SHA-256 into 64 hex characters, the form in which tokens are stored.
+     */
+    public static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Appends a value as a JSON string literal, escaping quotes, backslashes and control characters.
+     *
+     * @param sb    The builder to append to.
+     * @param value The value to append; {@code null} is written as a JSON null.
+     */
+    public static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
 }
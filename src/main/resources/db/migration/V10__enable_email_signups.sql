@@ -0,0 +1,5 @@
+-- Sign-in now honours the enabled flag. Email signups without roles were stored disabled while the
+-- flag was never checked, and are the only rows without a sign-up method; enable them so that their
+-- accounts keep working.
+
+update users set enabled = true where enabled = false and sign_up_method is null;
@@ -0,0 +1,77 @@
+-- Baseline schema: the production schema created by spring.jpa.hibernate.ddl-auto=update before
+-- migrations were introduced. A database that has the users table but no migration history is
+-- expected to match it; it is baselined at this version and skips this script.
+
+create table audit_log (
+    id bigint not null auto_increment,
+    keep_id bigint,
+    timestamp datetime(6),
+    action varchar(255),
+    keep_content varchar(255),
+    username varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table keep (
+    id bigint not null auto_increment,
+    owner_username varchar(255),
+    content longtext,
+    primary key (id)
+) engine=InnoDB;
+
+create table password_reset (
+    used bit not null,
+    expiry_date datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    role_name enum ('ROLE_ADMIN','ROLE_USER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    account_expiry_date date,
+    account_non_expired bit not null,
+    account_non_locked bit not null,
+    credentials_expiry_date date,
+    credentials_non_expired bit not null,
+    enabled bit not null,
+    failed_login_attempts integer not null,
+    is_two_factor_enabled bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    last_login_time datetime(6),
+    password_reset_time datetime(6),
+    role_id bigint,
+    updated_at datetime(6),
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    sign_up_method varchar(255),
+    two_factor_secret varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table password_reset
+   add constraint UK8bojqfhoasv6keiidk8xs4ux1 unique (token);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table password_reset
+   add constraint FK74ayk4gy7j9k9caxg9pb7k1wa
+   foreign key (user_id)
+   references users (id);
+
+alter table users
+   add constraint FKp56c1712k691lhsyewcssf40f
+   foreign key (role_id)
+   references roles (id);
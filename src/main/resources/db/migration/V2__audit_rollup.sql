@@ -0,0 +1,14 @@
+-- Pre-aggregated audit activity per minute, hour and day, one row per bucket, action and user.
+
+create table audit_rollup (
+    bucket_start datetime(6) not null,
+    event_count bigint not null,
+    id bigint not null,
+    action varchar(20) not null,
+    username varchar(255) not null,
+    resolution enum ('DAY','HOUR','MINUTE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table audit_rollup
+   add constraint UKcb948q7nprbwelp3m6skrvq7j unique (resolution, bucket_start, action, username);
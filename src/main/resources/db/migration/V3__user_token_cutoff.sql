@@ -0,0 +1,5 @@
+-- Per-user token cut-off, stamped by the admin updates that lock, expire or disable accounts so
+-- that every instance rejects tokens issued before it.
+
+alter table users
+   add column tokens_valid_after datetime(6);
@@ -0,0 +1,41 @@
+-- Persistent outbox for outgoing email and the dead letters it gives up on. Bodies are longtext:
+-- rendered templates do not fit the 255 bytes of the tinytext a plain @Lob column maps to.
+-- sent_at marks rows that were delivered but could not be deleted, so no worker sends them again.
+
+create table email_outbox (
+    attempts integer not null,
+    priority integer not null,
+    campaign_id bigint,
+    created_at datetime(6) not null,
+    id bigint not null,
+    lease_until datetime(6),
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    last_error varchar(1000),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body longtext not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table email_dead_letter (
+    attempts integer not null,
+    campaign_id bigint,
+    created_at datetime(6) not null,
+    failed_at datetime(6) not null,
+    id bigint not null,
+    last_error varchar(1000),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body longtext not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_email_outbox_due
+   on email_outbox (priority, next_attempt_at);
+
+create index idx_email_outbox_campaign
+   on email_outbox (campaign_id);
+
+create index idx_email_dead_letter_campaign
+   on email_dead_letter (campaign_id);
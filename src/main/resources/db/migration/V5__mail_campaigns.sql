@@ -0,0 +1,24 @@
+-- Resumable bulk mail campaigns. Recipients picked by a bulk account update are rows, recorded
+-- chunk by chunk in the transaction that changed those users; a campaign stays PREPARING until
+-- they are all recorded.
+
+create table mail_campaign (
+    finished_at datetime(6),
+    id bigint not null,
+    last_user_id bigint not null,
+    queued_count bigint not null,
+    skipped_count bigint not null,
+    started_at datetime(6) not null,
+    last_error varchar(1000),
+    subject varchar(255),
+    criteria longtext,
+    state enum ('COMPLETED','FAILED','PREPARING','RUNNING') not null,
+    template enum ('ACCOUNT_LOCKED','CREDENTIALS_EXPIRED','EMAIL_VERIFICATION','PASSWORD_RESET') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table mail_campaign_recipient (
+    campaign_id bigint not null,
+    user_id bigint not null,
+    primary key (campaign_id, user_id)
+) engine=InnoDB;
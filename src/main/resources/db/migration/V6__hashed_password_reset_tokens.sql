@@ -0,0 +1,7 @@
+-- Reset tokens are stored as SHA-256 hex digests, and expired ones are purged by expiry date.
+
+alter table password_reset
+   modify column token varchar(64) not null;
+
+create index idx_password_reset_expiry
+   on password_reset (expiry_date);
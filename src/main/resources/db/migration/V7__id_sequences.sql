@@ -0,0 +1,8 @@
+-- Pooled id blocks, one row per table. Rows are created at startup above the table's highest id,
+-- see IdSequenceRepository. The id columns keep auto_increment; pooled inserts supply the id.
+
+create table id_sequences (
+    next_val bigint,
+    sequence_name varchar(255) not null,
+    primary key (sequence_name)
+) engine=InnoDB;
@@ -0,0 +1,14 @@
+-- Indexes for the lookups ddl-auto never created: keeps and audit entries by owner or keep,
+-- audit retention and rollups by timestamp, and users by role.
+
+create index idx_keep_owner_username
+   on keep (owner_username);
+
+create index idx_audit_log_keep_id
+   on audit_log (keep_id);
+
+create index idx_audit_log_timestamp
+   on audit_log (timestamp);
+
+create index idx_users_role_id
+   on users (role_id);
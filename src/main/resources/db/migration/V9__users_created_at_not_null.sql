@@ -0,0 +1,11 @@
+-- Keyset pages sorted by creation time need a plain column to compare and order on, served by an
+-- index. Rows created before created_at was stamped are backfilled with the epoch, where the
+-- listing already sorted them.
+
+update users set created_at = '1970-01-01 00:00:00' where created_at is null;
+
+alter table users
+   modify column created_at datetime(6) not null;
+
+create index idx_users_created_at
+   on users (created_at, id);
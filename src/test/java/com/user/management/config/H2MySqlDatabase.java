@@ -0,0 +1,49 @@
+package com.user.management.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.dialect.MySQLDialect;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * A private in-memory H2 database in MySQL mode, for tests that run the migrations or real queries.
+ * Use {@link Dialect} for Hibernate over it.
+ */
+public final class H2MySqlDatabase {
+
+    private H2MySqlDatabase() {
+    }
+
+    /**
+     * @return an empty database, dropped when the JVM exits
+     */
+    public static DataSource empty() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    /**
+     * @return a database with every migration applied
+     */
+    public static DataSource migrated() {
+        DataSource dataSource = empty();
+        new SchemaMigrator(dataSource).migrate();
+        return dataSource;
+    }
+
+    /**
+     * The MySQL dialect, except that H2 reports MySQL's text types as varchar rather than clob.
+     */
+    public static class Dialect extends MySQLDialect {
+
+        @Override
+        public boolean equivalentTypes(int typeCode1, int typeCode2) {
+            return super.equivalentTypes(typeCode1, typeCode2)
+                    || typeCode1 == Types.CLOB && typeCode2 == Types.VARCHAR
+                    || typeCode1 == Types.VARCHAR && typeCode2 == Types.CLOB;
+        }
+    }
+}
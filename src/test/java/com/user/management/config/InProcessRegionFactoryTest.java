@@ -0,0 +1,84 @@
+package com.user.management.config;
+
+import com.user.management.models.AuditLog;
+import com.user.management.models.Keep;
+import com.user.management.models.PasswordReset;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessRegionFactoryTest {
+
+    private StandardServiceRegistry registry;
+
+    @AfterEach
+    void close() {
+        if (registry != null) {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    void cachesRolesReadOnlyAndUsersReadWriteByNaturalId() {
+        InProcessRegionFactory regionFactory = new InProcessRegionFactory(100, 60_000);
+        SessionFactoryImplementor sessionFactory = buildSessionFactory(regionFactory);
+
+        EntityPersister role = sessionFactory.getMappingMetamodel().getEntityDescriptor(Role.class);
+        assertEquals(AccessType.READ_ONLY, role.getCacheAccessStrategy().getAccessType());
+
+        EntityPersister user = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        assertEquals(AccessType.READ_WRITE, user.getCacheAccessStrategy().getAccessType());
+        assertNotNull(user.getNaturalIdCacheAccessStrategy());
+
+        EntityPersister keep = sessionFactory.getMappingMetamodel().getEntityDescriptor(Keep.class);
+        assertFalse(keep.canReadFromCache());
+
+        assertTrue(regionFactory.getRegions().containsKey(role.getCacheAccessStrategy().getRegion().getName()));
+        assertTrue(regionFactory.getRegions().containsKey(user.getNaturalIdCacheAccessStrategy().getRegion().getName()));
+    }
+
+    @Test
+    void evictsOnceFullAndExpiresEntries() throws InterruptedException {
+        BoundedRegionStorage bounded = new BoundedRegionStorage(8, 0);
+        for (int i = 0; i < 20; i++) {
+            bounded.putIntoCache(i, "user-" + i, null);
+        }
+        assertTrue(bounded.size() <= 8, "size " + bounded.size());
+        assertEquals("user-19", bounded.getFromCache(19, null));
+        assertTrue(bounded.estimatedBytes() > 0);
+
+        BoundedRegionStorage expiring = new BoundedRegionStorage(8, 1);
+        expiring.putIntoCache("key", "value", null);
+        Thread.sleep(5);
+        assertNull(expiring.getFromCache("key", null));
+        assertFalse(expiring.contains("key"));
+    }
+
+    private SessionFactoryImplementor buildSessionFactory(InProcessRegionFactory regionFactory) {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.CACHE_REGION_FACTORY, regionFactory)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .applySetting(AvailableSettings.USE_QUERY_CACHE, true)
+                .applySetting(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE")
+                .build();
+        SessionFactory sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class, Keep.class, AuditLog.class, PasswordReset.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        return sessionFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
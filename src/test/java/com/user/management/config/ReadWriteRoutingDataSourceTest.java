@@ -0,0 +1,207 @@
+package com.user.management.config;
+
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private DataSource dataSource;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(primaryConnection.getAutoCommit()).thenReturn(true);
+        when(replicaConnection.getAutoCommit()).thenReturn(true);
+        when(lagMonitor.isReplicaAvailable()).thenReturn(true);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor);
+        routing.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        clearInvocations(primary, replica);
+    }
+
+    @Test
+    void onlyMarkedReadOnlyTransactionsUseTheReplica() {
+        assertSame(replicaConnection, ReadWriteRoutingDataSource.onReplica(() -> readOnly.execute(status -> connectionUsed())));
+        assertSame(primaryConnection, ReadWriteRoutingDataSource.onReplica(() -> readWrite.execute(status -> connectionUsed())));
+        assertSame(primaryConnection, readOnly.execute(status -> connectionUsed()));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        when(lagMonitor.isReplicaAvailable()).thenReturn(false);
+        assertSame(primaryConnection, ReadWriteRoutingDataSource.onReplica(() -> readOnly.execute(status -> connectionUsed())));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void primaryCanBeForcedForReadAfterWrite() {
+        Connection forced = ReadWriteRoutingDataSource.onReplica(() ->
+                ReadWriteRoutingDataSource.onPrimary(() -> readOnly.execute(status -> connectionUsed())));
+        assertSame(primaryConnection, forced);
+        assertSame(replicaConnection, ReadWriteRoutingDataSource.onReplica(() -> readOnly.execute(status -> connectionUsed())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByIdThenSaveReadsAndWritesThePrimary() {
+        DataSource primaryDatabase = H2MySqlDatabase.migrated();
+        DataSource replicaDatabase = H2MySqlDatabase.migrated();
+        insertUser(primaryDatabase, "alice@example.com");
+        // the replica has not caught up with the email change yet
+        insertUser(replicaDatabase, "old-alice@example.com");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDatabase, replicaDatabase, lagMonitor);
+        routing.afterPropertiesSet();
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, H2MySqlDatabase.Dialect.class.getName())
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, new LazyConnectionDataSourceProxy(routing))
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        try (SessionFactory sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class)
+                .buildMetadata()
+                .buildSessionFactory()) {
+            SimpleJpaRepository<User, Long> target = new SimpleJpaRepository<>(User.class,
+                    SharedEntityManagerCreator.createSharedEntityManager(sessionFactory));
+            ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.addAdvice(new TransactionInterceptor(new JpaTransactionManager(sessionFactory),
+                    new AnnotationTransactionAttributeSource()));
+            JpaRepository<User, Long> users = (JpaRepository<User, Long>) proxyFactory.getProxy();
+
+            User user = users.findById(1L).orElseThrow();
+            assertEquals("alice@example.com", user.getEmail());
+            user.setFailedLoginAttempts(1);
+            users.save(user);
+
+            assertEquals("alice@example.com", emailIn(primaryDatabase));
+            assertEquals("old-alice@example.com", ReadWriteRoutingDataSource.onReplica(() -> users.findById(1L).orElseThrow().getEmail()));
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    void lagMonitorReadsMysqlReplicaStatus() throws SQLException {
+        DataSource replicaPool = mock(DataSource.class);
+        ResultSet status = replicaStatus(replicaPool);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPool, "SHOW REPLICA STATUS", 2000, 1000);
+
+        when(status.getLong(2)).thenReturn(1L);
+        monitor.check();
+        assertTrue(monitor.isReplicaAvailable());
+        assertEquals(1000, monitor.getLagMs());
+
+        when(status.getLong(2)).thenReturn(5L);
+        monitor.check();
+        assertFalse(monitor.isReplicaAvailable());
+
+        // Seconds_Behind_Source is NULL while replication is stopped
+        when(status.getLong(2)).thenReturn(0L);
+        when(status.wasNull()).thenReturn(true);
+        monitor.check();
+        assertFalse(monitor.isReplicaAvailable());
+        assertEquals(-1, monitor.getLagMs());
+
+        // no row at all: the server is not replicating
+        when(status.wasNull()).thenReturn(false);
+        when(status.getLong(2)).thenReturn(1L);
+        monitor.check();
+        assertTrue(monitor.isReplicaAvailable());
+        when(status.next()).thenReturn(false);
+        monitor.check();
+        assertFalse(monitor.isReplicaAvailable());
+        assertEquals(-1, monitor.getLagMs());
+
+        when(replicaPool.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.check();
+        assertFalse(monitor.isReplicaAvailable());
+    }
+
+    private static void insertUser(DataSource database, String email) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("insert into roles (id, role_name) values (1, 'ROLE_USER')");
+        jdbcTemplate.update("insert into users (id, username, email, password, enabled, account_non_locked, "
+                + "account_non_expired, credentials_non_expired, failed_login_attempts, is_two_factor_enabled, "
+                + "sign_up_method, role_id, created_at) values (1, 'alice', ?, 'password-hash', true, true, true, true, 0, false, "
+                + "'email', 1, current_timestamp)", email);
+    }
+
+    private static String emailIn(DataSource database) {
+        return new JdbcTemplate(database).queryForObject("select email from users where id = 1", String.class);
+    }
+
+    private Connection connectionUsed() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            // The lazy proxy only acquires a real connection once it is used
+            connection.createStatement();
+            return ((ConnectionProxy) connection).getTargetConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResultSet replicaStatus(DataSource replicaPool) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(replicaPool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(anyInt())).thenAnswer(i -> (int) i.getArgument(0) == 2 ? "Seconds_Behind_Source" : "Replica_IO_State");
+        return rs;
+    }
+}
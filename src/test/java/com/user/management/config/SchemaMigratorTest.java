@@ -0,0 +1,360 @@
+package com.user.management.config;
+
+import com.user.management.models.AuditLog;
+import com.user.management.models.AuditRollup;
+import com.user.management.models.EmailDeadLetter;
+import com.user.management.models.EmailOutbox;
+import com.user.management.models.Keep;
+import com.user.management.models.MailCampaign;
+import com.user.management.models.PasswordReset;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the migrations on an embedded H2 database in MySQL mode and validates the mappings against
+ * the result, as {@code ddl-auto=validate} does at startup. The scripts are also compared with the
+ * DDL Hibernate generates for MySQL, and the migrator's history handling is driven over a stubbed
+ * connection.
+ */
+class SchemaMigratorTest {
+
+    private static final Pattern CREATED = Pattern.compile("create (table|index) (\\w+)");
+    private static final Class<?>[] MAPPED = {User.class, Role.class, Keep.class, AuditLog.class, PasswordReset.class,
+            AuditRollup.class, EmailDeadLetter.class, EmailOutbox.class, MailCampaign.class};
+
+    private StandardServiceRegistry registry;
+
+    @AfterEach
+    void close() {
+        if (registry != null) {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    void migrationsAreOrderedByVersion() {
+        List<SchemaMigrator.Migration> migrations = SchemaMigrator.loadMigrations(new PathMatchingResourcePatternResolver());
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), migrations.stream().map(SchemaMigrator.Migration::version).toList());
+        assertEquals("baseline schema", migrations.get(0).description());
+    }
+
+    @Test
+    void baselineCreatesOnlyTheSchemaThatPredatesMigrations() throws IOException {
+        String baseline = StreamUtils.copyToString(SchemaMigrator.loadMigrations(new PathMatchingResourcePatternResolver())
+                .get(0).script().getInputStream(), StandardCharsets.UTF_8);
+
+        List<String> tables = CREATED.matcher(baseline).results().map(table -> table.group(2)).toList();
+        assertEquals(List.of("audit_log", "keep", "password_reset", "roles", "users"), tables);
+        assertFalse(baseline.contains("tokens_valid_after"));
+    }
+
+    @Test
+    void migrationsRunOnAnEmbeddedDatabaseAndTheMappingsValidate() throws SQLException {
+        DataSource dataSource = H2MySqlDatabase.migrated();
+        new SchemaMigrator(dataSource).migrate();
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), new ArrayList<>(history(dataSource).keySet()));
+        assertTrue(history(dataSource).values().stream().allMatch(checksum -> checksum != null));
+        validate(dataSource);
+    }
+
+    @Test
+    void baselineDatabaseIsMigratedToTheMappedSchema() throws SQLException {
+        DataSource dataSource = H2MySqlDatabase.empty();
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, migrations().get(0).script());
+        }
+
+        new SchemaMigrator(dataSource).migrate();
+        new SchemaMigrator(dataSource).migrate();
+
+        Map<Integer, Long> history = history(dataSource);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), new ArrayList<>(history.keySet()));
+        assertNull(history.get(1));
+        validate(dataSource);
+    }
+
+    @Test
+    void emailSignupsStoredDisabledAreEnabled() throws SQLException {
+        DataSource dataSource = H2MySqlDatabase.empty();
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, migrations().get(0).script());
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("insert into users (id, username, email, password, enabled, account_non_locked, "
+                        + "account_non_expired, credentials_non_expired, failed_login_attempts, is_two_factor_enabled, "
+                        + "sign_up_method) values "
+                        + "(1, 'unmade', 'unmade@example.com', 'hash', false, true, true, true, 0, false, null), "
+                        + "(2, 'disabled', 'disabled@example.com', 'hash', false, true, true, true, 0, false, 'email')");
+            }
+        }
+
+        new SchemaMigrator(dataSource).migrate();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select id, enabled from users order by id")) {
+            Map<Long, Boolean> enabled = new TreeMap<>();
+            while (rows.next()) {
+                enabled.put(rows.getLong(1), rows.getBoolean(2));
+            }
+            assertEquals(Map.of(1L, true, 2L, false), enabled);
+        }
+    }
+
+    @Test
+    void emptyDatabaseRunsEveryScript() throws SQLException {
+        StubbedDatabase database = new StubbedDatabase(Map.of());
+
+        migrator().applyPending(database.connection, migrations());
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), database.recordedVersions());
+        assertTrue(database.executedSql().contains("create table users"));
+        assertTrue(database.executedSql().contains("create table mail_campaign_recipient"));
+    }
+
+    @Test
+    void schemaWithoutHistoryIsBaselinedAndSkipsV1() throws SQLException {
+        StubbedDatabase database = new StubbedDatabase(Map.of()).withTables("users", "roles", "keep", "audit_log", "password_reset");
+
+        migrator().applyPending(database.connection, migrations());
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), database.recordedVersions());
+        assertNull(database.recordedChecksums().get(0), "the baseline has no script and so no checksum");
+        assertFalse(database.executedSql().contains("create table users"));
+        assertTrue(database.executedSql().contains("create table audit_rollup"));
+        assertTrue(database.executedSql().contains("add column tokens_valid_after"));
+    }
+
+    @Test
+    void schemaWithTablesOfLaterMigrationsIsNotBaselined() throws SQLException {
+        StubbedDatabase database = new StubbedDatabase(Map.of()).withTables("users", "email_outbox");
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> migrator().applyPending(database.connection, migrations()));
+
+        assertTrue(failure.getMessage().contains("email_outbox"), failure.getMessage());
+        assertEquals(List.of(), database.recordedVersions());
+        assertEquals("", database.executedSql());
+    }
+
+    @Test
+    void appliedScriptsAreSkipped() throws SQLException {
+        Map<Integer, Long> history = new HashMap<>();
+        history.put(1, null);
+        migrations().stream().skip(1).forEach(migration -> history.put(migration.version(), migration.checksum()));
+        StubbedDatabase database = new StubbedDatabase(history).withTables("users");
+
+        migrator().applyPending(database.connection, migrations());
+
+        assertEquals(List.of(), database.recordedVersions());
+        assertEquals("", database.executedSql());
+    }
+
+    @Test
+    void scriptChangedAfterItWasAppliedStopsStartup() throws SQLException {
+        SchemaMigrator.Migration v2 = migrations().get(1);
+        StubbedDatabase database = new StubbedDatabase(Map.of(1, migrations().get(0).checksum(), 2, v2.checksum() + 1))
+                .withTables("users");
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> migrator().applyPending(database.connection, migrations()));
+
+        assertTrue(failure.getMessage().contains("V2"), failure.getMessage());
+        assertEquals("", database.executedSql());
+    }
+
+    @Test
+    void migrationsCreateEveryMappedTableAndIndex(@TempDir Path dir) throws IOException {
+        String migrations = migrationsSql();
+        String generated = generatedSchema(dir.resolve("schema.sql"));
+
+        Matcher created = CREATED.matcher(generated);
+        int objects = 0;
+        while (created.find()) {
+            assertTrue(migrations.contains(created.group()), "not migrated: " + created.group());
+            objects++;
+        }
+        assertTrue(objects > 10);
+        assertFalse(generated.contains("tinytext"), "a @Lob column maps to tinytext");
+        for (String index : new String[]{"idx_keep_owner_username", "idx_audit_log_keep_id", "idx_audit_log_timestamp",
+                "idx_password_reset_expiry", "idx_users_role_id", "idx_users_created_at"}) {
+            assertTrue(migrations.contains("create index " + index), index);
+        }
+    }
+
+    private static Map<Integer, Long> history(DataSource dataSource) throws SQLException {
+        Map<Integer, Long> history = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select version, checksum from " + SchemaMigrator.HISTORY_TABLE)) {
+            while (rows.next()) {
+                int version = rows.getInt(1);
+                long checksum = rows.getLong(2);
+                history.put(version, rows.wasNull() ? null : checksum);
+            }
+        }
+        return history;
+    }
+
+    private void validate(DataSource dataSource) {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, H2MySqlDatabase.Dialect.class.getName())
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .build();
+        new MetadataSources(registry)
+                .addAnnotatedClasses(MAPPED)
+                .buildMetadata()
+                .buildSessionFactory()
+                .close();
+    }
+
+    private static SchemaMigrator migrator() {
+        return new SchemaMigrator(mock(DataSource.class));
+    }
+
+    private static List<SchemaMigrator.Migration> migrations() {
+        return SchemaMigrator.loadMigrations(new PathMatchingResourcePatternResolver());
+    }
+
+    private String migrationsSql() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (SchemaMigrator.Migration migration : SchemaMigrator.loadMigrations(new PathMatchingResourcePatternResolver())) {
+            sql.append(StreamUtils.copyToString(migration.script().getInputStream(), StandardCharsets.UTF_8)).append('\n');
+        }
+        return sql.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private String generatedSchema(Path target) throws IOException {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_ACTION, "create")
+                .applySetting(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_CREATE_TARGET, target.toString())
+                .build();
+        new MetadataSources(registry)
+                .addAnnotatedClasses(MAPPED)
+                .buildMetadata()
+                .buildSessionFactory()
+                .close();
+        return Files.readString(target).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A connection whose history table holds {@code history} and whose catalog holds the given
+     * tables. Script statements and history inserts are recorded rather than run.
+     */
+    private static class StubbedDatabase {
+
+        private final Connection connection = mock(Connection.class);
+        private final Set<String> tables = new HashSet<>();
+        private final List<String> executed = new ArrayList<>();
+        private final List<Integer> versions = new ArrayList<>();
+        private final List<Long> checksums = new ArrayList<>();
+
+        StubbedDatabase(Map<Integer, Long> history) throws SQLException {
+            Statement statement = mock(Statement.class);
+            when(connection.createStatement()).thenReturn(statement);
+            when(statement.execute(anyString())).thenAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                if (!sql.startsWith("create table if not exists " + SchemaMigrator.HISTORY_TABLE)) {
+                    executed.add(sql.toLowerCase(Locale.ROOT));
+                }
+                return false;
+            });
+            List<Map.Entry<Integer, Long>> rows = new ArrayList<>(history.entrySet());
+            when(statement.executeQuery(startsWith("select version, checksum from"))).thenAnswer(invocation -> {
+                ResultSet result = mock(ResultSet.class);
+                int[] row = {-1};
+                boolean[] lastReadWasNull = {false};
+                when(result.next()).thenAnswer(next -> ++row[0] < rows.size());
+                when(result.getInt(1)).thenAnswer(get -> {
+                    lastReadWasNull[0] = false;
+                    return rows.get(row[0]).getKey();
+                });
+                when(result.getLong(2)).thenAnswer(get -> {
+                    Long checksum = rows.get(row[0]).getValue();
+                    lastReadWasNull[0] = checksum == null;
+                    return checksum == null ? 0L : checksum;
+                });
+                when(result.wasNull()).thenAnswer(get -> lastReadWasNull[0]);
+                return result;
+            });
+
+            DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+            when(connection.getMetaData()).thenReturn(metaData);
+            when(metaData.getTables(any(), any(), anyString(), any())).thenAnswer(invocation -> {
+                ResultSet result = mock(ResultSet.class);
+                when(result.next()).thenReturn(tables.contains((String) invocation.getArgument(2)));
+                return result;
+            });
+
+            PreparedStatement insert = mock(PreparedStatement.class);
+            when(connection.prepareStatement(startsWith("insert into " + SchemaMigrator.HISTORY_TABLE))).thenReturn(insert);
+            doAnswer(invocation -> versions.add(invocation.getArgument(1))).when(insert).setInt(eq(1), anyInt());
+            doAnswer(invocation -> checksums.add(invocation.getArgument(1))).when(insert).setLong(eq(3), anyLong());
+            doAnswer(invocation -> checksums.add(null)).when(insert).setNull(eq(3), anyInt());
+        }
+
+        StubbedDatabase withTables(String... names) {
+            tables.addAll(List.of(names));
+            return this;
+        }
+
+        List<Integer> recordedVersions() {
+            return versions;
+        }
+
+        List<Long> recordedChecksums() {
+            return checksums;
+        }
+
+        String executedSql() {
+            return String.join("\n", executed);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.user.management.controller;
+
+import com.user.management.enums.HealthStatus;
+import com.user.management.response.HealthResponse;
+import com.user.management.services.IHealthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HealthControllerTest {
+
+    @Test
+    void publicReadinessCarriesOnlyTheVerdict() {
+        IHealthService healthService = mock(IHealthService.class);
+        Instant checkedAt = Instant.now();
+        when(healthService.readiness()).thenReturn(new HealthResponse(HealthStatus.DOWN, checkedAt,
+                Map.of("database", new HealthResponse.ProbeResult(HealthStatus.DOWN, 12,
+                        "SQLException: Access denied for user 'app'@'10.0.0.7'", null)),
+                Map.of("dbActiveConnections", 10, "replicaLagMillis", 4_000L)));
+
+        ResponseEntity<HealthResponse> response = new HealthController(healthService).readiness();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(HealthStatus.DOWN, response.getBody().getStatus());
+        assertEquals(checkedAt, response.getBody().getCheckedAt());
+        assertTrue(response.getBody().getProbes().isEmpty());
+        assertTrue(response.getBody().getSaturation().isEmpty());
+    }
+
+    @Test
+    void degradedNodeStaysInRotation() {
+        IHealthService healthService = mock(IHealthService.class);
+        when(healthService.readiness()).thenReturn(new HealthResponse(HealthStatus.DEGRADED, Instant.now(),
+                Map.of("mail", new HealthResponse.ProbeResult(HealthStatus.DOWN, 2_000, "Timed out after 2000 ms", null)),
+                Map.of()));
+
+        ResponseEntity<HealthResponse> response = new HealthController(healthService).readiness();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HealthStatus.DEGRADED, response.getBody().getStatus());
+    }
+}
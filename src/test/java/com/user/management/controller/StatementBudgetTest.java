@@ -0,0 +1,180 @@
+package com.user.management.controller;
+
+import com.user.management.config.H2MySqlDatabase;
+import com.user.management.config.QueryStatsConfig;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.PasswordResetRepository;
+import com.user.management.repositories.RoleRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.repositories.UserRepositoryImpl;
+import com.user.management.response.QueryStatsResponse;
+import com.user.management.security.QueryStatsFilter;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IEmailOutboxService;
+import com.user.management.services.IHealthService;
+import com.user.management.services.IMailCampaignService;
+import com.user.management.services.IMetricsService;
+import com.user.management.services.ITotpService;
+import com.user.management.services.IUserExportService;
+import com.user.management.services.IUserImportService;
+import com.user.management.services.IUserSearchService;
+import com.user.management.services.impl.QueryStatsService;
+import com.user.management.services.impl.UserService;
+import com.user.management.util.EmailService;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.Filter;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts how many statements an endpoint may issue per request. Requests go through MockMvc to
+ * {@link AdminController}, behind {@link QueryStatsFilter}, and the service behind each endpoint
+ * runs against a real Hibernate session factory, wired to {@link QueryStatsService} exactly as
+ * {@link QueryStatsConfig} wires it, over the migrated schema in an embedded database holding five
+ * users in two roles. Each request gets its own entity manager, open until the response is written,
+ * so statements issued while serializing count too. The second-level cache is off, so each budget
+ * is the cold-cache worst case: a mapping change that adds a per-row select or a join fetch that
+ * stops applying fails here. Security filters are not part of the chain.
+ */
+class StatementBudgetTest {
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private QueryStatsService queryStatsService;
+    private EntityManager entityManager;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        queryStatsService = new QueryStatsService(mock(ObjectProvider.class), mock(ObjectProvider.class), 3, 4);
+        Map<String, Object> settings = new HashMap<>();
+        new QueryStatsConfig().queryStatsHibernateCustomizer(queryStatsService).customize(settings);
+
+        DataSource dataSource = H2MySqlDatabase.migrated();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into roles (id, role_name) values (1, 'ROLE_USER'), (2, 'ROLE_ADMIN')");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("insert into users (id, username, email, password, enabled, account_non_locked, "
+                            + "account_non_expired, credentials_non_expired, failed_login_attempts, is_two_factor_enabled, "
+                            + "sign_up_method, role_id, created_at) values (?, ?, ?, 'hash', true, true, true, true, 0, false, "
+                            + "'email', ?, current_timestamp)",
+                    id, "user" + id, "user" + id + "@example.com", id == 1 ? 2L : 1L);
+        }
+
+        registry = new StandardServiceRegistryBuilder()
+                .applySettings(settings)
+                .applySetting(AvailableSettings.DIALECT, H2MySqlDatabase.Dialect.class.getName())
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        UserRepositoryImpl userRepositoryImpl = new UserRepositoryImpl();
+        when(userRepository.findAll()).thenAnswer(invocation -> new SimpleJpaRepository<>(User.class, entityManager).findAll());
+        when(roleRepository.findAll()).thenAnswer(invocation -> new SimpleJpaRepository<>(Role.class, entityManager).findAll());
+        when(userRepository.findUserSummaries(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            ReflectionTestUtils.setField(userRepositoryImpl, "entityManager", entityManager);
+            return userRepositoryImpl.findUserSummaries(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2), invocation.getArgument(3));
+        });
+        UserService userService = new UserService(userRepository, roleRepository, mock(PasswordResetRepository.class),
+                mock(EmailService.class), mock(ITotpService.class), mock(ApplicationEventPublisher.class),
+                mock(IUserSearchService.class), mock(IAdminStatsService.class), mock(IMailCampaignService.class),
+                mock(PlatformTransactionManager.class));
+        AdminController adminController = new AdminController(userService, mock(IUserSearchService.class),
+                mock(IUserImportService.class), mock(IUserExportService.class), mock(IAdminStatsService.class),
+                mock(IEmailOutboxService.class), mock(IMailCampaignService.class), mock(IMetricsService.class),
+                queryStatsService, mock(IHealthService.class));
+        Filter entityManagerPerRequest = (request, response, chain) -> {
+            entityManager = sessionFactory.createEntityManager();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                entityManager.close();
+            }
+        };
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController)
+                .addFilters(new QueryStatsFilter(queryStatsService), entityManagerPerRequest)
+                .build();
+    }
+
+    @AfterEach
+    void close() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void adminUserListingLoadsRolesOncePerRole() throws Exception {
+        assertBudget("/api/admin/users", 5, 3);
+    }
+
+    @Test
+    void adminUserPageIsOneQueryPlusRoles() throws Exception {
+        assertBudget("/api/admin/users/page", 5, 3);
+    }
+
+    @Test
+    void roleListingIsASingleQuery() throws Exception {
+        assertBudget("/api/admin/roles", 2, 1);
+    }
+
+    private void assertBudget(String path, int expectedRows, long budget) throws Exception {
+        String endpoint = "GET " + path;
+        String items = path.endsWith("/page") ? "$.data.items.length()" : "$.data.length()";
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(items).value(expectedRows));
+
+        QueryStatsResponse stats = queryStatsService.getStats();
+        QueryStatsResponse.EndpointQueries queries = stats.getEndpoints().stream()
+                .filter(e -> e.getEndpoint().equals(endpoint))
+                .findFirst()
+                .orElseGet(() -> fail("No statements recorded for " + endpoint + ": " + stats.getEndpoints()));
+        assertTrue(queries.getMaxStatements() <= budget,
+                endpoint + " issued " + queries.getMaxStatements() + " statements, budget is " + budget);
+        assertTrue(stats.getNPlusOneSuspects().stream().noneMatch(s -> s.getEndpoint().equals(endpoint)),
+                endpoint + " has N+1 suspects: " + stats.getNPlusOneSuspects());
+    }
+}
@@ -0,0 +1,37 @@
+package com.user.management.events;
+
+import com.user.management.models.User;
+import com.user.management.repositories.UserRepository;
+import com.user.management.security.TwoFactorChallengeStore;
+import com.user.management.services.ITotpService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class UserAccountsChangedListenerTest {
+
+    @Test
+    void dropsTheCachedStateOfEveryChangedUserOncePerBatch() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        UserRepository userRepository = mock(UserRepository.class);
+        ITotpService totpService = mock(ITotpService.class);
+        TwoFactorChallengeStore challengeStore = mock(TwoFactorChallengeStore.class);
+        UserAccountsChangedListener listener = new UserAccountsChangedListener(entityManagerFactory, userRepository,
+                totpService, challengeStore);
+
+        listener.onAccountsChanged(new UserAccountsChangedEvent(List.of(3L, 4L), true));
+
+        verify(cache).evict(User.class, 3L);
+        verify(cache).evict(User.class, 4L);
+        verify(totpService).evictSecret(3L);
+        verify(totpService).evictSecret(4L);
+        verify(userRepository, times(1)).evictLookupQueries();
+        verify(challengeStore, times(1)).dropChallenges(List.of(3L, 4L));
+    }
+}
@@ -0,0 +1,143 @@
+package com.user.management.models;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Answers.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class PooledIdGeneratorTest {
+
+    private StandardServiceRegistry registry;
+
+    @AfterEach
+    void close() {
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void everyEntityGetsItsOwnSegmentWithTheConfiguredAllocationSize() {
+        SessionFactoryImplementor sessionFactory = buildSessionFactory(25);
+
+        Set<String> segments = new HashSet<>();
+        for (Class<?> entity : new Class<?>[]{User.class, Keep.class, AuditLog.class, PasswordReset.class}) {
+            var persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entity);
+            PooledIdGenerator generator = assertInstanceOf(PooledIdGenerator.class, persister.getGenerator());
+            assertEquals(PooledIdGenerator.TABLE, generator.getTableName());
+            assertTrue(segments.add(generator.getSegmentValue()), generator.getSegmentValue());
+            assertEquals(25, generator.getIncrementSize());
+            assertInstanceOf(PooledLoOptimizer.class, generator.getOptimizer());
+        }
+    }
+
+    /**
+     * Counts JDBC round trips for a bulk insert over a mocked connection. With identity ids every
+     * row is its own executeUpdate, because Hibernate must read the generated key back; with pooled
+     * ids 500 rows take one id-block read per 50 rows and one executeBatch per 50 rows.
+     */
+    @Test
+    void bulkInsertTakesOneBatchAndOneIdBlockPerAllocation() throws SQLException {
+        AtomicLong nextVal = new AtomicLong(1);
+        AtomicInteger idBlockReads = new AtomicInteger();
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger singleInserts = new AtomicInteger();
+        Connection connection = mock(Connection.class, withSettings().defaultAnswer(invocation -> {
+            if (!invocation.getMethod().getName().equals("prepareStatement")) {
+                return RETURNS_DEFAULTS.answer(invocation);
+            }
+            String sql = invocation.getArgument(0);
+            int[] queued = {0};
+            return mock(PreparedStatement.class, withSettings().defaultAnswer(statement -> switch (statement.getMethod().getName()) {
+                case "executeQuery" -> {
+                    idBlockReads.incrementAndGet();
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.next()).thenReturn(true, false);
+                    when(rs.getLong(1)).thenReturn(nextVal.get());
+                    yield rs;
+                }
+                case "executeUpdate" -> {
+                    if (sql.contains(PooledIdGenerator.TABLE)) {
+                        nextVal.addAndGet(50);
+                    } else {
+                        singleInserts.incrementAndGet();
+                    }
+                    yield 1;
+                }
+                case "addBatch" -> {
+                    queued[0]++;
+                    yield null;
+                }
+                case "executeBatch" -> {
+                    batches.incrementAndGet();
+                    int[] counts = new int[queued[0]];
+                    Arrays.fill(counts, 1);
+                    queued[0] = 0;
+                    yield counts;
+                }
+                default -> RETURNS_DEFAULTS.answer(statement);
+            }));
+        }));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        SessionFactoryImplementor sessionFactory = buildSessionFactory(50, Map.of(
+                AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource,
+                AvailableSettings.STATEMENT_BATCH_SIZE, 50,
+                AvailableSettings.ORDER_INSERTS, true));
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < 500; i++) {
+                AuditLog auditLog = new AuditLog();
+                auditLog.setAction("BENCHMARK");
+                session.persist(auditLog);
+            }
+            session.getTransaction().commit();
+        }
+
+        assertEquals(0, singleInserts.get());
+        assertEquals(10, batches.get());
+        assertEquals(10, idBlockReads.get());
+    }
+
+    private SessionFactoryImplementor buildSessionFactory(int allocationSize) {
+        return buildSessionFactory(allocationSize, Map.of());
+    }
+
+    private SessionFactoryImplementor buildSessionFactory(int allocationSize, Map<String, Object> settings) {
+        registry = new StandardServiceRegistryBuilder()
+                .applySettings(settings)
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(PooledIdGenerator.ALLOCATION_SIZE_SETTING, allocationSize)
+                .build();
+        SessionFactory sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class, Keep.class, AuditLog.class, PasswordReset.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        return sessionFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
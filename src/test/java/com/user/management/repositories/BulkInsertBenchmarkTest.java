@@ -0,0 +1,94 @@
+package com.user.management.repositories;
+
+import com.user.management.models.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares bulk insert throughput with one round trip per row, which is what identity ids force
+ * on Hibernate, against pooled ids with JDBC batching. Needs a database, so it runs only with
+ * {@code -Dbenchmarks=true} against a configured datasource; the round-trip counts it depends on
+ * are asserted on every build by {@code PooledIdGeneratorTest}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class BulkInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+    private static final int ROWS = 5000;
+    private static final String ACTION = "BENCHMARK";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from audit_log where action = ?", ACTION);
+    }
+
+    @Test
+    void bulkInsertThroughput() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        long start = System.nanoTime();
+        long firstId = idSequenceRepository.reserve(AuditLog.class, ROWS);
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                jdbcTemplate.update("insert into audit_log (id, action, username, timestamp) values (?, ?, ?, ?)",
+                        firstId + i, ACTION, "row-" + i, now);
+            }
+        });
+        double rowByRow = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        transaction.executeWithoutResult(status -> auditLogRepository.saveAll(entries()));
+        double batched = rowsPerSecond(start);
+
+        log.info("Bulk insert of {} audit rows: {} rows/s one per round trip, {} rows/s batched ({}x)",
+                ROWS, Math.round(rowByRow), Math.round(batched), String.format("%.1f", batched / rowByRow));
+        assertEquals(2L * ROWS, jdbcTemplate.queryForObject("select count(*) from audit_log where action = ?",
+                Long.class, ACTION));
+    }
+
+    private static List<AuditLog> entries() {
+        List<AuditLog> entries = new ArrayList<>(ROWS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            AuditLog entry = new AuditLog();
+            entry.setAction(ACTION);
+            entry.setUsername("row-" + i);
+            entry.setTimestamp(now);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static double rowsPerSecond(long startNanos) {
+        return ROWS / ((System.nanoTime() - startNanos) / 1e9);
+    }
+}
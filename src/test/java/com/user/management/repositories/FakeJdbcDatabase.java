@@ -0,0 +1,184 @@
+package com.user.management.repositories;
+
+import org.mockito.stubbing.Answer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.mockito.Answers.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-memory stand-in for the database behind a Hibernate session factory, built from Mockito mocks
+ * of the JDBC interfaces. It understands just enough of the SQL Hibernate generates to answer it: the
+ * select list is read by {@code alias.column}, joined tables are matched through their foreign key,
+ * and a leading {@code where alias.column = ?} or {@code in (?, ...)} on the driving table filters
+ * by the bound values. Every other condition, ordering and limit is ignored, so the rows returned
+ * are a superset of what a real database would return, which is what a statement count needs.
+ * Rows may be changed between statements to stand in for writes made elsewhere.
+ */
+public class FakeJdbcDatabase {
+
+    private static final Pattern TABLE_ALIAS = Pattern.compile("\\b(?:from|join)\\s+(\\w+)\\s+(\\w+)");
+    private static final Pattern COLUMN_FILTER = Pattern.compile("\\bwhere\\s+(\\w+)\\.(\\w+)\\s*(?:=\\s*\\?|in\\s*\\()");
+    private static final Pattern SELECT_ITEM = Pattern.compile("^(\\w+)\\.(\\w+)$");
+
+    private final Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+    private final Map<String, String> foreignKeys = new HashMap<>();
+
+    /**
+     * Registers the column that rows of other tables use to reference {@code table}.
+     */
+    public FakeJdbcDatabase foreignKey(String table, String column) {
+        foreignKeys.put(table, column);
+        return this;
+    }
+
+    public FakeJdbcDatabase row(String table, Object... columnsAndValues) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        tables.computeIfAbsent(table, k -> new ArrayList<>()).add(row);
+        return this;
+    }
+
+    /**
+     * Sets {@code column} on the rows of {@code table} whose id is {@code id}.
+     */
+    public void update(String table, long id, String column, Object value) {
+        tables.getOrDefault(table, List.of()).stream()
+                .filter(row -> matches(id, row.get("id")))
+                .forEach(row -> row.put(column, value));
+    }
+
+    public DataSource dataSource() {
+        Connection connection = mock(Connection.class, withSettings().defaultAnswer(invocation ->
+                invocation.getMethod().getName().equals("prepareStatement")
+                        ? statement(invocation.getArgument(0))
+                        : RETURNS_DEFAULTS.answer(invocation)));
+        return mock(DataSource.class, withSettings().defaultAnswer(invocation ->
+                invocation.getMethod().getReturnType() == Connection.class
+                        ? connection
+                        : RETURNS_DEFAULTS.answer(invocation)));
+    }
+
+    private PreparedStatement statement(String sql) {
+        Map<Integer, Object> parameters = new HashMap<>();
+        return mock(PreparedStatement.class, withSettings().defaultAnswer(invocation -> {
+            String name = invocation.getMethod().getName();
+            Object[] args = invocation.getArguments();
+            if (name.startsWith("set") && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, args[1]);
+                return null;
+            }
+            if (name.equals("executeQuery")) {
+                return resultSet(query(sql, parameters));
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        }));
+    }
+
+    private List<Object[]> query(String sql, Map<Integer, Object> parameters) {
+        String lower = sql.toLowerCase();
+        Map<String, String> aliases = new LinkedHashMap<>();
+        Matcher tableAlias = TABLE_ALIAS.matcher(lower);
+        while (tableAlias.find()) {
+            aliases.put(tableAlias.group(2), tableAlias.group(1));
+        }
+        String drivingAlias = aliases.keySet().iterator().next();
+        Matcher columnFilter = COLUMN_FILTER.matcher(lower);
+        String filterColumn = columnFilter.find() && columnFilter.group(1).equals(drivingAlias) ? columnFilter.group(2) : null;
+
+        String[] items = lower.substring(lower.indexOf("select") + 6, lower.indexOf(" from ")).split(",");
+        List<Object[]> result = new ArrayList<>();
+        for (Map<String, Object> row : tables.getOrDefault(aliases.get(drivingAlias), List.of())) {
+            if (filterColumn != null && parameters.values().stream().noneMatch(value -> matches(value, row.get(filterColumn)))) {
+                continue;
+            }
+            Object[] values = new Object[items.length];
+            for (int i = 0; i < items.length; i++) {
+                Matcher item = SELECT_ITEM.matcher(items[i].trim());
+                if (item.matches()) {
+                    Map<String, Object> source = item.group(1).equals(drivingAlias)
+                            ? row : joined(aliases.get(item.group(1)), row);
+                    values[i] = source == null ? null : source.get(item.group(2));
+                }
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private Map<String, Object> joined(String table, Map<String, Object> from) {
+        Object key = from.get(foreignKeys.get(table));
+        return tables.getOrDefault(table, List.of()).stream()
+                .filter(row -> matches(key, row.get("id")))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean matches(Object parameter, Object value) {
+        if (parameter instanceof Number x && value instanceof Number y) {
+            return x.longValue() == y.longValue();
+        }
+        return parameter != null && parameter.equals(value);
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) {
+        int[] cursor = {-1};
+        Object[] last = {null};
+        Answer<Object> answer = invocation -> {
+            String name = invocation.getMethod().getName();
+            Object[] args = invocation.getArguments();
+            if (name.equals("next")) {
+                return ++cursor[0] < rows.size();
+            }
+            if (name.equals("wasNull")) {
+                return last[0] == null;
+            }
+            if (name.startsWith("get") && args.length >= 1 && args[0] instanceof Integer column) {
+                last[0] = rows.get(cursor[0])[column - 1];
+                Class<?> type = args.length == 2 && args[1] instanceof Class<?> requested
+                        ? requested : invocation.getMethod().getReturnType();
+                return convert(last[0], type);
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        };
+        return mock(ResultSet.class, withSettings().defaultAnswer(answer));
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (value == null) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            return type == int.class ? 0 : null;
+        }
+        if (value instanceof Number number) {
+            if (type == long.class || type == Long.class) {
+                return number.longValue();
+            }
+            if (type == int.class || type == Integer.class) {
+                return number.intValue();
+            }
+        }
+        if (type == String.class) {
+            return value.toString();
+        }
+        return value;
+    }
+}
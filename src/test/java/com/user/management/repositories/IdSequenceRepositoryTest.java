@@ -0,0 +1,77 @@
+package com.user.management.repositories;
+
+import com.user.management.models.AuditLog;
+import com.user.management.models.Keep;
+import com.user.management.models.PasswordReset;
+import com.user.management.models.PooledIdGenerator;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdSequenceRepositoryTest {
+
+    private StandardServiceRegistry registry;
+    private JdbcTemplate jdbcTemplate;
+    private IdSequenceRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .build();
+        SessionFactoryImplementor sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class, Keep.class, AuditLog.class, PasswordReset.class)
+                .buildMetadata()
+                .buildSessionFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(startsWith("select max("), eq(Long.class))).thenReturn(41L);
+        repository = new IdSequenceRepository(jdbcTemplate, mock(PlatformTransactionManager.class), entityManagerFactory);
+        ReflectionTestUtils.setField(repository, "cutoverMargin", 10_000L);
+    }
+
+    @AfterEach
+    void close() {
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void newSequenceRowsStartTheCutoverMarginAboveExistingIds() {
+        when(jdbcTemplate.queryForObject(startsWith("select count(*)"), eq(Integer.class), anyString())).thenReturn(0);
+
+        repository.alignWithExistingIds();
+
+        verify(jdbcTemplate).update(startsWith("insert into " + PooledIdGenerator.TABLE), eq("audit_log"), eq(10_042L));
+    }
+
+    @Test
+    void existingSequenceRowsAreOnlyRaisedToTheExistingIds() {
+        when(jdbcTemplate.update(startsWith("update " + PooledIdGenerator.TABLE), eq(42L), anyString(), eq(42L))).thenReturn(1);
+
+        repository.alignWithExistingIds();
+
+        verify(jdbcTemplate).update(startsWith("update " + PooledIdGenerator.TABLE), eq(42L), eq("audit_log"), eq(42L));
+        verify(jdbcTemplate, never()).update(startsWith("insert into"), any(), any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.user.management.repositories;
+
+import com.user.management.config.InProcessRegionFactory;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the username lookups against a session factory with the in-process second-level cache over
+ * a {@link FakeJdbcDatabase}, counting the statements that reach it. Each lookup uses its own
+ * entity manager, as each request does.
+ */
+class UserLookupCacheTest {
+
+    private static final int USERS = 10;
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private FakeJdbcDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeJdbcDatabase()
+                .foreignKey("roles", "role_id")
+                .row("roles", "id", 1L, "role_name", "ROLE_USER");
+        for (long id = 1; id <= USERS; id++) {
+            database.row("users", "id", id, "username", "user" + id, "email", "user" + id + "@example.com",
+                    "password", "hash", "role_id", 1L, "enabled", true, "account_non_locked", true,
+                    "account_non_expired", true, "credentials_non_expired", true, "failed_login_attempts", 0,
+                    "is_two_factor_enabled", false, "sign_up_method", "email");
+        }
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, database.dataSource())
+                .applySetting(AvailableSettings.CACHE_REGION_FACTORY, new InProcessRegionFactory(100, 60_000))
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .applySetting(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE")
+                .applySetting(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    statements.incrementAndGet();
+                    return sql;
+                })
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @AfterEach
+    void close() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void repeatedUsernameLookupsAreAnsweredFromTheCache() {
+        for (int id = 1; id <= USERS; id++) {
+            String username = "user" + id;
+            assertEquals(username + "@example.com", lookup(repository -> repository.findByUsername(username)).getEmail());
+        }
+        int cold = statements.getAndSet(0);
+        assertTrue(cold > 0);
+
+        for (int round = 0; round < 10; round++) {
+            for (int id = 1; id <= USERS; id++) {
+                String username = "user" + id;
+                assertNotNull(lookup(repository -> repository.findByUsername(username)));
+            }
+        }
+        assertEquals(0, statements.get());
+    }
+
+    @Test
+    void authenticationLoadBypassesTheCacheAndSeesWritesMadeElsewhere() {
+        assertTrue(lookup(repository -> repository.findByUsername("user1")).isAccountNonLocked());
+        database.update("users", 1L, "account_non_locked", false);
+        statements.set(0);
+
+        assertTrue(lookup(repository -> repository.findByUsername("user1")).isAccountNonLocked(),
+                "the cached lookup is expected to serve the entry it holds");
+        assertEquals(0, statements.get());
+
+        User user = lookup(repository -> repository.findByUsernameForAuthentication("user1"));
+        assertFalse(user.isAccountNonLocked());
+        assertEquals("ROLE_USER", user.getRole().getRoleName().name());
+        assertEquals(1, statements.get());
+    }
+
+    @Test
+    void authenticationLoadOfAnUnknownUserIsEmpty() {
+        assertNull(lookup(repository -> repository.findByUsernameForAuthentication("nobody")));
+    }
+
+    private User lookup(Function<UserRepositoryImpl, Optional<User>> load) {
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        try {
+            UserRepositoryImpl repository = new UserRepositoryImpl();
+            ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+            return load.apply(repository).orElse(null);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
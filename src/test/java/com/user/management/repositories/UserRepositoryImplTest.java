@@ -0,0 +1,138 @@
+package com.user.management.repositories;
+
+import com.user.management.config.H2MySqlDatabase;
+import com.user.management.enums.AppRole;
+import com.user.management.enums.UserSortField;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.UserSummaryResponse;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the admin listing queries on the migrated schema in an embedded database.
+ */
+class UserRepositoryImplTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 5, 2, 10, 0);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private UserRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = H2MySqlDatabase.migrated();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into roles (id, role_name) values (1, 'ROLE_USER'), (2, 'ROLE_ADMIN')");
+        // equal creation times on both sides of every page boundary, and two backfilled rows
+        insertUser(jdbcTemplate, 1, "carol", T2, 1, true);
+        insertUser(jdbcTemplate, 2, "alice", EPOCH, 2, true);
+        insertUser(jdbcTemplate, 3, "bob", T1, 1, false);
+        insertUser(jdbcTemplate, 4, "dave", T1, 1, true);
+        insertUser(jdbcTemplate, 5, "erin", EPOCH, 1, true);
+        insertUser(jdbcTemplate, 6, "frank", T1, 2, false);
+        insertUser(jdbcTemplate, 7, "grace", T2, 1, true);
+
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, H2MySqlDatabase.Dialect.class.getName())
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, Role.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+        repository = new UserRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void close() {
+        if (entityManager != null) {
+            entityManager.close();
+        }
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void pagesByCreationTimeWithoutSkipsOrRepeats() {
+        assertEquals(List.of(2L, 5L, 3L, 4L, 6L, 1L, 7L), pageThrough(UserSortField.CREATED_AT, Sort.Direction.ASC, new UserFilterRequest()));
+        assertEquals(List.of(7L, 1L, 6L, 4L, 3L, 5L, 2L), pageThrough(UserSortField.CREATED_AT, Sort.Direction.DESC, new UserFilterRequest()));
+    }
+
+    @Test
+    void pagesByUsernameAndId() {
+        assertEquals(List.of(2L, 3L, 1L, 4L, 5L, 6L, 7L), pageThrough(UserSortField.USERNAME, Sort.Direction.ASC, new UserFilterRequest()));
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), pageThrough(UserSortField.ID, Sort.Direction.DESC, new UserFilterRequest()));
+    }
+
+    @Test
+    void filtersApplyAcrossPages() {
+        UserFilterRequest filter = new UserFilterRequest();
+        filter.setRole(AppRole.ROLE_USER);
+        filter.setEnabled(true);
+        filter.setCreatedFrom(T1);
+
+        assertEquals(List.of(4L, 1L, 7L), pageThrough(UserSortField.CREATED_AT, Sort.Direction.ASC, filter));
+    }
+
+    private List<Long> pageThrough(UserSortField sortBy, Sort.Direction direction, UserFilterRequest filter) {
+        filter.setSortBy(sortBy);
+        filter.setDirection(direction);
+        List<Long> seen = new ArrayList<>();
+        Object afterValue = null;
+        Long afterId = null;
+        List<UserSummaryResponse> page;
+        do {
+            page = repository.findUserSummaries(filter, afterValue, afterId, 2);
+            for (UserSummaryResponse user : page) {
+                seen.add(user.getId());
+                afterId = user.getId();
+                afterValue = switch (sortBy) {
+                    case ID -> null;
+                    case USERNAME -> user.getUsername();
+                    case CREATED_AT -> user.getCreatedAt();
+                };
+            }
+        } while (page.size() == 2);
+        return seen;
+    }
+
+    private static void insertUser(JdbcTemplate jdbcTemplate, long id, String username, LocalDateTime createdAt,
+                                   long roleId, boolean enabled) {
+        jdbcTemplate.update("insert into users (id, username, email, password, enabled, account_non_locked, "
+                        + "account_non_expired, credentials_non_expired, failed_login_attempts, is_two_factor_enabled, "
+                        + "sign_up_method, role_id, created_at) values (?, ?, ?, 'hash', ?, true, true, true, 0, false, 'email', ?, ?)",
+                id, username, username + "@example.com", enabled, roleId, createdAt);
+    }
+}
@@ -0,0 +1,150 @@
+package com.user.management.security;
+
+import com.user.management.enums.AppRole;
+import com.user.management.enums.ResponseCode;
+import com.user.management.exceptions.UserMgmtException;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.UserRepository;
+import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.services.ITotpService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static com.user.management.enums.ResponseCode.TWO_FA_CHALLENGE_INVALID;
+import static com.user.management.enums.ResponseCode.TWO_FA_CODE_INVALID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TwoFactorChallengeStoreTest {
+
+    private static final int GOOD_CODE = 123456;
+
+    private ITotpService totpService;
+    private UserRepository userRepository;
+    private TwoFactorChallengeStore store;
+    private UserDetailsImpl alice;
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        totpService = mock(ITotpService.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findTwoFactorSecret(1L)).thenReturn(Optional.of("SECRET"));
+        when(totpService.verifyCode(eq(1L), anyInt(), any())).thenAnswer(invocation -> {
+            Supplier<String> secretLoader = invocation.getArgument(2);
+            return "SECRET".equals(secretLoader.get()) && (int) invocation.getArgument(1) == GOOD_CODE;
+        });
+        store = new TwoFactorChallengeStore(totpService, userRepository);
+        ReflectionTestUtils.setField(store, "challengeTtlMs", 60_000L);
+        ReflectionTestUtils.setField(store, "maxAttempts", 3);
+        alice = new UserDetailsImpl(1L, "alice", "alice@example.com", "hash", true, List.of());
+        stored = new User("alice", "alice@example.com", "hash");
+        stored.setId(1L);
+        stored.setEnabled(true);
+        stored.setTwoFactorEnabled(true);
+        stored.setRole(new Role(AppRole.ROLE_USER));
+        when(userRepository.findByUsernameForAuthentication("alice")).thenAnswer(invocation -> Optional.of(stored));
+    }
+
+    @Test
+    void loadsTheSecretOnlyWhenACodeIsCheckedAndClosesTheChallenge() {
+        String challengeId = store.issue(alice);
+        verifyNoInteractions(userRepository);
+
+        UserDetailsImpl verified = store.verify(challengeId, GOOD_CODE);
+        assertEquals(1L, verified.getId());
+        assertEquals("ROLE_USER", verified.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository).findTwoFactorSecret(1L);
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(challengeId, GOOD_CODE));
+    }
+
+    @Test
+    void dropsTheChallengeAfterTooManyWrongCodes() {
+        String challengeId = store.issue(alice);
+
+        assertCode(TWO_FA_CODE_INVALID, () -> store.verify(challengeId, 1));
+        assertCode(TWO_FA_CODE_INVALID, () -> store.verify(challengeId, 2));
+        assertCode(TWO_FA_CODE_INVALID, () -> store.verify(challengeId, 3));
+
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(challengeId, GOOD_CODE));
+    }
+
+    @Test
+    void concurrentGuessesCannotExceedTheAttemptLimit() throws Exception {
+        CountDownLatch checking = new CountDownLatch(1);
+        when(totpService.verifyCode(eq(1L), anyInt(), any())).thenAnswer(invocation -> {
+            checking.await();
+            return false;
+        });
+        String challengeId = store.issue(alice);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> guesses = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int code = i;
+                guesses.add(pool.submit(() -> assertThrows(UserMgmtException.class, () -> store.verify(challengeId, code))));
+            }
+            verify(totpService, timeout(5000).times(3)).verifyCode(eq(1L), anyInt(), any());
+            checking.countDown();
+            for (Future<?> guess : guesses) {
+                guess.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        verify(totpService, times(3)).verifyCode(eq(1L), anyInt(), any());
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(challengeId, GOOD_CODE));
+    }
+
+    @Test
+    void rightCodeIsRefusedOnceTheAccountIsLockedOrItsTokensRevoked() {
+        String lockedChallenge = store.issue(alice);
+        stored.setAccountNonLocked(false);
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(lockedChallenge, GOOD_CODE));
+
+        stored.setAccountNonLocked(true);
+        String revokedChallenge = store.issue(alice);
+        stored.setTokensValidAfter(LocalDateTime.now().plusSeconds(2));
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(revokedChallenge, GOOD_CODE));
+    }
+
+    @Test
+    void droppedChallengesCannotBeCompleted() {
+        String challengeId = store.issue(alice);
+
+        store.dropChallenges(List.of(1L));
+
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(challengeId, GOOD_CODE));
+    }
+
+    @Test
+    void rejectsAndPurgesExpiredChallenges() {
+        ReflectionTestUtils.setField(store, "challengeTtlMs", 0L);
+        String challengeId = store.issue(alice);
+
+        assertCode(TWO_FA_CHALLENGE_INVALID, () -> store.verify(challengeId, GOOD_CODE));
+        store.purgeExpired();
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(store, "challenges")).size());
+        verifyNoInteractions(totpService);
+    }
+
+    private static void assertCode(ResponseCode expected, Runnable call) {
+        UserMgmtException e = assertThrows(UserMgmtException.class, call::run);
+        assertEquals(expected.code(), e.getIBaseError().getErrorCode());
+    }
+}
@@ -0,0 +1,115 @@
+package com.user.management.security.jwt;
+
+import com.user.management.enums.AppRole;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.security.services.UserDetailsServiceImpl;
+import com.user.management.services.impl.MetricsService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthTokenFilterTest {
+
+    private static final String SECRET = "bXktdmVyeS1sb25nLXRlc3Qtc2lnbmluZy1zZWNyZXQtMzItYnl0ZXMhIQ==";
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 5, 1, 10, 0, 0);
+
+    private JwtUtils jwtUtils;
+    private UserDetailsServiceImpl userDetailsService;
+    private AuthTokenFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        user = new User("alice", "alice@example.com", "hash");
+        user.setId(7L);
+        user.setEnabled(true);
+        user.setRole(new Role(AppRole.ROLE_USER));
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserByUsername("alice")).thenAnswer(invocation -> UserDetailsImpl.build(user));
+
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "metricsService", new MetricsService());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void acceptsAValidTokenAndVerifiesItOnce() throws Exception {
+        assertTrue(authenticates(token(CUTOFF.plusHours(1))));
+        verify(jwtUtils, times(1)).parseValidClaims(anyString());
+        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeTheCutoffSecondOnly() throws Exception {
+        user.setTokensValidAfter(CUTOFF);
+
+        assertFalse(authenticates(token(CUTOFF.minusSeconds(1))));
+        assertTrue(authenticates(token(CUTOFF)), "issued in the second of the cut-off");
+        assertTrue(authenticates(token(CUTOFF.plusSeconds(1))));
+    }
+
+    @Test
+    void rejectsTokensOfLockedOrDisabledAccounts() throws Exception {
+        user.lockAccount();
+        assertFalse(authenticates(token(CUTOFF.plusHours(1))));
+
+        user.unlockAccount();
+        user.setEnabled(false);
+        assertFalse(authenticates(token(CUTOFF.plusHours(1))));
+    }
+
+    @Test
+    void cutoffWithSubSecondPrecisionStillAcceptsTokensOfTheSameSecond() {
+        user.setTokensValidAfter(CUTOFF.plusNanos(900_000_000));
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+
+        assertFalse(details.isTokenRevoked(Date.from(CUTOFF.atZone(ZoneId.systemDefault()).toInstant())));
+        assertTrue(details.isTokenRevoked(Date.from(CUTOFF.minusSeconds(1).atZone(ZoneId.systemDefault()).toInstant())));
+        assertTrue(details.isTokenRevoked(null));
+    }
+
+    private boolean authenticates(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/keeps");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+
+    private static String token(LocalDateTime issuedAt) {
+        Date issued = Date.from(issuedAt.atZone(ZoneId.systemDefault()).toInstant());
+        return Jwts.builder()
+                .subject("alice")
+                .issuedAt(issued)
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+}
@@ -0,0 +1,89 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.enums.AppRole;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.KeepRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.response.AdminStatsResponse;
+import com.user.management.response.UserStatusCounts;
+import com.user.management.services.IAuditLogs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AdminStatsServiceTest {
+
+    private UserRepository userRepository;
+    private KeepRepository keepRepository;
+    private AdminStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        keepRepository = mock(KeepRepository.class);
+        IAuditLogs auditLogService = mock(IAuditLogs.class);
+        when(auditLogService.getActivitySeries(any(), any(), any(), any(), any())).thenReturn(List.of());
+        statsService = new AdminStatsService(userRepository, keepRepository, auditLogService);
+        ReflectionTestUtils.setField(statsService, "statsKeepDays", 30);
+    }
+
+    @Test
+    void reconcileReplacesDriftedCounters() {
+        statsService.recordAccountStatusChange(AccountStatusField.LOCKED, true, 5);
+        when(userRepository.countUserStatuses()).thenReturn(new UserStatusCounts(10L, 9L, 1L, 0L, 0L, 2L));
+        when(userRepository.countUsersBySignUpMethod()).thenReturn(List.<Object[]>of(new Object[]{"EMAIL", 10L}));
+        when(keepRepository.count()).thenReturn(4L);
+
+        statsService.reconcile();
+
+        AdminStatsResponse stats = statsService.getStats();
+        assertEquals(10, stats.getTotalUsers());
+        assertEquals(1, stats.getLockedUsers());
+        assertEquals(2, stats.getTwoFactorEnabledUsers());
+        assertEquals(10L, stats.getUsersBySignUpMethod().get("email"));
+        assertEquals(4, stats.getTotalKeeps());
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    void reconcileKeepsIncrementsRecordedWhileCounting() {
+        User created = user();
+        when(userRepository.countUserStatuses()).thenAnswer(invocation -> {
+            // a sign-up commits after the count has been taken and records itself meanwhile
+            statsService.recordUserCreated(created);
+            return new UserStatusCounts(10L, 10L, 0L, 0L, 0L, 0L);
+        });
+        when(userRepository.countUsersBySignUpMethod()).thenReturn(List.<Object[]>of(new Object[]{"email", 10L}));
+        when(keepRepository.count()).thenReturn(0L);
+
+        statsService.reconcile();
+
+        AdminStatsResponse stats = statsService.getStats();
+        assertEquals(1, stats.getTotalUsers(), "the live counter is not overwritten");
+        assertEquals(1L, stats.getUsersBySignUpMethod().get("email"));
+        assertEquals(0, stats.getLockedUsers());
+
+        when(userRepository.countUserStatuses()).thenReturn(new UserStatusCounts(11L, 11L, 0L, 0L, 0L, 0L));
+        when(userRepository.countUsersBySignUpMethod()).thenReturn(List.<Object[]>of(new Object[]{"email", 11L}));
+        statsService.reconcile();
+
+        stats = statsService.getStats();
+        assertEquals(11, stats.getTotalUsers());
+        assertEquals(11L, stats.getUsersBySignUpMethod().get("email"));
+    }
+
+    private static User user() {
+        User user = new User("alice", "alice@example.com", "secret");
+        user.setRole(new Role(AppRole.ROLE_USER));
+        user.setSignUpMethod("EMAIL");
+        return user;
+    }
+}
@@ -0,0 +1,114 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.RollupResolution;
+import com.user.management.models.AuditRollup;
+import com.user.management.models.Keep;
+import com.user.management.repositories.AuditLogRepository;
+import com.user.management.repositories.AuditRollupRepository;
+import com.user.management.repositories.IdSequenceRepository;
+import com.user.management.response.AuditActivityPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.user.management.constants.Constants.CREATE_KEEP;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogServiceTest {
+
+    private AuditRollupRepository rollupRepository;
+    private PlatformTransactionManager transactionManager;
+    private AuditLogService auditLogService;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AuditRollupRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        IdSequenceRepository idSequenceRepository = mock(IdSequenceRepository.class);
+        when(idSequenceRepository.reserve(eq(AuditRollup.class), anyInt())).thenReturn(1L);
+        auditLogService = new AuditLogService(mock(AuditLogRepository.class), rollupRepository,
+                idSequenceRepository, transactionManager);
+    }
+
+    @Test
+    void flushUpsertsEveryResolutionOnceAndDrainsTheCounters() {
+        createKeeps("alice", 3);
+
+        auditLogService.flushRollups();
+
+        for (RollupResolution resolution : RollupResolution.values()) {
+            verify(rollupRepository).upsertCount(anyLong(), eq(resolution.name()), any(), eq(CREATE_KEEP), eq("alice"), eq(3L));
+        }
+        verify(transactionManager).commit(any());
+
+        clearInvocations(rollupRepository);
+        auditLogService.flushRollups();
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void failedFlushKeepsEveryCountForTheNextFlush() {
+        createKeeps("alice", 2);
+        createKeeps("bob", 1);
+        when(rollupRepository.upsertCount(anyLong(), anyString(), any(), anyString(), anyString(), anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+
+        auditLogService.flushRollups();
+        verify(transactionManager).rollback(any());
+
+        createKeeps("alice", 1);
+        clearInvocations(rollupRepository);
+        auditLogService.flushRollups();
+
+        verify(rollupRepository).upsertCount(anyLong(), eq("MINUTE"), any(), eq(CREATE_KEEP), eq("alice"), eq(3L));
+        verify(rollupRepository).upsertCount(anyLong(), eq("MINUTE"), any(), eq(CREATE_KEEP), eq("bob"), eq(1L));
+    }
+
+    @Test
+    void seriesCountsEachEventOnceAcrossAFlush() {
+        LocalDateTime from = LocalDateTime.now().minusHours(1);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        createKeeps("alice", 2);
+
+        List<AuditActivityPoint> pending = auditLogService.getActivitySeries(RollupResolution.DAY, from, to, null, null);
+        assertEquals(2L, pending.stream().mapToLong(AuditActivityPoint::getCount).sum());
+
+        auditLogService.flushRollups();
+        LocalDateTime dayStart = RollupResolution.DAY.truncate(from);
+        when(rollupRepository.findSeries(RollupResolution.DAY, dayStart, to, null, null))
+                .thenReturn(List.of(new AuditActivityPoint(RollupResolution.DAY.truncate(LocalDateTime.now()), CREATE_KEEP, 2L)));
+
+        List<AuditActivityPoint> flushed = auditLogService.getActivitySeries(RollupResolution.DAY, from, to, null, null);
+        assertEquals(2L, flushed.stream().mapToLong(AuditActivityPoint::getCount).sum());
+        verify(rollupRepository, times(2)).findSeries(RollupResolution.DAY, dayStart, to, null, null);
+    }
+
+    @Test
+    void pendingCountsBeforeAnUnalignedStartStayInTheirBucket() {
+        createKeeps("alice", 1);
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusSeconds(1);
+
+        List<AuditActivityPoint> series = auditLogService.getActivitySeries(RollupResolution.HOUR, from, to, null, null);
+
+        assertEquals(1L, series.stream().mapToLong(AuditActivityPoint::getCount).sum());
+        verify(rollupRepository).findSeries(RollupResolution.HOUR, RollupResolution.HOUR.truncate(from), to, null, null);
+    }
+
+    private void createKeeps(String username, int count) {
+        for (int i = 0; i < count; i++) {
+            Keep keep = new Keep("note " + i, username);
+            keep.setId((long) i);
+            auditLogService.logKeepCreation(username, keep);
+        }
+    }
+}
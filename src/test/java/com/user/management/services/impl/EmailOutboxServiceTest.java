@@ -0,0 +1,220 @@
+package com.user.management.services.impl;
+
+import com.user.management.models.EmailDeadLetter;
+import com.user.management.models.EmailOutbox;
+import com.user.management.repositories.EmailDeadLetterRepository;
+import com.user.management.repositories.EmailOutboxRepository;
+import com.user.management.util.DomainRateLimiter;
+import com.user.management.util.SmtpTransportPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxServiceTest {
+
+    private static final long RETRY_BASE_MS = 60000;
+
+    private FakeSmtpServer smtpServer;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool transportPool;
+    private EmailOutboxRepository outboxRepository;
+    private EmailDeadLetterRepository deadLetterRepository;
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+
+        transportPool = new SmtpTransportPool(mailSender, 2, 60000);
+        outboxRepository = mock(EmailOutboxRepository.class);
+        deadLetterRepository = mock(EmailDeadLetterRepository.class);
+        outboxService = newOutboxService(1000);
+    }
+
+    private EmailOutboxService newOutboxService(double domainRatePerSecond) {
+        return new EmailOutboxService(outboxRepository, deadLetterRepository, mailSender, transportPool,
+                new DomainRateLimiter(domainRatePerSecond), mock(PlatformTransactionManager.class),
+                "noreply@example.com", 1, 10, 3, RETRY_BASE_MS, 3600000, 300000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        outboxService.shutdown();
+        transportPool.close();
+        smtpServer.close();
+    }
+
+    @Test
+    void deliversBatchOverOneConnectionAndDeletesRows() {
+        queue(message(1L, 0), message(2L, 0), message(3L, 0));
+
+        outboxService.dispatch();
+
+        verify(outboxRepository, timeout(5000)).deleteById(1L);
+        verify(outboxRepository, timeout(5000)).deleteById(2L);
+        verify(outboxRepository, timeout(5000)).deleteById(3L);
+        assertEquals(3, smtpServer.messages().size());
+        assertEquals(1, smtpServer.connections());
+        assertTrue(smtpServer.messages().get(0).contains("Subject: Subject 1"));
+    }
+
+    @Test
+    void claimsTheBatchWithOneUpdateAndLoadsOnlyRowsWithItsLease() {
+        queue(message(1L, 0), message(2L, 0));
+
+        outboxService.dispatch();
+
+        ArgumentCaptor<Instant> claimLease = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> loadLease = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository).claim(eq(List.of(1L, 2L)), any(), claimLease.capture());
+        verify(outboxRepository).findClaimed(eq(List.of(1L, 2L)), loadLease.capture());
+        assertEquals(claimLease.getValue(), loadLease.getValue());
+        verify(outboxRepository, timeout(5000)).deleteById(2L);
+    }
+
+    @Test
+    void batchLostToAnotherDispatcherIsNotLoaded() {
+        when(outboxRepository.findDueIds(any(), any())).thenReturn(List.of(1L));
+        when(outboxRepository.claim(any(), any(), any())).thenReturn(0);
+
+        outboxService.dispatch();
+
+        verify(outboxRepository, never()).findClaimed(any(), any());
+        assertEquals(0, smtpServer.messages().size());
+    }
+
+    @Test
+    void deliveredMessageWhoseDeleteFailsIsMarkedSentNotRetried() {
+        doThrow(new RuntimeException("connection reset")).when(outboxRepository).deleteById(1L);
+        queue(message(1L, 0));
+
+        outboxService.dispatch();
+
+        verify(outboxRepository, timeout(5000)).markSent(eq(1L), any());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+        verify(deadLetterRepository, never()).save(any());
+        assertEquals(1, outboxService.getMetrics().getSent());
+    }
+
+    @Test
+    void deliveredMessageThatCannotBeRecordedIsNotSentAgain() {
+        doThrow(new RuntimeException("database down")).when(outboxRepository).deleteById(1L);
+        when(outboxRepository.markSent(eq(1L), any())).thenThrow(new RuntimeException("database down"));
+        queue(message(1L, 0));
+        outboxService.dispatch();
+        verify(outboxRepository, timeout(5000)).markSent(eq(1L), any());
+
+        // the lease expires and the row comes round again
+        queue(message(1L, 0));
+        outboxService.dispatch();
+        verify(outboxRepository, timeout(5000).times(2)).markSent(eq(1L), any());
+
+        assertEquals(1, smtpServer.messages().size());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void reusesPooledConnectionAcrossDispatches() {
+        queue(message(1L, 0));
+        outboxService.dispatch();
+        verify(outboxRepository, timeout(5000)).deleteById(1L);
+
+        queue(message(2L, 0));
+        outboxService.dispatch();
+        verify(outboxRepository, timeout(5000)).deleteById(2L);
+
+        assertEquals(1, smtpServer.connections());
+    }
+
+    @Test
+    void transientFailureIsRescheduledWithBackoff() {
+        smtpServer.replyToRecipients("451 Try again later");
+        queue(message(1L, 0));
+        Instant before = Instant.now();
+
+        outboxService.dispatch();
+
+        ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository, timeout(5000)).reschedule(eq(1L), eq(1), nextAttempt.capture(), anyString());
+        assertFalse(nextAttempt.getValue().isBefore(before.plusMillis(RETRY_BASE_MS / 2)));
+        assertFalse(nextAttempt.getValue().isAfter(Instant.now().plusMillis(RETRY_BASE_MS)));
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void permanentFailureIsDeadLettered() {
+        smtpServer.replyToRecipients("550 No such user");
+        queue(message(1L, 0));
+
+        outboxService.dispatch();
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(deadLetter.capture());
+        verify(outboxRepository, timeout(5000)).deleteById(1L);
+        assertEquals(1, deadLetter.getValue().getAttempts());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void exhaustedRetriesAreDeadLettered() {
+        smtpServer.replyToRecipients("451 Try again later");
+        queue(message(1L, 2));
+
+        outboxService.dispatch();
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(deadLetter.capture());
+        assertEquals(3, deadLetter.getValue().getAttempts());
+    }
+
+    @Test
+    void messagesOverDomainRateAreDeferredWithoutUsingAnAttempt() {
+        outboxService.shutdown();
+        outboxService = newOutboxService(1);
+        queue(message(1L, 0), message(2L, 0));
+        Instant before = Instant.now();
+
+        outboxService.dispatch();
+
+        verify(outboxRepository, timeout(5000)).deleteById(1L);
+        ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository, timeout(5000)).defer(eq(2L), nextAttempt.capture());
+        assertTrue(nextAttempt.getValue().isAfter(before));
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+        assertEquals(1, smtpServer.messages().size());
+    }
+
+    private void queue(EmailOutbox... messages) {
+        List<Long> ids = Arrays.stream(messages).map(EmailOutbox::getId).toList();
+        when(outboxRepository.findDueIds(any(), any())).thenReturn(ids).thenReturn(List.of());
+        when(outboxRepository.claim(eq(ids), any(), any())).thenReturn(ids.size());
+        when(outboxRepository.findClaimed(eq(ids), any())).thenReturn(List.of(messages));
+    }
+
+    private static EmailOutbox message(Long id, int attempts) {
+        EmailOutbox message = EmailOutbox.builder()
+                .recipient("user" + id + "@example.com")
+                .subject("Subject " + id)
+                .body("<p>Hello " + id + "</p>")
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+        message.setId(id);
+        return message;
+    }
+}
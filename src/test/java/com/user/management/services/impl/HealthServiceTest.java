@@ -0,0 +1,126 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.HealthStatus;
+import com.user.management.response.HealthResponse;
+import com.user.management.security.jwt.JwtUtils;
+import com.user.management.util.SmtpTransportPool;
+import io.jsonwebtoken.security.WeakKeyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class HealthServiceTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final SmtpTransportPool smtpTransportPool = mock(SmtpTransportPool.class);
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    @SuppressWarnings("unchecked")
+    private final HealthService healthService = new HealthService(dataSource, smtpTransportPool, jwtUtils, mock(ObjectProvider.class),
+            10_000, 200, List.of(HealthService.DATABASE, HealthService.MAIL));
+
+    @AfterEach
+    void shutdown() {
+        healthService.shutdown();
+    }
+
+    @Test
+    void notReadyUntilTheFirstRoundCompletes() {
+        assertEquals(HealthStatus.UNKNOWN, healthService.readiness().getStatus());
+        assertEquals(HealthStatus.UP, healthService.liveness().getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unknownReadinessProbeFailsStartup() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new HealthService(dataSource,
+                smtpTransportPool, jwtUtils, mock(ObjectProvider.class), 10_000, 200, List.of(HealthService.DATABASE, "databse")));
+        assertTrue(e.getMessage().contains("databse"));
+    }
+
+    @Test
+    void readyWhenEveryReadinessProbeIsUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(smtpTransportPool.probe()).thenReturn(false);
+        doThrow(new WeakKeyException("too short")).when(jwtUtils).verifyKeyMaterial();
+
+        healthService.runProbes();
+
+        HealthResponse readiness = healthService.readiness();
+        assertEquals(HealthStatus.DEGRADED, readiness.getStatus());
+        assertEquals(true, readiness.getProbes().get(HealthService.MAIL).getDetails().get("allConnectionsBusy"));
+        // jwt is not a readiness probe here, so its failure degrades the node without failing readiness
+        assertEquals(HealthStatus.DOWN, readiness.getProbes().get(HealthService.JWT).getStatus());
+        assertTrue(readiness.getSaturation().containsKey("hashesInFlight"));
+        verify(connection).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mailOutageOnlyDegradesTheNode() throws Exception {
+        HealthService service = new HealthService(dataSource, smtpTransportPool, jwtUtils, mock(ObjectProvider.class),
+                10_000, 200, List.of(HealthService.DATABASE, HealthService.JWT));
+        try {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(smtpTransportPool.probe()).thenThrow(new IllegalStateException("Connection refused"));
+
+            service.runProbes();
+
+            HealthResponse readiness = service.readiness();
+            assertEquals(HealthStatus.DEGRADED, readiness.getStatus());
+            assertEquals("IllegalStateException: Connection refused", readiness.getProbes().get(HealthService.MAIL).getError());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void failingProbeMakesTheNodeUnready() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Communications link failure"));
+        when(smtpTransportPool.probe()).thenReturn(true);
+
+        healthService.runProbes();
+
+        HealthResponse readiness = healthService.readiness();
+        assertEquals(HealthStatus.DOWN, readiness.getStatus());
+        assertEquals("SQLException: Communications link failure",
+                readiness.getProbes().get(HealthService.DATABASE).getError());
+        assertEquals(HealthStatus.UP, healthService.liveness().getStatus());
+    }
+
+    @Test
+    void hangingProbeTimesOutAndIsNotStartedTwice() throws Exception {
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(60_000);
+            return null;
+        });
+        when(smtpTransportPool.probe()).thenAnswer(invocation -> {
+            synchronized (this) {
+                wait();
+            }
+            return true;
+        });
+
+        long start = System.nanoTime();
+        healthService.runProbes();
+        healthService.runProbes();
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        HealthResponse readiness = healthService.readiness();
+        assertEquals(HealthStatus.DOWN, readiness.getStatus());
+        assertEquals("Timed out after 200 ms", readiness.getProbes().get(HealthService.DATABASE).getError());
+        verify(smtpTransportPool, times(1)).probe();
+    }
+}
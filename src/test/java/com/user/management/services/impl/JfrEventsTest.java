@@ -0,0 +1,183 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.AppRole;
+import com.user.management.models.EmailOutbox;
+import com.user.management.models.Keep;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.AuditLogRepository;
+import com.user.management.repositories.AuditRollupRepository;
+import com.user.management.repositories.EmailDeadLetterRepository;
+import com.user.management.repositories.EmailOutboxRepository;
+import com.user.management.repositories.IdSequenceRepository;
+import com.user.management.repositories.KeepRepository;
+import com.user.management.repositories.RoleRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.LoginRequest;
+import com.user.management.security.TimedPasswordEncoder;
+import com.user.management.security.TwoFactorChallengeStore;
+import com.user.management.security.jwt.AuthTokenFilter;
+import com.user.management.security.jwt.JwtUtils;
+import com.user.management.security.services.UserDetailsImpl;
+import com.user.management.security.services.UserDetailsServiceImpl;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IUserSearchService;
+import com.user.management.util.DomainRateLimiter;
+import com.user.management.util.SmtpTransportPool;
+import io.jsonwebtoken.Jwts;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Records a short workload with the shipped JFR settings profile and checks that every domain
+ * event type shows up with its fields filled in.
+ */
+class JfrEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void workloadEmitsDomainEvents() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/usermanagement.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path file = dir.resolve("workload.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            runWorkload();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.user.management."))
+                .collect(Collectors.toMap(event -> event.getEventType().getName(), Function.identity(), (a, b) -> a));
+
+        assertEquals("SUCCESS", events.get("com.user.management.SignIn").getString("outcome"));
+        assertTrue(events.get("com.user.management.SignIn").getDuration("hashDuration").toNanos() > 0);
+        assertEquals("VALID", events.get("com.user.management.TokenVerification").getString("outcome"));
+        assertEquals(7L, events.get("com.user.management.UserDetailsLoad").getLong("userId"));
+        assertNotNull(events.get("com.user.management.PasswordHash"));
+        assertEquals(42L, events.get("com.user.management.KeepOperation").getLong("keepId"));
+        assertEquals("SUCCESS", events.get("com.user.management.KeepOperation").getString("outcome"));
+        assertEquals("alice", events.get("com.user.management.AuditWrite").getString("username"));
+        assertEquals("SENT", events.get("com.user.management.EmailSend").getString("outcome"));
+    }
+
+    private void runWorkload() throws Exception {
+        TimedPasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4));
+        User user = new User("alice", "alice@example.com", encoder.encode("secret"));
+        user.setId(7L);
+        user.setEnabled(true);
+        user.setRole(new Role(AppRole.ROLE_USER));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsernameForAuthentication("alice")).thenReturn(Optional.of(user));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository);
+
+        // sign-in
+        AuthenticationManager authenticationManager = authentication -> {
+            UserDetailsImpl principal = (UserDetailsImpl) userDetailsService.loadUserByUsername(authentication.getName());
+            assertTrue(encoder.matches(authentication.getCredentials().toString(), principal.getPassword()));
+            return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        };
+        JwtUtils jwtUtils = mock(JwtUtils.class);
+        when(jwtUtils.generateTokenFromUsername(any())).thenReturn("jwt");
+        AuthService authService = new AuthService(jwtUtils, authenticationManager, userRepository,
+                mock(RoleRepository.class), encoder, mock(UserService.class), mock(IUserSearchService.class),
+                mock(IAdminStatsService.class), mock(TwoFactorChallengeStore.class));
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("alice");
+        loginRequest.setPassword("secret");
+        authService.signIn(loginRequest);
+
+        // token verification
+        when(jwtUtils.getJwtFromHeader(any())).thenReturn("header.payload.signature");
+        when(jwtUtils.parseValidClaims(anyString())).thenReturn(Jwts.claims().subject("alice").issuedAt(new Date()).build());
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "metricsService", new MetricsService());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/keeps"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // keep create, with its audit write
+        KeepRepository keepRepository = mock(KeepRepository.class);
+        when(keepRepository.save(any())).thenAnswer(invocation -> {
+            Keep keep = invocation.getArgument(0);
+            keep.setId(42L);
+            return keep;
+        });
+        KeepService keepService = new KeepService(keepRepository,
+                new AuditLogService(mock(AuditLogRepository.class), mock(AuditRollupRepository.class),
+                        mock(IdSequenceRepository.class), mock(PlatformTransactionManager.class)),
+                mock(IAdminStatsService.class));
+        keepService.createKeepForUser("hello", UserDetailsImpl.build(user));
+
+        // email send
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer()) {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(smtpServer.port());
+            SmtpTransportPool transportPool = new SmtpTransportPool(mailSender, 1, 60000);
+            EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+            EmailOutbox message = EmailOutbox.builder()
+                    .recipient("alice@example.com")
+                    .subject("Hello")
+                    .body("<p>Hello</p>")
+                    .nextAttemptAt(Instant.now())
+                    .createdAt(Instant.now())
+                    .build();
+            message.setId(1L);
+            when(outboxRepository.findDueIds(any(), any())).thenReturn(List.of(1L)).thenReturn(List.of());
+            when(outboxRepository.claim(eq(List.of(1L)), any(), any())).thenReturn(1);
+            when(outboxRepository.findClaimed(eq(List.of(1L)), any())).thenReturn(List.of(message));
+            EmailOutboxService outboxService = new EmailOutboxService(outboxRepository, mock(EmailDeadLetterRepository.class),
+                    mailSender, transportPool, new DomainRateLimiter(1000), mock(PlatformTransactionManager.class),
+                    "noreply@example.com", 1, 10, 3, 60000, 3600000, 300000);
+            outboxService.dispatch();
+            verify(outboxRepository, timeout(5000)).deleteById(1L);
+            outboxService.shutdown();
+            transportPool.close();
+        }
+    }
+}
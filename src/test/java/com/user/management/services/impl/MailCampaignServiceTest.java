@@ -0,0 +1,195 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.management.enums.EmailTemplate;
+import com.user.management.enums.MailCampaignState;
+import com.user.management.models.EmailOutbox;
+import com.user.management.models.MailCampaign;
+import com.user.management.repositories.EmailDeadLetterRepository;
+import com.user.management.repositories.EmailOutboxRepository;
+import com.user.management.repositories.MailCampaignRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.MailCampaignRequest;
+import com.user.management.response.UserSearchResult;
+import com.user.management.util.EmailTemplateRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailCampaignServiceTest {
+
+    private static final long CAMPAIGN_ID = 5L;
+
+    private MailCampaignRepository campaignRepository;
+    private EmailOutboxRepository outboxRepository;
+    private UserRepository userRepository;
+    private EmailTemplateRegistry templateRegistry;
+    private MailCampaignService campaignService;
+    private MailCampaign campaign;
+
+    @BeforeEach
+    void setUp() {
+        campaignRepository = mock(MailCampaignRepository.class);
+        outboxRepository = mock(EmailOutboxRepository.class);
+        userRepository = mock(UserRepository.class);
+        templateRegistry = mock(EmailTemplateRegistry.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        campaignService = new MailCampaignService(campaignRepository, outboxRepository, mock(EmailDeadLetterRepository.class),
+                userRepository, templateRegistry, new ObjectMapper(), transactionManager, 2);
+        ReflectionTestUtils.setField(campaignService, "campaignBatchSize", 2);
+        ReflectionTestUtils.setField(campaignService, "campaignRetryMs", 0L);
+
+        campaign = MailCampaign.builder()
+                .template(EmailTemplate.ACCOUNT_LOCKED)
+                .state(MailCampaignState.PREPARING)
+                .startedAt(Instant.now())
+                .build();
+        campaign.setId(CAMPAIGN_ID);
+        when(campaignRepository.save(any(MailCampaign.class))).thenAnswer(invocation -> {
+            MailCampaign saved = invocation.getArgument(0);
+            saved.setId(CAMPAIGN_ID);
+            return saved;
+        });
+        when(campaignRepository.findById(CAMPAIGN_ID)).thenAnswer(invocation -> Optional.of(campaign));
+        when(campaignRepository.advanceCheckpoint(eq(CAMPAIGN_ID), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(templateRegistry.render(eq(EmailTemplate.ACCOUNT_LOCKED), anyMap()))
+                .thenAnswer(invocation -> "<p>" + invocation.<Map<String, ?>>getArgument(1).get("username") + "</p>");
+        when(userRepository.findSearchEntriesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new UserSearchResult(id, "user" + id, "user" + id + "@example.com")).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        campaignService.shutdown();
+    }
+
+    @Test
+    void startCampaignStoresRecipientsAsRowsInChunks() {
+        when(campaignRepository.findRecipientIds(eq(CAMPAIGN_ID), anyLong(), anyInt())).thenReturn(List.of());
+        MailCampaignRequest request = new MailCampaignRequest();
+        request.setTemplate(EmailTemplate.ACCOUNT_LOCKED);
+        request.setUserIds(List.of(3L, 1L, 2L, 1L));
+
+        campaignService.startCampaign(request);
+
+        verify(campaignRepository).addRecipients(CAMPAIGN_ID, List.of(1L, 2L));
+        verify(campaignRepository).addRecipients(CAMPAIGN_ID, List.of(3L));
+        ArgumentCaptor<MailCampaign> saved = ArgumentCaptor.forClass(MailCampaign.class);
+        verify(campaignRepository, atLeastOnce()).save(saved.capture());
+        assertNull(saved.getAllValues().get(0).getCriteria());
+    }
+
+    @Test
+    void launchedCampaignSendsToItsRecordedRecipients() {
+        recipients(List.of(2L, 3L), List.of(9L));
+
+        campaignService.launchCampaign(CAMPAIGN_ID);
+
+        awaitState(MailCampaignState.COMPLETED);
+        List<String> queued = queuedRecipients();
+        assertEquals(List.of("user2@example.com", "user3@example.com", "user9@example.com"), queued);
+        verify(campaignRepository).advanceCheckpoint(CAMPAIGN_ID, 0L, 3L, 2, 0);
+        verify(campaignRepository).advanceCheckpoint(CAMPAIGN_ID, 3L, 9L, 1, 0);
+        verify(userRepository, never()).findRecipients(any(), any(), anyInt());
+    }
+
+    @Test
+    void batchThatKeepsFailingIsSkippedAndTheCampaignCarriesOn() {
+        recipients(List.of(1L, 2L), List.of(3L));
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<EmailOutbox> batch = invocation.getArgument(0);
+            if (batch.get(0).getRecipient().equals("user1@example.com")) {
+                throw new RuntimeException("deadlock");
+            }
+            return batch;
+        });
+
+        campaignService.launchCampaign(CAMPAIGN_ID);
+
+        awaitState(MailCampaignState.COMPLETED);
+        verify(outboxRepository, times(4)).saveAll(anyList());
+        verify(campaignRepository).advanceCheckpoint(CAMPAIGN_ID, 0L, 2L, 0, 2);
+        verify(campaignRepository).advanceCheckpoint(CAMPAIGN_ID, 2L, 3L, 1, 0);
+        assertEquals("deadlock", campaign.getLastError());
+    }
+
+    @Test
+    void recipientWhoseMailCannotBeRenderedIsSkipped() {
+        recipients(List.of(1L, 2L));
+        when(templateRegistry.render(EmailTemplate.ACCOUNT_LOCKED, Map.of("username", "user1")))
+                .thenThrow(new IllegalStateException("template error"));
+
+        campaignService.launchCampaign(CAMPAIGN_ID);
+
+        awaitState(MailCampaignState.COMPLETED);
+        assertEquals(List.of("user2@example.com"), queuedRecipients());
+        verify(campaignRepository).advanceCheckpoint(CAMPAIGN_ID, 0L, 2L, 1, 1);
+    }
+
+    @Test
+    void runnerStopsWithoutWritingWhenAnotherMovedTheCheckpoint() {
+        campaign.setState(MailCampaignState.RUNNING);
+        recipients(List.of(1L, 2L), List.of(3L));
+        when(campaignRepository.advanceCheckpoint(CAMPAIGN_ID, 0L, 2L, 2, 0)).thenReturn(0);
+
+        campaignService.launchCampaign(CAMPAIGN_ID);
+
+        verify(campaignRepository, timeout(5000)).advanceCheckpoint(CAMPAIGN_ID, 0L, 2L, 2, 0);
+        verify(campaignRepository, after(200).never()).advanceCheckpoint(eq(CAMPAIGN_ID), eq(2L), anyLong(), anyLong(), anyLong());
+        verify(outboxRepository, never()).saveAll(anyList());
+        verify(campaignRepository, never()).save(any(MailCampaign.class));
+    }
+
+    @Test
+    void preparedCampaignsAreResumedOnStart() {
+        when(campaignRepository.findByStateIn(anyCollection())).thenReturn(List.of(campaign));
+        recipients(List.of(4L));
+
+        campaignService.resumeCampaigns();
+
+        awaitState(MailCampaignState.COMPLETED);
+        assertEquals(List.of("user4@example.com"), queuedRecipients());
+    }
+
+    @SafeVarargs
+    private void recipients(List<Long>... pages) {
+        List<Long> all = new ArrayList<>();
+        for (List<Long> page : pages) {
+            all.addAll(page);
+        }
+        when(campaignRepository.findRecipientIds(eq(CAMPAIGN_ID), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return all.stream().filter(id -> id > afterId).limit(limit).toList();
+        });
+    }
+
+    private void awaitState(MailCampaignState state) {
+        verify(campaignRepository, timeout(5000).atLeastOnce()).save(argThat(saved -> saved.getState() == state));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> queuedRecipients() {
+        ArgumentCaptor<List<EmailOutbox>> batches = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, atLeastOnce()).saveAll(batches.capture());
+        return batches.getAllValues().stream().flatMap(List::stream).map(EmailOutbox::getRecipient).distinct().toList();
+    }
+}
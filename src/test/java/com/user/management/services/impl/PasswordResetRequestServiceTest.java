@@ -0,0 +1,89 @@
+package com.user.management.services.impl;
+
+import com.user.management.exceptions.ValidationException;
+import com.user.management.services.IUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordResetRequestServiceTest {
+
+    private IUserService userService;
+    private MetricsService metricsService;
+    private PasswordResetRequestService requestService;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(IUserService.class);
+        metricsService = new MetricsService();
+        requestService = new PasswordResetRequestService(userService, metricsService);
+        ReflectionTestUtils.setField(requestService, "resetRequestWindowMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestService.shutdown();
+    }
+
+    @Test
+    void coalescesRepeatedRequestsForTheSameAddressWithinTheWindow() {
+        requestService.requestReset("alice@example.com");
+        requestService.requestReset("Alice@Example.com ");
+        requestService.requestReset("alice@example.com");
+        requestService.requestReset("bob@example.com");
+
+        verify(userService, timeout(5000)).generatePasswordResetToken("alice@example.com");
+        verify(userService, timeout(5000)).generatePasswordResetToken("bob@example.com");
+        verify(userService, after(200).times(2)).generatePasswordResetToken(anyString());
+    }
+
+    @Test
+    void acceptsTheAddressAgainOnceTheWindowHasPassed() {
+        ReflectionTestUtils.setField(requestService, "resetRequestWindowMs", 0L);
+
+        requestService.requestReset("alice@example.com");
+        verify(userService, timeout(5000)).generatePasswordResetToken("alice@example.com");
+        requestService.purgeExpired();
+        requestService.requestReset("alice@example.com");
+
+        verify(userService, timeout(5000).times(2)).generatePasswordResetToken("alice@example.com");
+    }
+
+    @Test
+    void requestsThatFindTheQueueFullAreCountedAndCanBeRetried() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(userService).generatePasswordResetToken(anyString());
+        try {
+            // two busy workers and a full queue
+            for (int i = 0; i < 10_002; i++) {
+                requestService.requestReset("user" + i + "@example.com");
+            }
+            verify(userService, timeout(5000).times(2)).generatePasswordResetToken(anyString());
+
+            requestService.requestReset("late@example.com");
+            requestService.requestReset("late@example.com");
+
+            assertTrue(metricsService.scrape().contains("password_reset_requests_dropped_total 2\n"),
+                    metricsService.scrape());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectsBlankAddresses() {
+        assertThrows(ValidationException.class, () -> requestService.requestReset(" "));
+        verifyNoInteractions(userService);
+    }
+}
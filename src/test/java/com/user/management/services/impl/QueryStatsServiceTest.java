@@ -0,0 +1,96 @@
+package com.user.management.services.impl;
+
+import com.user.management.response.QueryStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class QueryStatsServiceTest {
+
+    private static final String SELECT_USER = "select u1_0.user_id,u1_0.role_id from users u1_0 where u1_0.user_name=?";
+    private static final String SELECT_ROLE = "select r1_0.role_id,r1_0.role_name from roles r1_0 where r1_0.role_id=?";
+
+    @SuppressWarnings("unchecked")
+    private final QueryStatsService service = new QueryStatsService(mock(ObjectProvider.class), mock(ObjectProvider.class), 3, 4);
+
+    @Test
+    void countsStatementsPerEndpoint() {
+        request("POST /api/auth/public/signin", SELECT_USER, SELECT_ROLE);
+        request("POST /api/auth/public/signin", SELECT_USER, SELECT_ROLE, SELECT_ROLE);
+
+        QueryStatsResponse.EndpointQueries signIn = service.getStats().getEndpoints().get(0);
+        assertEquals("POST /api/auth/public/signin", signIn.getEndpoint());
+        assertEquals(2, signIn.getRequests());
+        assertEquals(5, signIn.getStatements());
+        assertEquals(3, signIn.getMaxStatements());
+        assertFalse(service.getStats().isStatisticsEnabled());
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() {
+        service.onStatement(SELECT_USER);
+        service.endRequest("GET /api/admin/users");
+        assertTrue(service.getStats().getEndpoints().isEmpty());
+    }
+
+    @Test
+    void repeatedShapeWithinARequestIsAnNPlusOneSuspect() {
+        request("GET /api/admin/users", SELECT_USER, SELECT_ROLE, SELECT_ROLE);
+        assertTrue(service.getStats().getNPlusOneSuspects().isEmpty());
+
+        request("GET /api/admin/users", SELECT_USER, SELECT_ROLE, SELECT_ROLE, SELECT_ROLE, SELECT_ROLE);
+        request("GET /api/admin/users", SELECT_USER, SELECT_ROLE, SELECT_ROLE, SELECT_ROLE);
+
+        QueryStatsResponse.NPlusOneSuspect suspect = service.getStats().getNPlusOneSuspects().get(0);
+        assertEquals("GET /api/admin/users", suspect.getEndpoint());
+        assertEquals(SELECT_ROLE, suspect.getSql());
+        assertEquals(2, suspect.getRequests());
+        assertEquals(4, suspect.getMaxRepeats());
+    }
+
+    @Test
+    void slowQueriesAreAttributedToTheirEndpointAndKeptInABoundedRing() {
+        service.beginRequest();
+        service.onStatement(SELECT_USER);
+        service.onSlowQuery("com.mysql.cj.jdbc.ClientPreparedStatement: select * from users where user_name='alice' "
+                + "and user_id in (1, 2, 3)", 450);
+        service.endRequest("GET /api/admin/users/search");
+        for (int i = 0; i < 4; i++) {
+            service.onSlowQuery("delete from password_reset_tokens where expiry_date<'2026-10-19 10:00:00' limit 500", 300 + i);
+        }
+
+        var slowQueries = service.getStats().getSlowQueries();
+        assertEquals(4, slowQueries.size());
+        assertEquals(303, slowQueries.get(0).getMillis());
+        assertEquals("delete from password_reset_tokens where expiry_date<? limit ?", slowQueries.get(0).getSql());
+        assertNull(slowQueries.get(0).getEndpoint());
+
+        service.onSlowQuery("select 1", 250);
+        service.beginRequest();
+        service.onSlowQuery("select * from users where user_name='bob' and user_id in (4, 5)", 500);
+        service.endRequest("GET /api/admin/users/search");
+        QueryStatsResponse.SlowQuery latest = service.getStats().getSlowQueries().get(0);
+        assertEquals("select * from users where user_name=? and user_id in (?...)", latest.getSql());
+        assertEquals(2, latest.getParameterCount());
+        assertEquals("GET /api/admin/users/search", latest.getEndpoint());
+    }
+
+    @Test
+    void shapeKeepsAliasesAndPlaceholders() {
+        assertEquals("select u1_0.user_id from users u1_0 where u1_0.role_id=? limit ?",
+                QueryStatsService.shapeOf("select u1_0.user_id from users u1_0\n  where u1_0.role_id=? limit 20"));
+        assertEquals("update users set version=? where user_id in (?...)",
+                QueryStatsService.shapeOf("update users set version=-1 where user_id in (?, ?,?)"));
+    }
+
+    private void request(String endpoint, String... statements) {
+        service.beginRequest();
+        for (String statement : statements) {
+            service.onStatement(statement);
+        }
+        service.endRequest(endpoint);
+    }
+}
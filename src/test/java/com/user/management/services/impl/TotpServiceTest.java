@@ -0,0 +1,91 @@
+package com.user.management.services.impl;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotpServiceTest {
+
+    // RFC 6238 appendix B seed "12345678901234567890"
+    private static final String SECRET = "GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ";
+
+    @Test
+    void matchesRfcTestVectors() {
+        assertEquals(287082, TotpService.generateCode(TotpService.decode(SECRET), 59 / 30));
+        assertEquals(81804, TotpService.generateCode(TotpService.decode(SECRET), 1111111109L / 30));
+        assertEquals(50471, TotpService.generateCode(TotpService.decode(SECRET), 1111111111L / 30));
+    }
+
+    @Test
+    void decodesLowerCaseSecretsUnderAnyDefaultLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            String secret = "IFBEGRCFIZDUQSKKJNGE2TSPKBIVEU2U";
+            assertArrayEquals(TotpService.decode(secret).getEncoded(),
+                    TotpService.decode(secret.toLowerCase(Locale.ROOT)).getEncoded());
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    void agreesWithGoogleAuthenticator() {
+        GoogleAuthenticator gAuth = new GoogleAuthenticator();
+        String secret = gAuth.createCredentials().getKey();
+        int code = gAuth.getTotpPassword(secret);
+
+        assertTrue(new TotpService(gAuth).verifyCode(secret, code));
+    }
+
+    @Test
+    void rejectsReplayedAndOlderCodesAndLoadsSecretOnce() {
+        TotpService service = serviceAt(1111111111L);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(service.verifyCode(1L, 50471, () -> {
+            loads.incrementAndGet();
+            return SECRET;
+        }));
+        assertFalse(service.verifyCode(1L, 50471, () -> SECRET));
+        assertFalse(service.verifyCode(1L, 81804, () -> SECRET), "code for an earlier step after a later one was accepted");
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void replayMarkersAreIndependentPerUser() {
+        TotpService service = serviceAt(1111111111L);
+
+        assertTrue(service.verifyCode(1L, 50471, () -> SECRET));
+        assertTrue(service.verifyCode(2L, 50471, () -> SECRET));
+    }
+
+    @Test
+    void reloadsSecretAfterEviction() {
+        TotpService service = serviceAt(1111111111L);
+        AtomicInteger loads = new AtomicInteger();
+
+        service.verifyCode(1L, 0, () -> {
+            loads.incrementAndGet();
+            return SECRET;
+        });
+        service.evictSecret(1L);
+        service.verifyCode(1L, 0, () -> {
+            loads.incrementAndGet();
+            return SECRET;
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static TotpService serviceAt(long epochSecond) {
+        return new TotpService(new GoogleAuthenticator(), Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,144 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.user.management.enums.AppRole;
+import com.user.management.enums.ExportFormat;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.UserSummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserExportServiceTest {
+
+    private static final int ROWS = 200_000;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExportService exportService = new UserExportService(userRepository,
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @ParameterizedTest
+    @CsvSource({"CSV,false", "CSV,true", "NDJSON,false"})
+    void writesEachRowBeforeTheNextIsFetched(ExportFormat format, boolean gzip) {
+        RowSource source = new RowSource(ROWS);
+        when(userRepository.streamUserSummaries(any(UserFilterRequest.class), anyInt())).thenReturn(source.stream());
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        exportService.exportUsers(new UserFilterRequest(), format, gzip, out);
+
+        assertEquals(ROWS, source.produced.get());
+        assertEquals(1, source.maxUnwritten, "rows were buffered before being written");
+        assertTrue(source.closed.get(), "cursor stream was not closed");
+        if (!gzip) {
+            assertEquals(ROWS + (format == ExportFormat.CSV ? 1 : 0), out.lines);
+        }
+        assertTrue(out.bytes > 0);
+    }
+
+    @Test
+    void quotesCsvFieldsThatNeedIt() {
+        UserSummaryResponse user = new UserSummaryResponse(7L, "o\"brien", "a,b@example.com", AppRole.ROLE_USER,
+                true, true, true, true, false, "email", null);
+        when(userRepository.streamUserSummaries(any(UserFilterRequest.class), anyInt())).thenReturn(Stream.of(user));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(null, ExportFormat.CSV, false, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals("7,\"o\"\"brien\",\"a,b@example.com\",ROLE_USER,true,true,true,true,false,email,", lines[1]);
+    }
+
+    /**
+     * Lazily generates rows and records how many were handed out before the previous one was
+     * serialised; createdAt is the last field either format reads.
+     */
+    private static final class RowSource {
+        private final int rows;
+        private final AtomicLong produced = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private long maxUnwritten;
+
+        private RowSource(int rows) {
+            this.rows = rows;
+        }
+
+        private Stream<UserSummaryResponse> stream() {
+            Iterator<UserSummaryResponse> iterator = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return produced.get() < rows;
+                }
+
+                @Override
+                public UserSummaryResponse next() {
+                    long id = produced.incrementAndGet();
+                    maxUnwritten = Math.max(maxUnwritten, id - written.get());
+                    return new TrackedRow(id, written);
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(() -> closed.set(true));
+        }
+    }
+
+    private static final class TrackedRow extends UserSummaryResponse {
+        private final AtomicLong written;
+        private boolean serialised;
+
+        private TrackedRow(long id, AtomicLong written) {
+            super(id, "user" + id, "user" + id + "@example.com", AppRole.ROLE_USER, true, true, true, true,
+                    false, "email", LocalDateTime.of(2024, 1, 1, 0, 0));
+            this.written = written;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            if (!serialised) {
+                serialised = true;
+                written.incrementAndGet();
+            }
+            return super.getCreatedAt();
+        }
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.user.management.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user.management.enums.AppRole;
+import com.user.management.enums.ImportFormat;
+import com.user.management.enums.ImportJobState;
+import com.user.management.models.Role;
+import com.user.management.models.User;
+import com.user.management.repositories.IdSequenceRepository;
+import com.user.management.repositories.RoleRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.response.ImportJobStatus;
+import com.user.management.response.ImportRowError;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IUserSearchService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private UserRepository userRepository;
+    private IUserSearchService userSearchService;
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userSearchService = mock(IUserSearchService.class);
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        for (AppRole appRole : AppRole.values()) {
+            Role role = new Role(appRole);
+            role.setId((long) appRole.ordinal() + 1);
+            when(roleRepository.findByRoleName(appRole)).thenReturn(Optional.of(role));
+        }
+        IdSequenceRepository idSequenceRepository = mock(IdSequenceRepository.class);
+        when(idSequenceRepository.reserve(eq(User.class), anyInt())).thenReturn(100L);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+
+        importService = new UserImportService(mock(JdbcTemplate.class), transactionManager, userRepository,
+                idSequenceRepository, roleRepository, encoder, userSearchService, mock(IAdminStatsService.class),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), 2);
+        ReflectionTestUtils.setField(importService, "importBatchSize", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void malformedRowsCountAsProcessed() throws Exception {
+        ImportJobStatus status = runImport(ImportFormat.NDJSON, """
+                {"username":"alice","email":"alice@example.com","password":"secret1"}
+                {"username":"bob",
+                {"username":"carol","email":"carol@example.com","password":"secret3"}
+                """);
+
+        assertEquals(ImportJobState.COMPLETED, status.getState());
+        assertEquals(3, status.getProcessedRows());
+        assertEquals(2, status.getImportedRows());
+        assertEquals(1, status.getFailedRows());
+        assertEquals(status.getProcessedRows(), status.getImportedRows() + status.getFailedRows());
+        assertEquals(2, status.getErrors().get(0).getLine());
+        verify(userSearchService).index(100L, "alice", "alice@example.com");
+        verify(userSearchService).index(101L, "carol", "carol@example.com");
+    }
+
+    @Test
+    void rowsAreValidatedWithTheSignupConstraints() throws Exception {
+        ImportJobStatus status = runImport(ImportFormat.CSV, """
+                username,email,password
+                alice,alice@example.com,secret1
+                al,al@example.com,secret2
+                dave,not-an-email,secret4
+                erin,erin@example.com,123
+                """);
+
+        assertEquals(4, status.getProcessedRows());
+        assertEquals(1, status.getImportedRows());
+        assertEquals(3, status.getFailedRows());
+        List<ImportRowError> errors = status.getErrors();
+        assertEquals(List.of(3L, 4L, 5L), errors.stream().map(ImportRowError::getLine).toList());
+        assertTrue(errors.get(0).getMessage().startsWith("username: "), errors.get(0).getMessage());
+        assertTrue(errors.get(1).getMessage().startsWith("email: "), errors.get(1).getMessage());
+        assertTrue(errors.get(2).getMessage().startsWith("password: "), errors.get(2).getMessage());
+    }
+
+    @Test
+    void existingUsersAreRejected() throws Exception {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("Alice"));
+
+        ImportJobStatus status = runImport(ImportFormat.CSV, """
+                username,email,password
+                alice,alice@example.com,secret1
+                bob,bob@example.com,secret2
+                """);
+
+        assertEquals(2, status.getProcessedRows());
+        assertEquals(1, status.getImportedRows());
+        assertEquals(1, status.getFailedRows());
+        assertEquals(2, status.getErrors().get(0).getLine());
+    }
+
+    private ImportJobStatus runImport(ImportFormat format, String body) throws InterruptedException {
+        ImportJobStatus status = importService.submitImport(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (status.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = importService.getImportStatus(status.getJobId());
+        }
+        assertNotNull(status.getFinishedAt(), "import did not finish");
+        return status;
+    }
+}
@@ -0,0 +1,77 @@
+package com.user.management.services.impl;
+
+import com.user.management.repositories.UserRepository;
+import com.user.management.response.UserSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class UserSearchServiceTest {
+
+    private final UserSearchService userSearchService = new UserSearchService(mock(UserRepository.class), 10_000);
+
+    @Test
+    void reindexingTheSameUsersKeepsTheIndexBounded() {
+        for (int round = 0; round < 50; round++) {
+            for (long id = 1; id <= 100; id++) {
+                userSearchService.index(id, "user" + id + "r" + round, "user" + id + "@example.com");
+            }
+        }
+
+        assertTrue(userSearchService.slotCount() <= 100 + 1024 + 100,
+                "slots: " + userSearchService.slotCount());
+        List<UserSearchResult> results = userSearchService.search("user42r49", 10);
+        assertEquals(1, results.size());
+        assertEquals(42L, results.get(0).getId());
+        assertTrue(userSearchService.search("user42r48", 10).isEmpty());
+    }
+
+    @Test
+    void removedUsersAreNotReturnedAfterCompaction() {
+        for (long id = 1; id <= 3000; id++) {
+            userSearchService.index(id, "member" + id, "member" + id + "@example.com");
+        }
+        for (long id = 1; id <= 2500; id++) {
+            userSearchService.remove(id);
+        }
+
+        assertTrue(userSearchService.slotCount() < 3000, "slots: " + userSearchService.slotCount());
+        assertTrue(userSearchService.search("member100@", 10).isEmpty());
+        List<UserSearchResult> results = userSearchService.search("member2999", 10);
+        assertEquals(1, results.size());
+        assertEquals(2999L, results.get(0).getId());
+    }
+
+    @Test
+    void prefixMatchesRankBeforeEarlierSubstringMatches() {
+        for (long id = 1; id <= 5; id++) {
+            userSearchService.index(id, "x-alice-" + id, "x" + id + "@example.com");
+        }
+        userSearchService.index(6L, "alice", "alice@example.com");
+
+        List<UserSearchResult> results = userSearchService.search("alice", 3);
+
+        assertEquals(3, results.size());
+        assertEquals(6L, results.get(0).getId());
+        assertEquals(1L, results.get(1).getId());
+    }
+
+    @Test
+    void substringHeavyQueryOnALargeIndexScansAtMostTheCandidateCap() {
+        UserSearchService capped = new UserSearchService(mock(UserRepository.class), 1000);
+        for (long id = 1; id <= 100_000; id++) {
+            String username = id == 500 ? "examplefan" : id == 100_000 ? "exampleadmin" : "user" + id;
+            capped.index(id, username, username + "@example.com");
+        }
+
+        List<UserSearchResult> results = capped.search("example", 10);
+
+        assertEquals(10, results.size());
+        assertEquals(500L, results.get(0).getId());
+        assertTrue(results.stream().allMatch(result -> result.getId() <= 1000), "results: " + results);
+    }
+}
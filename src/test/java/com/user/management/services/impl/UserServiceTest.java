@@ -0,0 +1,299 @@
+package com.user.management.services.impl;
+
+import com.user.management.enums.AccountStatusField;
+import com.user.management.enums.AppRole;
+import com.user.management.enums.EmailTemplate;
+import com.user.management.enums.UserSortField;
+import com.user.management.exceptions.UserMgmtException;
+import com.user.management.exceptions.ValidationException;
+import com.user.management.models.PasswordReset;
+import com.user.management.models.User;
+import com.user.management.repositories.PasswordResetRepository;
+import com.user.management.repositories.RoleRepository;
+import com.user.management.repositories.UserRepository;
+import com.user.management.request.BulkAccountStatusRequest;
+import com.user.management.request.UserFilterRequest;
+import com.user.management.response.BulkUpdateResponse;
+import com.user.management.response.KeysetPage;
+import com.user.management.response.UserSummaryResponse;
+import com.user.management.services.IAdminStatsService;
+import com.user.management.services.IMailCampaignService;
+import com.user.management.services.ITotpService;
+import com.user.management.services.IUserSearchService;
+import com.user.management.util.EmailService;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static com.user.management.util.UserManagementUtils.hashToken;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2024, 5, 2, 10, 0);
+
+    private UserRepository userRepository;
+    private IAdminStatsService adminStatsService;
+    private IMailCampaignService mailCampaignService;
+    private PasswordResetRepository passwordResetRepository;
+    private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        adminStatsService = mock(IAdminStatsService.class);
+        mailCampaignService = mock(IMailCampaignService.class);
+        passwordResetRepository = mock(PasswordResetRepository.class);
+        emailService = mock(EmailService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        userService = new UserService(userRepository, mock(RoleRepository.class), passwordResetRepository,
+                emailService, mock(ITotpService.class), eventPublisher,
+                mock(IUserSearchService.class), adminStatsService, mailCampaignService, transactionManager);
+        ReflectionTestUtils.setField(userService, "bulkUpdateChunkSize", 2);
+        ReflectionTestUtils.setField(userService, "resetRequestWindowMs", 300_000L);
+    }
+
+    @Test
+    void cursorCarriesTheLastSortValueAndId() {
+        UserFilterRequest filter = new UserFilterRequest();
+        filter.setSortBy(UserSortField.CREATED_AT);
+        when(userRepository.findUserSummaries(any(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(user(2, "alice", T1), user(5, "erin", T2), user(7, "grace", T2)));
+
+        KeysetPage<UserSummaryResponse> first = userService.getUserPage(filter, null, 2);
+        assertEquals(List.of(2L, 5L), first.getItems().stream().map(UserSummaryResponse::getId).toList());
+
+        userService.getUserPage(filter, first.getNextCursor(), 2);
+        verify(userRepository).findUserSummaries(any(), eq(T2), eq(5L), eq(3));
+    }
+
+    @Test
+    void statusUpdateThatChangesNothingIsNotCounted() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.updateAccountLockStatus(1L, false);
+        userService.updateAccountEnabledStatus(1L, true);
+
+        verify(userRepository).updateAccountNonLocked(eq(List.of(1L)), eq(true), any(), isNull());
+        verify(userRepository).updateEnabled(eq(List.of(1L)), eq(true), any(), isNull());
+        verifyNoInteractions(adminStatsService);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void statusUpdateLocksAndCountsTheChangeInOneStatement() {
+        when(userRepository.updateAccountNonLocked(eq(List.of(1L)), eq(false), any(), notNull())).thenReturn(1);
+
+        userService.updateAccountLockStatus(1L, true);
+
+        verify(adminStatsService).recordAccountStatusChange(AccountStatusField.LOCKED, true, 1);
+        verify(userRepository).updateAccountNonLocked(eq(List.of(1L)), eq(false), any(), notNull());
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void statusUpdateOfUnknownUserFails() {
+        when(userRepository.existsById(9L)).thenReturn(false);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> userService.updateCredentialsExpiryStatus(9L, true));
+
+        assertInstanceOf(UserMgmtException.class, e.getCause());
+        verifyNoInteractions(adminStatsService);
+    }
+
+    @Test
+    void bulkLockNotifiesExactlyTheUsersItChanged() {
+        UserFilterRequest filter = new UserFilterRequest();
+        filter.setRole(AppRole.ROLE_USER);
+        when(mailCampaignService.prepareCampaign(EmailTemplate.ACCOUNT_LOCKED)).thenReturn(77L);
+        when(userRepository.findUserIds(eq(filter), any(), eq(2))).thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(userRepository.lockIdsToChange(AccountStatusField.LOCKED, List.of(1L, 2L), true)).thenReturn(List.of(2L));
+        when(userRepository.lockIdsToChange(AccountStatusField.LOCKED, List.of(3L), true)).thenReturn(List.of(3L));
+        BulkAccountStatusRequest request = new BulkAccountStatusRequest();
+        request.setFilter(filter);
+        request.setValue(true);
+        request.setNotifyUsers(true);
+
+        BulkUpdateResponse response = userService.bulkUpdateAccountStatus(AccountStatusField.LOCKED, request);
+
+        assertEquals(2, response.getAffected());
+        assertEquals(77L, response.getCampaignId());
+        verify(userRepository).updateAccountNonLocked(eq(List.of(2L)), eq(false), any(), notNull());
+        verify(userRepository).updateAccountNonLocked(eq(List.of(3L)), eq(false), any(), notNull());
+        verify(mailCampaignService).addRecipients(77L, List.of(2L));
+        verify(mailCampaignService).addRecipients(77L, List.of(3L));
+        verify(mailCampaignService).launchCampaign(77L);
+        verify(mailCampaignService, never()).startCampaign(any());
+    }
+
+    @Test
+    void bulkLockLaunchesTheCampaignForCommittedChunksWhenALaterChunkFails() {
+        when(mailCampaignService.prepareCampaign(EmailTemplate.ACCOUNT_LOCKED)).thenReturn(77L);
+        when(userRepository.lockIdsToChange(AccountStatusField.LOCKED, List.of(1L, 2L), true)).thenReturn(List.of(1L, 2L));
+        when(userRepository.lockIdsToChange(AccountStatusField.LOCKED, List.of(3L), true))
+                .thenThrow(new RuntimeException("lock wait timeout"));
+        BulkAccountStatusRequest request = new BulkAccountStatusRequest();
+        request.setUserIds(List.of(1L, 2L, 3L));
+        request.setValue(true);
+        request.setNotifyUsers(true);
+
+        assertThrows(ServiceException.class, () -> userService.bulkUpdateAccountStatus(AccountStatusField.LOCKED, request));
+
+        verify(mailCampaignService).addRecipients(77L, List.of(1L, 2L));
+        verify(mailCampaignService).launchCampaign(77L);
+    }
+
+    @Test
+    void bulkUpdateWithoutNotificationTakesNoLocks() {
+        when(userRepository.updateEnabled(any(), anyBoolean(), any(), any())).thenReturn(2);
+        BulkAccountStatusRequest request = new BulkAccountStatusRequest();
+        request.setUserIds(List.of(1L, 2L));
+        request.setValue(false);
+        request.setNotifyUsers(true);
+
+        BulkUpdateResponse response = userService.bulkUpdateAccountStatus(AccountStatusField.ENABLED, request);
+
+        assertEquals(2, response.getAffected());
+        assertNull(response.getCampaignId());
+        verify(userRepository, never()).lockIdsToChange(any(), any(), anyBoolean());
+        verifyNoInteractions(mailCampaignService);
+    }
+
+    @Test
+    void skipsIssuingWhenTheDatabaseHoldsATokenFromTheSameWindow() {
+        User user = new User("alice", "alice@example.com", "old");
+        user.setId(1L);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user));
+        when(passwordResetRepository.existsUnusedExpiringAfter(eq(1L), any())).thenReturn(true);
+
+        userService.generatePasswordResetToken("alice@example.com");
+
+        verify(passwordResetRepository, never()).deleteByUserId(any());
+        verify(passwordResetRepository, never()).save(any());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void issuesATokenWhenNoneWasIssuedWithinTheWindow() {
+        User user = new User("alice", "alice@example.com", "old");
+        user.setId(1L);
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user));
+        when(passwordResetRepository.existsUnusedExpiringAfter(eq(1L), any())).thenReturn(false);
+
+        Instant before = Instant.now();
+        userService.generatePasswordResetToken("alice@example.com");
+
+        // tokens live 24h, so "issued within the window" means expiring after now + 24h - window
+        verify(passwordResetRepository).existsUnusedExpiringAfter(eq(1L), argThat(threshold ->
+                !threshold.isBefore(before.plusSeconds(24 * 3600).minusMillis(300_000L))));
+        verify(passwordResetRepository).save(any(PasswordReset.class));
+        verify(emailService).queueEmail(eq("alice@example.com"), eq(EmailTemplate.PASSWORD_RESET), anyMap());
+    }
+
+    @Test
+    void resetPasswordConsumesTheTokenBeforeChangingThePassword() {
+        User user = new User("alice", "alice@example.com", "old");
+        user.setId(1L);
+        PasswordReset reset = resetToken("token-1", user);
+        when(passwordResetRepository.findByTokenHash(hashToken("token-1"))).thenReturn(Optional.of(reset));
+        when(passwordResetRepository.consume(eq(reset.getId()), any())).thenReturn(1);
+
+        userService.resetPassword("token-1", "new-password");
+
+        verify(userRepository).updatePassword(eq(1L), argThat(hash ->
+                new BCryptPasswordEncoder().matches("new-password", hash)), any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void passwordAndTwoFactorChangesWriteOnlyTheirOwnColumns() {
+        when(userRepository.updatePassword(eq(1L), anyString(), any())).thenReturn(1);
+        when(userRepository.updateTwoFactorEnabled(eq(1L), eq(true), any())).thenReturn(1);
+        when(userRepository.updateTwoFactorEnabled(eq(1L), eq(false), any())).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.updatePassword(1L, "new-password");
+        userService.enable2FA(1L);
+        userService.disable2FA(1L);
+
+        verify(adminStatsService).recordTwoFactorChange(true);
+        verify(adminStatsService, never()).recordTwoFactorChange(false);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void twoFactorChangeOfUnknownUserFails() {
+        when(userRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(UserMgmtException.class, () -> userService.enable2FA(9L));
+        assertThrows(ServiceException.class, () -> userService.updatePassword(9L, "new-password"));
+        verifyNoInteractions(adminStatsService);
+    }
+
+    @Test
+    void resetPasswordLosingTheRaceForTheTokenChangesNothing() {
+        User user = new User("alice", "alice@example.com", "old");
+        PasswordReset reset = resetToken("token-1", user);
+        when(passwordResetRepository.findByTokenHash(hashToken("token-1"))).thenReturn(Optional.of(reset));
+        when(passwordResetRepository.consume(eq(reset.getId()), any())).thenReturn(0);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> userService.resetPassword("token-1", "new-password"));
+
+        assertTrue(e.getMessage().contains("already been used"));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        UserFilterRequest byCreatedAt = new UserFilterRequest();
+        byCreatedAt.setSortBy(UserSortField.CREATED_AT);
+        UserFilterRequest byId = new UserFilterRequest();
+
+        for (String raw : new String[]{"12", "|12", "not-a-date|12", "2024-05-01T10:00|x", "2024-05-01T10:00|-3"}) {
+            assertThrows(ValidationException.class, () -> userService.getUserPage(byCreatedAt, encode(raw), 2), raw);
+        }
+        assertThrows(ValidationException.class, () -> userService.getUserPage(byId, encode("alice|12"), 2));
+        assertThrows(ValidationException.class, () -> userService.getUserPage(byId, "%%%", 2));
+        verifyNoInteractions(userRepository);
+    }
+
+    private static UserSummaryResponse user(long id, String username, LocalDateTime createdAt) {
+        return new UserSummaryResponse(id, username, username + "@example.com", AppRole.ROLE_USER,
+                true, true, true, true, false, "email", createdAt);
+    }
+
+    private static PasswordReset resetToken(String token, User user) {
+        PasswordReset reset = PasswordReset.builder()
+                .tokenHash(hashToken(token))
+                .expiryDate(Instant.now().plusSeconds(600))
+                .user(user)
+                .build();
+        reset.setId(11L);
+        return reset;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
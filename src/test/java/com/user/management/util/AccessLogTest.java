@@ -0,0 +1,72 @@
+package com.user.management.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesEveryEventFromConcurrentProducersAsJsonLines() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file.toString(), Long.MAX_VALUE, 5, 1 << 16, 1.0);
+
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            producers.execute(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    accessLog.record("GET", "/api/users/{id}", 200, 1_500_000, 7L, 42);
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(30, TimeUnit.SECONDS));
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(20_000 - accessLog.getDroppedEvents(), lines.size());
+        assertTrue(lines.get(0).matches("\\{\"ts\":\"[^\"]+\",\"method\":\"GET\",\"path\":\"/api/users/\\{id}\","
+                + "\"status\":200,\"latencyMicros\":1500,\"userId\":7,\"bytes\":42}"), lines.get(0));
+    }
+
+    @Test
+    void rollsFileOnceItReachesTheSizeLimit() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file.toString(), 1_000, 2, 1024, 1.0);
+
+        for (int i = 0; i < 100; i++) {
+            accessLog.record("POST", "/api/auth/public/signin", 401, 1_000, null, -1);
+        }
+        accessLog.close();
+
+        assertTrue(Files.exists(dir.resolve("access.log.1")));
+        assertTrue(Files.exists(dir.resolve("access.log.2")));
+        assertFalse(Files.exists(dir.resolve("access.log.3")));
+        assertTrue(Files.readAllLines(dir.resolve("access.log.1")).get(0).contains("\"userId\":null"));
+    }
+
+    @Test
+    void alwaysLogsServerErrorsWhenSampling() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file.toString(), Long.MAX_VALUE, 1, 1024, 0.0);
+
+        accessLog.record("GET", "/api/csrf-token", 200, 1_000, null, 10);
+        accessLog.record("GET", "/api/csrf-token", 503, 1_000, null, 10);
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"status\":503"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.user.management.util;
+
+import com.user.management.enums.EmailTemplate;
+import com.user.management.exceptions.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.web.servlet.view.freemarker.FreeMarkerConfigurer;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateRegistryTest {
+
+    private EmailTemplateRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FreeMarkerConfigurer configurer = new FreeMarkerConfigurer();
+        configurer.setTemplateLoaderPath("classpath:/templates/");
+        configurer.setDefaultEncoding("UTF-8");
+        configurer.afterPropertiesSet();
+        registry = new EmailTemplateRegistry(configurer);
+    }
+
+    @Test
+    void rendersEveryTemplateWithItsRequiredKeys() {
+        String reset = registry.render(EmailTemplate.PASSWORD_RESET, Map.of("resetUrl", "https://example.com/reset?token=abc"));
+        assertTrue(reset.contains("https://example.com/reset?token=abc"));
+
+        String verification = registry.render(EmailTemplate.EMAIL_VERIFICATION,
+                Map.of("username", "alice", "verificationUrl", "https://example.com/verify?token=xyz"));
+        assertTrue(verification.contains("Hello alice,"));
+        assertTrue(verification.contains("https://example.com/verify?token=xyz"));
+
+        String locked = registry.render(EmailTemplate.ACCOUNT_LOCKED, Map.of("username", "bob"));
+        assertTrue(locked.contains("Hello bob,"));
+    }
+
+    @Test
+    void usernamesAreEscapedInEveryTemplateThatShowsThem() {
+        String username = "<a href=\"https://evil.example\">x</a>&";
+        Map<EmailTemplate, Map<String, String>> models = Map.of(
+                EmailTemplate.EMAIL_VERIFICATION, Map.of("username", username, "verificationUrl", "https://example.com/verify"),
+                EmailTemplate.ACCOUNT_LOCKED, Map.of("username", username),
+                EmailTemplate.CREDENTIALS_EXPIRED, Map.of("username", username));
+
+        models.forEach((template, model) -> {
+            String html = registry.render(template, model);
+            assertTrue(html.contains("Hello &lt;a href=&quot;https://evil.example&quot;&gt;x&lt;/a&gt;&amp;,"), template.name());
+            assertFalse(html.contains("evil.example\""), template.name());
+        });
+    }
+
+    @Test
+    void reusedBufferDoesNotLeakPreviousRender() {
+        registry.render(EmailTemplate.PASSWORD_RESET, Map.of("resetUrl", "https://example.com/first"));
+        String second = registry.render(EmailTemplate.ACCOUNT_LOCKED, Map.of("username", "carol"));
+        assertFalse(second.contains("https://example.com/first"));
+        assertEquals(1, second.split("<!DOCTYPE html>", -1).length - 1);
+    }
+
+    @Test
+    void rejectsMissingRequiredKey() {
+        assertThrows(ValidationException.class,
+                () -> registry.render(EmailTemplate.EMAIL_VERIFICATION, Map.of("username", "alice")));
+    }
+
+    /**
+     * Reports rendered messages per second per core. Run with
+     * {@code mvn test -Dtest=EmailTemplateRegistryTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRenderThroughput() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Map<String, String> model = Map.of("resetUrl", "https://example.com/reset?token=0123456789abcdef");
+        for (int i = 0; i < 50_000; i++) {
+            registry.render(EmailTemplate.PASSWORD_RESET, model);
+        }
+
+        LongAdder rendered = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Future<?>[] workers = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = pool.submit(() -> {
+                while (running.get()) {
+                    registry.render(EmailTemplate.PASSWORD_RESET, model);
+                    rendered.increment();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(5);
+        running.set(false);
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        double perSecond = rendered.sum() / seconds;
+        System.out.printf("Rendered %,d messages in %.1fs on %d threads: %,.0f/s total, %,.0f/s per core%n",
+                rendered.sum(), seconds, threads, perSecond, perSecond / threads);
+        assertTrue(rendered.sum() > 0);
+    }
+}
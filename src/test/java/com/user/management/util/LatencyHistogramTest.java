@@ -0,0 +1,66 @@
+package com.user.management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundsAreContiguousAndWithinThreePercent() {
+        for (long micros = 0; micros < 5_000_000; micros += 7) {
+            int index = LatencyHistogram.indexOf(micros);
+            long upper = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(upper >= micros, "bucket upper bound below value " + micros);
+            assertTrue(upper - micros <= Math.max(1, micros * 0.032), "bucket too wide at " + micros);
+            assertEquals(index + 1, LatencyHistogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    void reportsQuantilesCountsAndErrors() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(i), i % 100 == 0);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot(0.5, 0.99, 1.0);
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(10, snapshot.errors());
+        assertEquals(500_500_000L, snapshot.sumMicros());
+        assertEquals(500_000, snapshot.quantileMicros()[0], 500_000 * 0.032);
+        assertEquals(990_000, snapshot.quantileMicros()[1], 990_000 * 0.032);
+        assertEquals(1_000_000, snapshot.quantileMicros()[2]);
+    }
+
+    @Test
+    void quantilesForgetValuesOlderThanTheWindowButCountsDoNot() {
+        AtomicLong now = new AtomicLong();
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.SECONDS.toNanos(50), 5, now::get);
+        histogram.recordNanos(TimeUnit.SECONDS.toNanos(2), false);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        for (int i = 0; i < 99; i++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+        LatencyHistogram.Snapshot withSlowCall = histogram.snapshot(1.0);
+        assertEquals(2_000_000, withSlowCall.quantileMicros()[0]);
+        assertEquals(2_000_000, withSlowCall.maxMicros());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(25));
+        LatencyHistogram.Snapshot slowCallExpired = histogram.snapshot(1.0);
+        assertEquals(1_000, slowCallExpired.quantileMicros()[0], 1_000 * 0.032);
+        assertEquals(1_000, slowCallExpired.maxMicros());
+        assertEquals(100, slowCallExpired.count());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(5), false);
+        LatencyHistogram.Snapshot reused = histogram.snapshot(0.5);
+        assertEquals(5_000, reused.quantileMicros()[0], 5_000 * 0.032);
+        assertEquals(101, reused.count());
+    }
+}
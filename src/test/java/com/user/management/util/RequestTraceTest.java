@@ -0,0 +1,48 @@
+package com.user.management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTraceTest {
+
+    @Test
+    void spansAreIgnoredWhenTheRequestIsNotTraced() {
+        assertNull(RequestTrace.current());
+        int span = RequestTrace.open("db", "UserRepository.findById");
+        assertEquals(-1, span);
+        RequestTrace.close(span);
+    }
+
+    @Test
+    void serverTimingSumsOuterSpansPerCategory() {
+        RequestTrace trace = RequestTrace.begin();
+        int handler = RequestTrace.open("handler", "AuthController.authenticateUser");
+        int service = RequestTrace.open("service", "AuthService.signIn");
+        int inner = RequestTrace.open("service", "UserService.findByUsername");
+        RequestTrace.close(RequestTrace.open("db", "UserRepository.findByUsername"));
+        RequestTrace.close(inner);
+        RequestTrace.close(RequestTrace.open("db", "UserRepository.save"));
+        RequestTrace.close(service);
+        RequestTrace.close(handler);
+        trace.end("POST", "/api/auth/public/signin", 200);
+
+        assertNull(RequestTrace.current());
+        String header = trace.serverTiming();
+        assertTrue(header.matches("filters;dur=[\\d.E-]+, handler;dur=[\\d.E-]+, service;dur=[\\d.E-]+, "
+                + "db;desc=\"2 calls\";dur=[\\d.E-]+, total;dur=[\\d.E-]+"), header);
+        assertEquals(5, trace.spanCount());
+        assertEquals(2, trace.depth(2));
+        assertEquals(3, trace.depth(3));
+    }
+
+    @Test
+    void endClosesSpansLeftOpen() {
+        RequestTrace trace = RequestTrace.begin();
+        RequestTrace.open("render", "MappingJackson2HttpMessageConverter");
+        trace.end("GET", "/api/admin/stats", 200);
+
+        assertTrue(trace.durationMicros(0) >= 0);
+        assertEquals(0, trace.depth(0));
+    }
+}